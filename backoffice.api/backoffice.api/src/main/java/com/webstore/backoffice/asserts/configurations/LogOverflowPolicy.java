@@ -0,0 +1,14 @@
+package com.webstore.backoffice.asserts.configurations;
+
+/**
+ * What {@link com.webstore.backoffice.asserts.services.LoggerService} does with an entry that arrives
+ * while the write queue is full.
+ */
+public enum LogOverflowPolicy {
+    /** the oldest queued entry is dropped to make room */
+    DROP_OLDEST,
+    /** the caller waits up to the block timeout for room, then the entry is dropped */
+    BLOCK,
+    /** once the queue is half full only one entry in every sample rate is kept, the rest are dropped */
+    SAMPLE
+}
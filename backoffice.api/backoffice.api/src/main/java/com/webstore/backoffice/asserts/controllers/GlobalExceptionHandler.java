@@ -5,8 +5,10 @@ import com.webstore.backoffice.asserts.dtos.CustomErrorResponse;
 import com.webstore.backoffice.asserts.configurations.PeerError;
 import com.webstore.backoffice.asserts.configurations.UserError;
 import com.webstore.backoffice.crud.models.Log;
+import com.webstore.backoffice.asserts.services.ErrorFingerprintService;
 import com.webstore.backoffice.asserts.services.LoggerService;
 import jakarta.validation.ConstraintViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authorization.AuthorizationDeniedException;
@@ -21,6 +23,7 @@ import java.util.stream.Collectors;
 public class GlobalExceptionHandler {
 
     private final LoggerService loggerService;
+    private final ErrorFingerprintService errorFingerprintService;
 
     public enum AuditType {
         ASSERT("ASSERT"),
@@ -40,9 +43,11 @@ public class GlobalExceptionHandler {
 
     public static final String LOG_LEVEL_ERROR = "ERROR";
     public static final String STATUS_INTERNAL_ERROR = "INTERNAL_SERVER_ERROR";
+    public static final String CONCURRENT_MODIFICATION = "The record was changed by someone else, reload it and try again";
 
-    public GlobalExceptionHandler(LoggerService loggerService) {
+    public GlobalExceptionHandler(LoggerService loggerService, ErrorFingerprintService errorFingerprintService) {
         this.loggerService = loggerService;
+        this.errorFingerprintService = errorFingerprintService;
     }
 
     @ExceptionHandler({
@@ -58,6 +63,7 @@ public class GlobalExceptionHandler {
             AuditType auditType;
             Map<String, Object> params;
             String errorMessage = ex.getMessage();
+            HttpStatus status = HttpStatus.BAD_REQUEST;
 
             if (ex instanceof UserError) {
                 auditType = AuditType.ASSERT_USER;
@@ -85,6 +91,11 @@ public class GlobalExceptionHandler {
                         .getBindingResult().getFieldErrors().stream()
                         .map(error -> error.getDefaultMessage())
                         .collect(Collectors.joining("; "));
+            } else if (ex instanceof OptimisticLockingFailureException) {
+                auditType = AuditType.ASSERT_USER;
+                params = null;
+                errorMessage = CONCURRENT_MODIFICATION;
+                status = HttpStatus.CONFLICT;
             } else {
                 auditType = AuditType.ASSERT;
                 params = null;
@@ -92,13 +103,20 @@ public class GlobalExceptionHandler {
             }
 
             Log log = buildLogFromException(ex, params, auditType.getValue(), LOG_LEVEL_ERROR);
-            loggerService.logError(log);
+            // repeats of a failure are only counted; its details are logged at most once per interval
+            ErrorFingerprintService.Occurrence occurrence = errorFingerprintService.record(ex, log.getStatusCode());
+            if (occurrence.detailed()) {
+                log.setFingerprint(occurrence.fingerprint());
+                log.setDebugInfo(errorFingerprintService.stackTrace(ex));
+                loggerService.logError(log);
+            }
 
             CustomErrorResponse errorResponse = new CustomErrorResponse(errorMessage);
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+            return ResponseEntity.status(status).body(errorResponse);
         } catch (Exception e) {
             try {
                 Log log = buildLogFromException(e, null, AuditType.ASSERT.getValue(), LOG_LEVEL_ERROR);
+                log.setDebugInfo(errorFingerprintService.stackTrace(e));
                 loggerService.logError(log);
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new CustomErrorResponse("Internal error"));
             } catch (Exception e2) {
@@ -121,11 +139,6 @@ public class GlobalExceptionHandler {
         if (params != null && params.containsKey("long_description")) {
             log.setLongDescription(params.get("long_description").toString());
         }
-        StringBuilder stackTrace = new StringBuilder();
-        for (StackTraceElement element : ex.getStackTrace()) {
-            stackTrace.append(element.toString()).append("\n");
-        }
-        log.setDebugInfo(stackTrace.toString());
         return log;
     }
 }
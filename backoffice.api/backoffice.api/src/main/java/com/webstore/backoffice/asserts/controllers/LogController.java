@@ -0,0 +1,26 @@
+package com.webstore.backoffice.asserts.controllers;
+
+import com.webstore.backoffice.asserts.dtos.LogWriterStats;
+import com.webstore.backoffice.asserts.services.LoggerService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/crud/logs")
+@CrossOrigin(origins = "*", allowedHeaders = "*")
+public class LogController {
+
+    private final LoggerService loggerService;
+
+    public LogController(LoggerService loggerService) {
+        this.loggerService = loggerService;
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<LogWriterStats> getStats() {
+        return ResponseEntity.ok(loggerService.getStats());
+    }
+}
@@ -0,0 +1,7 @@
+package com.webstore.backoffice.asserts.dtos;
+
+/**
+ * Counters of the log writer since startup, with the number of entries waiting to be written.
+ */
+public record LogWriterStats(long queued, long written, long dropped, int pending, int capacity) {
+}
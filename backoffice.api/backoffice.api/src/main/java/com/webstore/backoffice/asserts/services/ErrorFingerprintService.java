@@ -0,0 +1,173 @@
+package com.webstore.backoffice.asserts.services;
+
+import jakarta.annotation.PreDestroy;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Groups failures by fingerprint: the exception type, the status code and the top stack frames. Each
+ * distinct failure keeps one error_fingerprints row holding its trace; repeats are counted in memory and
+ * added to the row's occurrences and last-seen time on every flush.
+ * <p>
+ * A fingerprint asks for a detailed log row at most once per detail interval, so a hot failing endpoint
+ * writes one trace a minute instead of one per request.
+ */
+@Service
+public class ErrorFingerprintService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ErrorFingerprintService.class);
+    private static final int FINGERPRINT_FRAMES = 5;
+    // the detail limiter forgets everything past this size rather than growing without bound
+    private static final int MAX_TRACKED_FINGERPRINTS = 10_000;
+    private static final String UPSERT_SQL = "INSERT INTO error_fingerprints (fingerprint, exception_type, "
+            + "status_code, debug_info, occurrences, first_seen_at, last_seen_at) VALUES (?, ?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT (fingerprint) DO UPDATE SET "
+            + "occurrences = error_fingerprints.occurrences + EXCLUDED.occurrences, "
+            + "last_seen_at = GREATEST(error_fingerprints.last_seen_at, EXCLUDED.last_seen_at), "
+            + "debug_info = COALESCE(error_fingerprints.debug_info, EXCLUDED.debug_info)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long detailIntervalNanos;
+    private final LongSupplier nanoClock;
+
+    private final Map<String, Aggregate> pending = new ConcurrentHashMap<>();
+    private final Map<String, Long> lastDetailedAt = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ErrorFingerprintService(JdbcTemplate jdbcTemplate,
+                                   @Value("${app.logs.detail-interval:PT1M}") Duration detailInterval) {
+        this(jdbcTemplate, detailInterval, System::nanoTime);
+    }
+
+    ErrorFingerprintService(JdbcTemplate jdbcTemplate, Duration detailInterval, LongSupplier nanoClock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.detailIntervalNanos = detailInterval.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Counts one occurrence of the failure.
+     *
+     * @return the fingerprint, and whether this occurrence should be logged with its full details
+     */
+    public Occurrence record(Throwable ex, String statusCode) {
+        String fingerprint = fingerprint(ex, statusCode);
+        Instant now = Instant.now();
+        pending.compute(fingerprint, (key, aggregate) -> aggregate == null
+                // the trace is only rendered for the first occurrence in a flush interval
+                ? new Aggregate(ex.getClass().getName(), statusCode, stackTrace(ex), 1, now, now)
+                : aggregate.plusOne(now));
+        return new Occurrence(fingerprint, claimDetail(fingerprint));
+    }
+
+    public String stackTrace(Throwable ex) {
+        StringBuilder stackTrace = new StringBuilder();
+        for (StackTraceElement element : ex.getStackTrace()) {
+            stackTrace.append(element.toString()).append("\n");
+        }
+        return stackTrace.toString();
+    }
+
+    /**
+     * Adds the counted occurrences to error_fingerprints in one batch. Counts that cannot be written are
+     * kept for the next flush.
+     */
+    @Scheduled(fixedDelayString = "${app.logs.fingerprint-flush-interval:PT10S}")
+    public void flush() {
+        List<Map.Entry<String, Aggregate>> batch = new ArrayList<>();
+        for (String fingerprint : pending.keySet()) {
+            Aggregate aggregate = pending.remove(fingerprint);
+            if (aggregate != null) {
+                batch.add(Map.entry(fingerprint, aggregate));
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, batch, batch.size(), (statement, entry) -> {
+                Aggregate aggregate = entry.getValue();
+                statement.setString(1, entry.getKey());
+                statement.setString(2, aggregate.exceptionType());
+                statement.setString(3, aggregate.statusCode());
+                statement.setString(4, aggregate.stackTrace());
+                statement.setLong(5, aggregate.occurrences());
+                statement.setTimestamp(6, Timestamp.from(aggregate.firstSeen()));
+                statement.setTimestamp(7, Timestamp.from(aggregate.lastSeen()));
+            });
+        } catch (DataAccessException e) {
+            logger.warn("Could not write {} error fingerprints, keeping them for the next flush", batch.size(), e);
+            batch.forEach(entry -> pending.merge(entry.getKey(), entry.getValue(), Aggregate::merge));
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        flush();
+    }
+
+    /**
+     * Line numbers are left out so a fingerprint survives unrelated edits to the same file.
+     */
+    private static String fingerprint(Throwable ex, String statusCode) {
+        StringBuilder key = new StringBuilder(ex.getClass().getName()).append('|').append(statusCode);
+        StackTraceElement[] frames = ex.getStackTrace();
+        for (int i = 0; i < Math.min(FINGERPRINT_FRAMES, frames.length); i++) {
+            key.append('|').append(frames[i].getClassName()).append('#').append(frames[i].getMethodName());
+        }
+        return DigestUtils.sha256Hex(key.toString());
+    }
+
+    private boolean claimDetail(String fingerprint) {
+        if (lastDetailedAt.size() > MAX_TRACKED_FINGERPRINTS) {
+            lastDetailedAt.clear();
+        }
+        long now = nanoClock.getAsLong();
+        boolean[] claimed = new boolean[1];
+        lastDetailedAt.compute(fingerprint, (key, last) -> {
+            if (last == null || now - last >= detailIntervalNanos) {
+                claimed[0] = true;
+                return now;
+            }
+            return last;
+        });
+        return claimed[0];
+    }
+
+    /**
+     * @param detailed whether the caller should write a log row with the full details
+     */
+    public record Occurrence(String fingerprint, boolean detailed) {
+    }
+
+    private record Aggregate(String exceptionType, String statusCode, String stackTrace,
+                             long occurrences, Instant firstSeen, Instant lastSeen) {
+
+        Aggregate plusOne(Instant now) {
+            return new Aggregate(exceptionType, statusCode, stackTrace, occurrences + 1, firstSeen,
+                    now.isAfter(lastSeen) ? now : lastSeen);
+        }
+
+        Aggregate merge(Aggregate other) {
+            return new Aggregate(exceptionType, statusCode, stackTrace, occurrences + other.occurrences(),
+                    firstSeen.isBefore(other.firstSeen()) ? firstSeen : other.firstSeen(),
+                    lastSeen.isAfter(other.lastSeen()) ? lastSeen : other.lastSeen());
+        }
+    }
+}
@@ -1,25 +1,240 @@
 package com.webstore.backoffice.asserts.services;
 
+import com.webstore.backoffice.asserts.configurations.LogOverflowPolicy;
+import com.webstore.backoffice.asserts.dtos.LogWriterStats;
 import com.webstore.backoffice.crud.models.Log;
-import com.webstore.backoffice.asserts.repositories.LogRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Writes log rows off the request thread. Entries go to a bounded queue and a single writer thread
+ * inserts them in batches, whenever a batch is full or the flush interval has passed since its first
+ * entry. A full queue is handled by the configured {@link LogOverflowPolicy}, so logging never makes a
+ * failing request slower by more than the block timeout.
+ * <p>
+ * The writer drains the queue before the application shuts down; entries still queued when the process
+ * dies are lost.
+ */
 @Service
 public class LoggerService {
 
-    private final LogRepository logRepository;
+    private static final Logger logger = LoggerFactory.getLogger(LoggerService.class);
+    private static final String INSERT_SQL = "INSERT INTO logs (status_code, log_level, short_description, "
+            + "long_description, debug_info, created_at, audit_type, admin_user_id, user_id, fingerprint) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingQueue<Entry> queue;
+    private final int capacity;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final LogOverflowPolicy overflowPolicy;
+    private final int sampleRate;
+    private final long blockTimeoutNanos;
+
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicLong sampled = new AtomicLong();
+
+    private volatile boolean closing;
+    private Thread writer;
 
-    public LoggerService(LogRepository logRepository) {
-        this.logRepository = logRepository;
+    @Autowired
+    public LoggerService(JdbcTemplate jdbcTemplate,
+                         @Value("${app.logs.queue-capacity:10000}") int capacity,
+                         @Value("${app.logs.batch-size:200}") int batchSize,
+                         @Value("${app.logs.flush-interval:PT1S}") Duration flushInterval,
+                         @Value("${app.logs.overflow-policy:DROP_OLDEST}") LogOverflowPolicy overflowPolicy,
+                         @Value("${app.logs.sample-rate:10}") int sampleRate,
+                         @Value("${app.logs.block-timeout:PT0.1S}") Duration blockTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.capacity = capacity;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.overflowPolicy = overflowPolicy;
+        this.sampleRate = Math.max(sampleRate, 1);
+        this.blockTimeoutNanos = blockTimeout.toNanos();
     }
 
     public void logInfo(Log log) {
         log.setLogLevel("INFO");
         log.setAuditType("INFO");
-        logRepository.save(log);
+        enqueue(log);
     }
 
     public void logError(Log log) {
-        logRepository.save(log);
+        enqueue(log);
+    }
+
+    public LogWriterStats getStats() {
+        return new LogWriterStats(queued.sum(), written.sum(), dropped.sum(), queue.size(), capacity);
+    }
+
+    @PostConstruct
+    void start() {
+        writer = new Thread(this::run, "log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Lets the writer drain what is queued, waiting at most a few seconds for it.
+     */
+    @PreDestroy
+    void close() throws InterruptedException {
+        closing = true;
+        if (writer != null) {
+            writer.interrupt();
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        // whatever the writer left behind, or everything if it never started
+        flush();
+    }
+
+    /**
+     * Writes everything queued on the calling thread.
+     */
+    void flush() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void enqueue(Log log) {
+        Entry entry = new Entry(log, Instant.now());
+        boolean accepted = switch (overflowPolicy) {
+            case DROP_OLDEST -> offerDroppingOldest(entry);
+            case BLOCK -> offerBlocking(entry);
+            case SAMPLE -> offerSampled(entry);
+        };
+        if (accepted) {
+            queued.increment();
+        } else {
+            dropped.increment();
+        }
+    }
+
+    private boolean offerDroppingOldest(Entry entry) {
+        while (!queue.offer(entry)) {
+            if (queue.poll() != null) {
+                dropped.increment();
+            }
+        }
+        return true;
+    }
+
+    private boolean offerBlocking(Entry entry) {
+        try {
+            return queue.offer(entry, blockTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private boolean offerSampled(Entry entry) {
+        if (queue.size() >= capacity / 2) {
+            if (sampled.incrementAndGet() % sampleRate != 0) {
+                return false;
+            }
+        }
+        return queue.offer(entry);
+    }
+
+    private void run() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        while (!closing) {
+            try {
+                Entry first = queue.take();
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    Entry next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // closing; the batch in hand is written below and the rest by close()
+            }
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Inserts the batch in one statement. A batch the database refuses is retried row by row, so one
+     * bad entry costs only itself.
+     */
+    private void write(List<Entry> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), LoggerService::bind);
+            written.add(batch.size());
+        } catch (DataAccessException e) {
+            for (Entry entry : batch) {
+                try {
+                    jdbcTemplate.update(INSERT_SQL, statement -> bind(statement, entry));
+                    written.increment();
+                } catch (DataAccessException rowError) {
+                    dropped.increment();
+                    logger.warn("Could not write log entry {}", entry.log().getStatusCode(), rowError);
+                }
+            }
+        }
+    }
+
+    private static void bind(PreparedStatement statement, Entry entry) throws SQLException {
+        Log log = entry.log();
+        statement.setString(1, Objects.requireNonNullElse(log.getStatusCode(), "INTERNAL_SERVER_ERROR"));
+        statement.setString(2, Objects.requireNonNullElse(log.getLogLevel(), "ERROR"));
+        // exceptions without a message used to fail validation and lose the row
+        statement.setString(3, Objects.requireNonNullElse(log.getShortDescription(), ""));
+        statement.setString(4, log.getLongDescription());
+        statement.setString(5, log.getDebugInfo());
+        statement.setTimestamp(6, Timestamp.from(entry.createdAt()));
+        statement.setString(7, Objects.requireNonNullElse(log.getAuditType(), "ASSERT"));
+        statement.setObject(8, log.getAdminUser() == null ? null : log.getAdminUser().getId(), Types.BIGINT);
+        statement.setObject(9, log.getUser() == null ? null : log.getUser().getId(), Types.BIGINT);
+        statement.setString(10, log.getFingerprint());
+    }
+
+    /**
+     * @param createdAt when the entry was logged, not when it was written
+     */
+    private record Entry(Log log, Instant createdAt) {
     }
 }
@@ -0,0 +1,88 @@
+package com.webstore.backoffice.crud.configurations;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A schema's filterable properties compiled against one root type: for every property the attribute
+ * path is resolved and the predicate factory chosen once, so a request only binds its values.
+ */
+final class FilterPlan {
+
+    private final Map<String, FieldFilter> fields;
+
+    FilterPlan(Map<String, FieldFilter> fields) {
+        this.fields = Map.copyOf(fields);
+    }
+
+    /**
+     * @return the compiled filter for a request field, or null when the schema does not declare it
+     */
+    FieldFilter get(String field) {
+        return fields.get(field);
+    }
+
+    int size() {
+        return fields.size();
+    }
+
+    @FunctionalInterface
+    interface PredicateFactory {
+        Optional<Predicate> create(CriteriaBuilder cb, Path<?> path, Object value);
+    }
+
+    @FunctionalInterface
+    interface RankFactory {
+        Expression<Double> create(CriteriaBuilder cb, Path<?> path, String value);
+    }
+
+    /**
+     * How a property's request value is matched, derived once from its schema "type" and "format".
+     * List values of any kind but {@link #NUMBER} match the array column or associated collection.
+     */
+    enum ValueKind {
+        /** equality against a parsed number */
+        NUMBER,
+        /** "date-time": exact value or a min/max range */
+        DATE_TIME,
+        /** "date-time-no-year": month and day match, the year is ignored */
+        DAY_OF_YEAR,
+        /** an unsupported format, never filters */
+        NONE,
+        /** no format: case-insensitive text match, a min/max range or equality, depending on the value */
+        DEFAULT
+    }
+
+    /**
+     * @param attribute the root attribute the property maps to
+     * @param joinId    whether the property is the id of the associated {@code attribute}
+     * @param ranker    relevance of a string match, null when the property's search mode has none
+     */
+    record FieldFilter(String attribute, boolean joinId, ValueKind kind, PredicateFactory factory,
+                       RankFactory ranker) {
+
+        Optional<Predicate> bind(Root<?> root, CriteriaBuilder cb, Object value) {
+            if (value == null) {
+                return Optional.empty();
+            }
+            return factory.create(cb, path(root), value);
+        }
+
+        Optional<Expression<Double>> rank(Root<?> root, CriteriaBuilder cb, Object value) {
+            if (ranker == null || !(value instanceof String text) || text.isBlank()) {
+                return Optional.empty();
+            }
+            return Optional.of(ranker.create(cb, path(root), text));
+        }
+
+        private Path<?> path(Root<?> root) {
+            return joinId ? root.get(attribute).get("id") : root.get(attribute);
+        }
+    }
+}
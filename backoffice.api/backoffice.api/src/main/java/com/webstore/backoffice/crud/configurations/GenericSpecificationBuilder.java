@@ -1,90 +1,415 @@
 package com.webstore.backoffice.crud.configurations;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.webstore.backoffice.crud.constants.CrudConstants;
+import com.webstore.backoffice.crud.constants.SearchMode;
+import com.webstore.backoffice.crud.dtos.KeysetCursor;
 import com.webstore.backoffice.crud.dtos.QueryBuildWrapper;
 import com.webstore.backoffice.crud.dtos.FilteredRequestParams;
-import com.webstore.backoffice.crud.models.BaseEntity;
 import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
 import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
+import static com.webstore.backoffice.asserts.AssertUtil.ASSERT_USER;
+
+/**
+ * Builds filter, sort and keyset predicates from a schema and request parameters. {@code T} is either a
+ * base entity or one of the read-only view entities declared under a schema's "views" key.
+ * Filterable properties are compiled into a {@link FilterPlan} once per schema and root type and reused
+ * until a {@link SchemaChangedEvent} for that schema arrives. String values are matched according to the
+ * property's {@link SearchMode}; a ranked request orders full-text and trigram matches by relevance.
+ */
 @Service
-public class GenericSpecificationBuilder<T extends BaseEntity<?>>  {
+public class GenericSpecificationBuilder<T>  {
 
-    public QueryBuildWrapper<T> buildSpecification(JsonNode schema, FilteredRequestParams params) {
-        var filterParams = params.getFilterParams();
-        Specification<T> specification = (root, query, criteriaBuilder) -> {
-            List<Predicate> predicates = new ArrayList<>();
+    private static final char LIKE_ESCAPE = '\\';
 
-            if (filterParams != null && !filterParams.isEmpty()) {
-                filterParams.forEach((field, value) -> {
-                    JsonNode propertySchema = schema.get("properties").get(field);
-                    if (propertySchema != null) {
-                        addPredicate(root, criteriaBuilder, field, value, propertySchema)
-                                .ifPresent(predicates::add);
-                    }
-                });
-            }
+    private final Map<PlanKey, CompiledPlan> filterPlans = new ConcurrentHashMap<>();
+    private final Map<String, String> camelCaseNames = new ConcurrentHashMap<>();
 
-            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
-        };
+    public QueryBuildWrapper<T> buildSpecification(SchemaModel schema, FilteredRequestParams params) {
+        var filterParams = params.getFilterParams();
+        Specification<T> specification = buildFilterSpecification(schema, filterParams);
 
         Sort sort = buildSort(params.getOrderParams());
+        if (params.isKeyset()) {
+            Sort keysetSort = withIdTiebreaker(sort);
+            return new QueryBuildWrapper<>(specification, keysetSort,
+                    PageRequest.of(0, params.getPageSize(), keysetSort),
+                    buildSeekSpecification(keysetSort, params.getAfter()));
+        }
+        if (params.isRank() && hasRankedFilter(schema, filterParams)) {
+            // the relevance expression has no Sort form, so the specification orders the row query itself
+            return new QueryBuildWrapper<>(rankedSpecification(schema, filterParams, specification, sort),
+                    Sort.unsorted(), PageRequest.of(params.getPage() - 1, params.getPageSize()));
+        }
         PageRequest pageRequest = PageRequest.of(params.getPage() - 1, params.getPageSize(), sort);
 
         return new QueryBuildWrapper<>(specification, sort, pageRequest);
     }
 
-    private Optional<Predicate> addPredicate(Root<T> root, CriteriaBuilder cb,
-                                             String field, Object value, JsonNode propertySchema) {
-        if (value == null) {
-            return Optional.empty();
+    /**
+     * The filter predicates alone, without ordering or fetches. It only reads the root and the builder,
+     * so it can also restrict a {@code CriteriaUpdate}, which has no query to pass. Unlike a list query,
+     * filters that bind to nothing are rejected rather than read as "every row".
+     */
+    public Specification<T> buildRestrictingSpecification(SchemaModel schema, Map<String, Object> filterParams) {
+        return (root, query, criteriaBuilder) -> {
+            Predicate predicate = filterPredicate(schema, filterParams, root, criteriaBuilder);
+            ASSERT_USER(predicate != null, CrudConstants.BULK_TARGET_REQUIRED,
+                    new HashMap<>() {{
+                        put("code", "APP_SRV_00015_BULK_TARGET_REQUIRED");
+                        put("long_description", CrudConstants.BULK_TARGET_REQUIRED);
+                    }});
+            return predicate;
+        };
+    }
+
+    private Specification<T> buildFilterSpecification(SchemaModel schema, Map<String, Object> filterParams) {
+        return (root, query, criteriaBuilder) -> {
+            Predicate predicate = filterPredicate(schema, filterParams, root, criteriaBuilder);
+            return predicate != null ? predicate : criteriaBuilder.and();
+        };
+    }
+
+    /**
+     * @return the conjunction of the filters that bind to a predicate, or null when none does
+     */
+    private Predicate filterPredicate(SchemaModel schema, Map<String, Object> filterParams, Root<T> root,
+                                      CriteriaBuilder criteriaBuilder) {
+        if (filterParams == null || filterParams.isEmpty()) {
+            return null;
         }
 
-        Path<?> path;
-        if (field.contains("id")) {
-            String entityField = toCamelCase(field.replace("id", ""));
-            path = root.get(entityField).get("id");
-        } else {
-            String entityField = toCamelCase(field);
-            path = root.get(entityField);
-        }
-
-        boolean isIntegerField = false;
-        if (propertySchema.has("type")) {
-            JsonNode typeNode = propertySchema.get("type");
-            if (typeNode.isArray()) {
-                for (JsonNode node : typeNode) {
-                    if ("integer".equalsIgnoreCase(node.asText()) || "number".equalsIgnoreCase(node.asText())) {
-                        isIntegerField = true;
-                        break;
-                    }
+        FilterPlan plan = filterPlan(schema, root);
+        List<Predicate> predicates = new ArrayList<>(filterParams.size());
+        filterParams.forEach((field, value) -> {
+            FilterPlan.FieldFilter filter = plan.get(field);
+            if (filter != null) {
+                filter.bind(root, criteriaBuilder, value).ifPresent(predicates::add);
+            }
+        });
+
+        return predicates.isEmpty() ? null : criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+    }
+
+    private boolean hasRankedFilter(SchemaModel schema, Map<String, Object> filterParams) {
+        if (filterParams == null) {
+            return false;
+        }
+        return filterParams.entrySet().stream().anyMatch(filter -> {
+            SchemaProperty property = schema.getProperty(filter.getKey());
+            return property != null && property.getSearch().isRanked()
+                    && filter.getValue() instanceof String text && !text.isBlank();
+        });
+    }
+
+    /**
+     * Orders rows by the summed relevance of the ranked filters, then by the requested sort and id.
+     */
+    private Specification<T> rankedSpecification(SchemaModel schema, Map<String, Object> filterParams,
+                                                 Specification<T> specification, Sort sort) {
+        Sort tiebreaker = withIdTiebreaker(sort);
+        return (root, query, cb) -> {
+            Predicate predicate = specification.toPredicate(root, query, cb);
+            // count queries reuse the specification, only the query selecting rows is ordered
+            if (!root.getJavaType().equals(query.getResultType())) {
+                return predicate;
+            }
+            FilterPlan plan = filterPlan(schema, root);
+            Expression<Double> relevance = null;
+            for (Map.Entry<String, Object> filter : filterParams.entrySet()) {
+                FilterPlan.FieldFilter field = plan.get(filter.getKey());
+                Optional<Expression<Double>> rank = field == null
+                        ? Optional.empty()
+                        : field.rank(root, cb, filter.getValue());
+                if (rank.isPresent()) {
+                    relevance = relevance == null ? rank.get() : cb.sum(relevance, rank.get());
                 }
             }
+            List<Order> orders = new ArrayList<>();
+            if (relevance != null) {
+                orders.add(cb.desc(relevance));
+            }
+            orders.addAll(QueryUtils.toOrders(tiebreaker, root, cb));
+            query.orderBy(orders);
+            return predicate;
+        };
+    }
+
+    /**
+     * Encodes the sort key values of the given row as the cursor for the page that follows it.
+     */
+    public String buildCursor(Object row, Sort sort) {
+        List<String> keys = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            Object value = readProperty(row, order.getProperty());
+            keys.add(cursorKey(order));
+            values.add(value == null ? null : value.toString());
         }
+        return new KeysetCursor(keys, values).encode();
+    }
 
-        if (isIntegerField) {
-            Number numberValue = parseNumber(value);
-            return Optional.of(cb.equal(path, numberValue));
+    private Sort withIdTiebreaker(Sort sort) {
+        if (sort.getOrderFor("id") != null) {
+            return sort;
         }
+        return sort.and(Sort.by(Sort.Order.asc("id")));
+    }
+
+    private Specification<T> buildSeekSpecification(Sort sort, String after) {
+        if (after.isEmpty()) {
+            return null;
+        }
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        List<Sort.Order> orders = sort.toList();
+        List<String> keys = orders.stream().map(this::cursorKey).toList();
+        ASSERT_USER(cursor != null && cursor.getProperties().equals(keys), CrudConstants.INVALID_CURSOR,
+                new HashMap<>() {{
+                    put("code", "APP_SRV_00011_INVALID_CURSOR");
+                    put("long_description", CrudConstants.INVALID_CURSOR);
+                }});
+
+        // (a, b, id) > (x, y, k) expanded as a > x OR (a = x AND b > y) OR (a = x AND b = y AND id > k),
+        // honoring each column's direction and PostgreSQL's default NULLS LAST / NULLS FIRST placement.
+        // The OR chain alone cannot bound an index scan, so it is ANDed with a range on the leading column.
+        return (root, query, cb) -> {
+            List<Predicate> alternatives = new ArrayList<>();
+            List<Predicate> equalities = new ArrayList<>();
+            Predicate bound = null;
+            for (int i = 0; i < orders.size(); i++) {
+                Sort.Order order = orders.get(i);
+                @SuppressWarnings("unchecked")
+                Path<Comparable> path = root.get(order.getProperty());
+                Comparable value = parseCursorValue(cursor.getValues().get(i), path.getJavaType());
+                if (i == 0 && orders.size() > 1) {
+                    bound = leadingBound(root, cb, path, value, order);
+                }
+
+                Predicate next = seekPredicate(cb, path, value, order.isAscending());
+                if (next != null) {
+                    List<Predicate> branch = new ArrayList<>(equalities);
+                    branch.add(next);
+                    alternatives.add(cb.and(branch.toArray(new Predicate[0])));
+                }
+                equalities.add(value == null ? cb.isNull(path) : cb.equal(path, value));
+            }
+            Predicate seek = cb.or(alternatives.toArray(new Predicate[0]));
+            return bound == null ? seek : cb.and(bound, seek);
+        };
+    }
+
+    /**
+     * The rows at or after the cursor on the first sort column, a range the index on that column can seek
+     * to. Ascending NULLs sort last, so past a non-null value they are still ahead; the bound is only a
+     * plain range when the column is mapped as not null. Descending NULLs sort first and are behind any
+     * non-null cursor, and a null cursor leaves nothing to bound.
+     */
+    @SuppressWarnings("unchecked")
+    private Predicate leadingBound(Root<T> root, CriteriaBuilder cb, Path<Comparable> path, Comparable value,
+                                   Sort.Order order) {
+        if (!order.isAscending()) {
+            return value == null ? null : cb.lessThanOrEqualTo(path, value);
+        }
+        if (value == null) {
+            return cb.isNull(path);
+        }
+        Predicate range = cb.greaterThanOrEqualTo(path, value);
+        return isNotNull(root.getModel(), order.getProperty()) ? range : cb.or(range, cb.isNull(path));
+    }
+
+    private boolean isNotNull(ManagedType<?> model, String name) {
+        return findAttribute(model, name) instanceof SingularAttribute<?, ?> attribute
+                && (attribute.isId() || !attribute.isOptional());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Predicate seekPredicate(CriteriaBuilder cb, Path<Comparable> path, Comparable value, boolean ascending) {
+        if (ascending) {
+            return value == null ? null : cb.or(cb.greaterThan(path, value), cb.isNull(path));
+        }
+        return value == null ? cb.isNotNull(path) : cb.lessThan(path, value);
+    }
+
+    private String cursorKey(Sort.Order order) {
+        return order.getProperty() + ":" + order.getDirection();
+    }
+
+    private Object readProperty(Object row, String property) {
+        BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(row);
+        if (wrapper.isReadableProperty(property)) {
+            return wrapper.getPropertyValue(property);
+        }
+        return PropertyAccessorFactory.forDirectFieldAccess(row).getPropertyValue(property);
+    }
+
+    private Comparable<?> parseCursorValue(String raw, Class<?> type) {
+        if (raw == null) {
+            return null;
+        }
+        try {
+            if (type == String.class) return raw;
+            if (type == Long.class || type == long.class) return Long.valueOf(raw);
+            if (type == Integer.class || type == int.class) return Integer.valueOf(raw);
+            if (type == Double.class || type == double.class) return Double.valueOf(raw);
+            if (type == BigDecimal.class) return new BigDecimal(raw);
+            if (type == Boolean.class || type == boolean.class) return Boolean.valueOf(raw);
+            if (type == OffsetDateTime.class) return OffsetDateTime.parse(raw);
+            if (type == LocalDateTime.class) return LocalDateTime.parse(raw);
+            if (type == LocalDate.class) return LocalDate.parse(raw);
+            if (type == UUID.class) return UUID.fromString(raw);
+        } catch (RuntimeException e) {
+            // fall through to the user error below
+        }
+        ASSERT_USER(false, CrudConstants.INVALID_CURSOR,
+                new HashMap<>() {{
+                    put("code", "APP_SRV_00011_INVALID_CURSOR");
+                    put("long_description", CrudConstants.INVALID_CURSOR);
+                }});
+        return null;
+    }
 
-        if (value instanceof List) {
-            return handleListValue(cb, path, (List<?>) value);
-        } else if (propertySchema.has("format")) {
-            return handleFormattedField(cb, path, value, propertySchema.get("format").asText());
-        } else if (value instanceof String) {
+    @EventListener
+    public void onSchemaChanged(SchemaChangedEvent event) {
+        filterPlans.keySet().removeIf(key -> key.schemaName().equals(event.getSchemaName()));
+    }
+
+    /**
+     * The compiled plan for this schema and root type. Schemas without a "name" cannot be told apart,
+     * so their plan is compiled for the request and not cached. A plan compiled from an older model of
+     * the same schema is recompiled, in case the reload event has not been delivered yet.
+     */
+    private FilterPlan filterPlan(SchemaModel schema, Root<T> root) {
+        if (schema.getName() == null) {
+            return compileFilterPlan(schema, root.getModel()).plan();
+        }
+        PlanKey planKey = new PlanKey(schema.getName(), root.getJavaType());
+        CompiledPlan cached = filterPlans.get(planKey);
+        if (cached != null && cached.schema() == schema) {
+            return cached.plan();
+        }
+        // compute locks the bin, so only misses and stale plans pay for it
+        return filterPlans.compute(planKey,
+                (key, compiled) -> compiled != null && compiled.schema() == schema
+                        ? compiled
+                        : compileFilterPlan(schema, root.getModel())).plan();
+    }
+
+    private CompiledPlan compileFilterPlan(SchemaModel schema, ManagedType<?> model) {
+        Map<String, FilterPlan.FieldFilter> fields = new HashMap<>();
+        schema.getProperties().forEach((field, property) -> fields.put(field, compileField(field, property, model)));
+        return new CompiledPlan(schema, new FilterPlan(fields));
+    }
+
+    private FilterPlan.FieldFilter compileField(String field, SchemaProperty property, ManagedType<?> model) {
+        String attributeName;
+        boolean joinId = false;
+        boolean isArrayColumn = false;
+        Attribute<?, ?> attribute = findAttribute(model, toCamelCase(field));
+        if (attribute != null) {
+            // flat view columns such as gender_id or the categories array are read as they are
+            attributeName = attribute.getName();
+            isArrayColumn = attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.BASIC
+                    && Collection.class.isAssignableFrom(attribute.getJavaType());
+        } else if (field.contains("id")) {
+            attributeName = toCamelCase(field.replace("id", ""));
+            joinId = true;
+        } else {
+            attributeName = toCamelCase(field);
+        }
+
+        FilterPlan.ValueKind kind = valueKind(property);
+        if (kind == FilterPlan.ValueKind.NUMBER) {
+            return new FilterPlan.FieldFilter(attributeName, joinId, kind,
+                    (cb, path, value) -> Optional.of(cb.equal(path, parseNumber(value))), null);
+        }
+
+        FilterPlan.PredicateFactory listFactory = isArrayColumn
+                ? (cb, path, value) -> handleArrayValue(cb, path, (List<?>) value)
+                : (cb, path, value) -> handleListValue(cb, path, (List<?>) value);
+        FilterPlan.PredicateFactory valueFactory = switch (kind) {
+            case DATE_TIME -> this::handleDateTimeField;
+            case DAY_OF_YEAR -> this::handleDateTimeNoYearField;
+            case NONE -> (cb, path, value) -> Optional.empty();
+            default -> unformattedFactory(property.getSearch());
+        };
+        return new FilterPlan.FieldFilter(attributeName, joinId, kind,
+                (cb, path, value) -> value instanceof List
+                        ? listFactory.create(cb, path, value)
+                        : valueFactory.create(cb, path, value),
+                kind == FilterPlan.ValueKind.DEFAULT ? ranker(property.getSearch()) : null);
+    }
+
+    private FilterPlan.PredicateFactory unformattedFactory(SearchMode search) {
+        FilterPlan.PredicateFactory textFactory = switch (search) {
+            case FULLTEXT -> this::handleFullTextValue;
+            case TRIGRAM -> this::handleTrigramValue;
+            case PREFIX -> this::handlePrefixValue;
+            case CONTAINS -> (cb, path, value) -> handleStringValue(cb, path, (String) value);
+        };
+        return (cb, path, value) -> value instanceof String
+                ? textFactory.create(cb, path, value)
+                : handleUnformattedValue(cb, path, value);
+    }
+
+    private FilterPlan.RankFactory ranker(SearchMode search) {
+        return switch (search) {
+            case FULLTEXT -> (cb, path, value) ->
+                    cb.function(SearchFunctionContributor.FULLTEXT_RANK, Double.class, path, cb.literal(value));
+            case TRIGRAM -> (cb, path, value) ->
+                    cb.function(SearchFunctionContributor.TRIGRAM_RANK, Double.class, path, cb.literal(value));
+            default -> null;
+        };
+    }
+
+    private FilterPlan.ValueKind valueKind(SchemaProperty property) {
+        // only the nullable numeric columns, declared as ["integer", "null"], compare as numbers
+        if (property.isNullable() && (property.hasType("integer") || property.hasType("number"))) {
+            return FilterPlan.ValueKind.NUMBER;
+        }
+        if (property.getFormat() == null) {
+            return FilterPlan.ValueKind.DEFAULT;
+        }
+        return switch (property.getFormat()) {
+            case "date-time" -> FilterPlan.ValueKind.DATE_TIME;
+            case "date-time-no-year" -> FilterPlan.ValueKind.DAY_OF_YEAR;
+            default -> FilterPlan.ValueKind.NONE;
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private Optional<Predicate> handleUnformattedValue(CriteriaBuilder cb, Path<?> path, Object value) {
+        if (value instanceof String) {
             return handleStringValue(cb, path, (String) value);
         } else if (value instanceof Map) {
             return handleRangeValue(cb, path, (Map<String, Object>) value);
@@ -104,6 +429,54 @@ public class GenericSpecificationBuilder<T extends BaseEntity<?>>  {
 //        return Optional.of(cb.or(predicates.toArray(new Predicate[0])));
     }
 
+    @SuppressWarnings("unchecked")
+    private Optional<Predicate> handleArrayValue(CriteriaBuilder cb, Path<?> path, List<?> values) {
+        // array && array, the column holds any of the requested values
+        return Optional.of(((HibernateCriteriaBuilder) cb)
+                .collectionIntersects((Path<Collection<Object>>) path, (List<Object>) values));
+    }
+
+    private Attribute<?, ?> findAttribute(ManagedType<?> model, String name) {
+        return model.getAttributes().stream()
+                .filter(attribute -> attribute.getName().equals(name))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private Optional<Predicate> handleFullTextValue(CriteriaBuilder cb, Path<?> path, Object value) {
+        String text = (String) value;
+        if (text.isBlank()) {
+            return Optional.empty();
+        }
+        return Optional.of(cb.isTrue(
+                cb.function(SearchFunctionContributor.FULLTEXT_MATCH, Boolean.class, path, cb.literal(text))));
+    }
+
+    private Optional<Predicate> handleTrigramValue(CriteriaBuilder cb, Path<?> path, Object value) {
+        String text = (String) value;
+        if (text.isBlank()) {
+            return Optional.empty();
+        }
+        // the substring match covers values too short for trigrams, similarity forgives typos;
+        // the same gin_trgm_ops index serves both
+        Expression<String> column = path.as(String.class);
+        return Optional.of(cb.or(
+                ((HibernateCriteriaBuilder) cb).ilike(column, "%" + escapeLike(text) + "%", LIKE_ESCAPE),
+                cb.isTrue(cb.function(SearchFunctionContributor.TRIGRAM_MATCH, Boolean.class, column, cb.literal(text)))));
+    }
+
+    private Optional<Predicate> handlePrefixValue(CriteriaBuilder cb, Path<?> path, Object value) {
+        String text = (String) value;
+        if (text.isBlank()) {
+            return Optional.empty();
+        }
+        return Optional.of(cb.like(cb.lower(path.as(String.class)), escapeLike(text.toLowerCase()) + "%", LIKE_ESCAPE));
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
     private Optional<Predicate> handleStringValue(CriteriaBuilder cb, Path<?> path, String value) {
         return Optional.of(cb.like(
                 cb.lower(path.as(String.class)),
@@ -111,15 +484,6 @@ public class GenericSpecificationBuilder<T extends BaseEntity<?>>  {
         ));
     }
 
-    private Optional<Predicate> handleFormattedField(CriteriaBuilder cb, Path<?> path,
-                                                     Object value, String format) {
-        return switch (format) {
-            case "date-time" -> handleDateTimeField(cb, path, value);
-            case "date-time-no-year" -> handleDateTimeNoYearField(cb, path, value);
-            default -> Optional.empty();
-        };
-    }
-
     private Optional<Predicate> handleDateTimeField(CriteriaBuilder cb, Path<?> path, Object value) {
         if (value instanceof Map) {
             Map<String, Object> dateRange = (Map<String, Object>) value;
@@ -177,17 +541,40 @@ public class GenericSpecificationBuilder<T extends BaseEntity<?>>  {
     private LocalDateTime parseDateTime(Object value) {
         // Add your datetime parsing logic here
         // This is a placeholder - implement based on your date format
-        return LocalDateTime.parse(value.toString());
+        try {
+            return LocalDateTime.parse(value.toString());
+        } catch (DateTimeParseException e) {
+            invalidFilterValue(value);
+            return null;
+        }
     }
 
     private Number parseNumber(Object value) {
         if (value instanceof Number) {
             return (Number) value;
         }
-        return Double.parseDouble(value.toString());
+        try {
+            return Double.parseDouble(value.toString());
+        } catch (NumberFormatException e) {
+            invalidFilterValue(value);
+            return null;
+        }
+    }
+
+    private void invalidFilterValue(Object value) {
+        String message = CrudConstants.INVALID_FILTER_VALUE + value;
+        ASSERT_USER(false, message,
+                new HashMap<>() {{
+                    put("code", "APP_SRV_00019_INVALID_FILTER_VALUE");
+                    put("long_description", message);
+                }});
     }
 
     private String toCamelCase(String snakeCase) {
+        return camelCaseNames.computeIfAbsent(snakeCase, GenericSpecificationBuilder::convertToCamelCase);
+    }
+
+    private static String convertToCamelCase(String snakeCase) {
         String[] parts = snakeCase.split("_");
         if (parts.length == 0) return snakeCase;
         StringBuilder camelCase = new StringBuilder(parts[0]);
@@ -218,4 +605,10 @@ public class GenericSpecificationBuilder<T extends BaseEntity<?>>  {
 
         return Sort.by(orders);
     }
+
+    private record PlanKey(String schemaName, Class<?> rootType) {
+    }
+
+    private record CompiledPlan(SchemaModel schema, FilterPlan plan) {
+    }
 }
@@ -0,0 +1,17 @@
+package com.webstore.backoffice.crud.configurations;
+
+/**
+ * Published when the definition of a schema is replaced, so anything derived from it can be dropped.
+ */
+public class SchemaChangedEvent {
+
+    private final String schemaName;
+
+    public SchemaChangedEvent(String schemaName) {
+        this.schemaName = schemaName;
+    }
+
+    public String getSchemaName() {
+        return schemaName;
+    }
+}
@@ -0,0 +1,65 @@
+package com.webstore.backoffice.crud.configurations;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.webstore.backoffice.crud.constants.CrudConstants;
+import com.webstore.backoffice.crud.dtos.FetchPlan;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Typed, immutable form of a schema document, parsed once when the schema is loaded and shared by
+ * every request. The raw document remains available from {@link SchemaRegistry#getRawSchema(String)}.
+ */
+public final class SchemaModel {
+
+    private final String name;
+    private final String views;
+    private final String countMode;
+    private final Integer countLimit;
+    private final FetchPlan fetchPlan;
+    private final Map<String, SchemaProperty> properties;
+
+    public SchemaModel(String name, String views, String countMode, Integer countLimit, FetchPlan fetchPlan,
+                       Map<String, SchemaProperty> properties) {
+        this.name = name;
+        this.views = views;
+        this.countMode = countMode;
+        this.countLimit = countLimit;
+        this.fetchPlan = fetchPlan;
+        this.properties = Collections.unmodifiableMap(new LinkedHashMap<>(properties));
+    }
+
+    public static SchemaModel parse(JsonNode schema) {
+        Map<String, SchemaProperty> properties = new LinkedHashMap<>();
+        JsonNode propertiesNode = schema.get("properties");
+        if (propertiesNode != null) {
+            propertiesNode.fields().forEachRemaining(property -> properties.put(property.getKey(),
+                    SchemaProperty.parse(property.getKey(), property.getValue())));
+        }
+        return new SchemaModel(
+                text(schema, "name"),
+                text(schema, CrudConstants.SCHEMA_VIEWS),
+                text(schema, CrudConstants.SCHEMA_COUNT_MODE),
+                schema.hasNonNull(CrudConstants.SCHEMA_COUNT_LIMIT) ? schema.get(CrudConstants.SCHEMA_COUNT_LIMIT).asInt() : null,
+                FetchPlan.fromSchema(schema),
+                properties);
+    }
+
+    private static String text(JsonNode schema, String field) {
+        JsonNode node = schema.get(field);
+        return node != null && node.isTextual() ? node.asText() : null;
+    }
+
+    public SchemaProperty getProperty(String property) {
+        return properties.get(property);
+    }
+
+    public String getName() { return name; }
+    public String getViews() { return views; }
+    public String getCountMode() { return countMode; }
+    public Integer getCountLimit() { return countLimit; }
+    public FetchPlan getFetchPlan() { return fetchPlan; }
+    public Map<String, SchemaProperty> getProperties() { return properties; }
+}
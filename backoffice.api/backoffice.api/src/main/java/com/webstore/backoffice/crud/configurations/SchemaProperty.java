@@ -0,0 +1,65 @@
+package com.webstore.backoffice.crud.configurations;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.webstore.backoffice.crud.constants.SearchMode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One entry of a schema's "properties", reduced to what the API acts on. Immutable.
+ */
+public final class SchemaProperty {
+
+    private final String name;
+    private final List<String> types;
+    private final String format;
+    private final String label;
+    private final SearchMode search;
+
+    public SchemaProperty(String name, List<String> types, String format, String label, SearchMode search) {
+        this.name = name;
+        this.types = List.copyOf(types);
+        this.format = format;
+        this.label = label;
+        this.search = search;
+    }
+
+    static SchemaProperty parse(String name, JsonNode property) {
+        List<String> types = new ArrayList<>();
+        JsonNode type = property.get("type");
+        if (type != null && type.isArray()) {
+            type.forEach(node -> types.add(node.asText()));
+        } else if (type != null) {
+            types.add(type.asText());
+        }
+        SearchMode search = SearchMode.CONTAINS;
+        if (property.hasNonNull("search")) {
+            search = SearchMode.fromValue(property.get("search").asText());
+            if (search == null) {
+                throw new IllegalArgumentException("Unknown search mode for property " + name + ": " + property.get("search"));
+            }
+        }
+        return new SchemaProperty(name, types,
+                property.hasNonNull("format") ? property.get("format").asText() : null,
+                property.hasNonNull("label") ? property.get("label").asText() : null,
+                search);
+    }
+
+    public boolean hasType(String type) {
+        return types.stream().anyMatch(type::equalsIgnoreCase);
+    }
+
+    /**
+     * @return true for a union type that admits "null", e.g. {@code ["integer", "null"]}
+     */
+    public boolean isNullable() {
+        return hasType("null");
+    }
+
+    public String getName() { return name; }
+    public List<String> getTypes() { return types; }
+    public String getFormat() { return format; }
+    public String getLabel() { return label; }
+    public SearchMode getSearch() { return search; }
+}
@@ -3,33 +3,204 @@ package com.webstore.backoffice.crud.configurations;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.core.io.support.ResourcePatternResolver;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Loads the schema documents from classpath:schemas/*.json and keeps each one both as a shared
+ * {@link SchemaModel} and as its raw JSON. When {@code app.schemas.watch-dir} is set, *.json files in
+ * that directory override the bundled ones and are reloaded on change, and deleting one falls back to
+ * the bundled version; every reload swaps in a new immutable set of schemas and publishes a
+ * {@link SchemaChangedEvent}.
+ */
 @Component
 public class SchemaRegistry {
+    private static final Logger log = LoggerFactory.getLogger(SchemaRegistry.class);
+    private static final String BUNDLED_LOCATION = "classpath:schemas/";
+
     private final ObjectMapper objectMapper = new ObjectMapper();
-    private final Map<String, JsonNode> schemas = new ConcurrentHashMap<>();
+    private final AtomicReference<Schemas> schemas = new AtomicReference<>(new Schemas(Map.of(), Map.of()));
+    private final ApplicationEventPublisher eventPublisher;
+    private final String watchDir;
+    private WatchService watchService;
+
+    public SchemaRegistry(ApplicationEventPublisher eventPublisher,
+                          @Value("${app.schemas.watch-dir:}") String watchDir) {
+        this.eventPublisher = eventPublisher;
+        this.watchDir = watchDir;
+    }
 
     @PostConstruct
     public void init() throws IOException {
         ResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
-        Resource[] resources = resolver.getResources("classpath:schemas/*.json");
+        Resource[] resources = resolver.getResources(BUNDLED_LOCATION + "*.json");
 
+        Map<String, JsonNode> documents = new HashMap<>();
         for (Resource resource : resources) {
-            String filename = resource.getFilename();
-            String entityName = filename.substring(0, filename.lastIndexOf('.'));
-            schemas.put(entityName, objectMapper.readTree(resource.getInputStream()));
+            try (InputStream inputStream = resource.getInputStream()) {
+                documents.put(schemaName(resource.getFilename()), objectMapper.readTree(inputStream));
+            }
+        }
+
+        if (!watchDir.isBlank()) {
+            Path directory = Path.of(watchDir);
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.json")) {
+                for (Path file : files) {
+                    documents.put(schemaName(file.getFileName().toString()), objectMapper.readTree(file.toFile()));
+                }
+            }
+            startWatching(directory);
+        }
+
+        Map<String, SchemaModel> models = new HashMap<>();
+        documents.forEach((name, document) -> models.put(name, SchemaModel.parse(document)));
+        schemas.set(new Schemas(models, documents));
+    }
+
+    public SchemaModel getSchema(String entityName) {
+        return schemas.get().models().get(entityName);
+    }
+
+    /**
+     * @return a private copy of the schema document, for callers that need more than the model covers
+     */
+    public JsonNode getRawSchema(String entityName) {
+        JsonNode document = schemas.get().documents().get(entityName);
+        return document != null ? document.deepCopy() : null;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (watchService != null) {
+            watchService.close();
         }
     }
 
-    public JsonNode getSchema(String entityName) {
-        return schemas.get(entityName).deepCopy();
+    private void startWatching(Path directory) throws IOException {
+        watchService = FileSystems.getDefault().newWatchService();
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+        Thread watcher = new Thread(() -> watch(directory), "schema-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    private void watch(Path directory) {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.context() instanceof Path file && file.toString().endsWith(".json")) {
+                        if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                            revert(directory.resolve(file));
+                        } else {
+                            reload(directory.resolve(file));
+                        }
+                    }
+                }
+                if (!key.reset()) {
+                    log.warn("Schema directory {} is no longer accessible, hot reload stopped", directory);
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // shutting down
+        }
+    }
+
+    void reload(Path file) {
+        String name = schemaName(file.getFileName().toString());
+        JsonNode document;
+        SchemaModel model;
+        try {
+            document = objectMapper.readTree(file.toFile());
+            // a file that was just created or truncated reads as empty until its content is written
+            if (!document.isObject()) {
+                log.warn("Keeping the previous version of schema {}: the file is not a JSON object", name);
+                return;
+            }
+            model = SchemaModel.parse(document);
+        } catch (IOException | IllegalArgumentException e) {
+            // editors save in several steps; keep serving the previous version until the file parses
+            log.warn("Keeping the previous version of schema {}: {}", name, e.getMessage());
+            return;
+        }
+        schemas.updateAndGet(current -> current.with(name, model, document));
+        eventPublisher.publishEvent(new SchemaChangedEvent(name));
+    }
+
+    /**
+     * Goes back to the bundled version of a schema whose override file was deleted, or drops the schema
+     * when only the override defined it.
+     */
+    void revert(Path file) {
+        String name = schemaName(file.getFileName().toString());
+        Resource resource = new PathMatchingResourcePatternResolver().getResource(BUNDLED_LOCATION + name + ".json");
+        if (!resource.exists()) {
+            schemas.updateAndGet(current -> current.without(name));
+            log.info("Schema {} was deleted and has no bundled version, it is no longer served", name);
+        } else {
+            JsonNode document;
+            try (InputStream inputStream = resource.getInputStream()) {
+                document = objectMapper.readTree(inputStream);
+            } catch (IOException e) {
+                log.warn("Keeping the previous version of schema {}: {}", name, e.getMessage());
+                return;
+            }
+            SchemaModel model = SchemaModel.parse(document);
+            schemas.updateAndGet(current -> current.with(name, model, document));
+        }
+        eventPublisher.publishEvent(new SchemaChangedEvent(name));
+    }
+
+    private static String schemaName(String filename) {
+        return filename.substring(0, filename.lastIndexOf('.'));
+    }
+
+    private record Schemas(Map<String, SchemaModel> models, Map<String, JsonNode> documents) {
+        Schemas {
+            models = Map.copyOf(models);
+            documents = Map.copyOf(documents);
+        }
+
+        Schemas with(String name, SchemaModel model, JsonNode document) {
+            Map<String, SchemaModel> nextModels = new HashMap<>(models);
+            Map<String, JsonNode> nextDocuments = new HashMap<>(documents);
+            nextModels.put(name, model);
+            nextDocuments.put(name, document);
+            return new Schemas(nextModels, nextDocuments);
+        }
+
+        Schemas without(String name) {
+            Map<String, SchemaModel> nextModels = new HashMap<>(models);
+            Map<String, JsonNode> nextDocuments = new HashMap<>(documents);
+            nextModels.remove(name);
+            nextDocuments.remove(name);
+            return new Schemas(nextModels, nextDocuments);
+        }
     }
 }
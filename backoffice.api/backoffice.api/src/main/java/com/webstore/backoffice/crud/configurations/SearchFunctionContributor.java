@@ -0,0 +1,37 @@
+package com.webstore.backoffice.crud.configurations;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * PostgreSQL search operators that have no criteria API counterpart, for the {@code search} modes of
+ * {@link GenericSpecificationBuilder}. The text search expressions must stay identical to the ones the
+ * GIN indexes are built on, otherwise the planner falls back to a sequential scan.
+ * Registered through META-INF/services.
+ */
+public class SearchFunctionContributor implements FunctionContributor {
+
+    public static final String FULLTEXT_MATCH = "fts_match";
+    public static final String FULLTEXT_RANK = "fts_rank";
+    public static final String TRIGRAM_MATCH = "trgm_match";
+    public static final String TRIGRAM_RANK = "trgm_rank";
+
+    private static final String TEXT_SEARCH_VECTOR = "to_tsvector('simple', coalesce(?1, ''))";
+    private static final String TEXT_SEARCH_QUERY = "plainto_tsquery('simple', ?2)";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicTypeRegistry types = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+        BasicType<Boolean> booleanType = types.resolve(StandardBasicTypes.BOOLEAN);
+        BasicType<Double> doubleType = types.resolve(StandardBasicTypes.DOUBLE);
+
+        var registry = functionContributions.getFunctionRegistry();
+        registry.registerPattern(FULLTEXT_MATCH, "(" + TEXT_SEARCH_VECTOR + " @@ " + TEXT_SEARCH_QUERY + ")", booleanType);
+        registry.registerPattern(FULLTEXT_RANK, "ts_rank(" + TEXT_SEARCH_VECTOR + ", " + TEXT_SEARCH_QUERY + ")", doubleType);
+        registry.registerPattern(TRIGRAM_MATCH, "(?1 % ?2)", booleanType);
+        registry.registerPattern(TRIGRAM_RANK, "similarity(?1, ?2)", doubleType);
+    }
+}
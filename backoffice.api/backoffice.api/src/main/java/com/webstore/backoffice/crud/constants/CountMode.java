@@ -0,0 +1,22 @@
+package com.webstore.backoffice.crud.constants;
+
+/**
+ * How the total row count of a paginated query is obtained.
+ */
+public enum CountMode {
+    /** full count(*) over the filtered rows */
+    EXACT,
+    /** planner statistics for unfiltered queries, otherwise a count that stops at the schema's countLimit */
+    ESTIMATED,
+    /** no count; only whether a next page exists is reported */
+    NONE;
+
+    public static CountMode fromValue(String value) {
+        for (CountMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(value)) {
+                return mode;
+            }
+        }
+        return null;
+    }
+}
@@ -24,6 +24,36 @@ public final class CrudConstants {
     public static final String FILTER_PARAMS_REQUIRED = "Filter parameters are required";
     public static final String FILTER_PARAM_PAGE_DEFAULT = "1";
     public static final String FILTER_PARAM_SIZE_DEFAULT = "10";
+    public static final String FILTER_PARAM_AFTER = "after";
+    public static final String INVALID_CURSOR = "Invalid pagination cursor";
+    public static final String INVALID_FILTER_VALUE = "Invalid filter value: ";
+    public static final String FILTER_PARAM_COUNT_MODE = "countMode";
+    public static final String FILTER_PARAM_RANK = "rank";
+    public static final String INVALID_COUNT_MODE = "Count mode must be one of exact, estimated or none";
+    public static final String SCHEMA_VIEWS = "views";
+    public static final String SCHEMA_COUNT_MODE = "countMode";
+    public static final String SCHEMA_COUNT_LIMIT = "countLimit";
+    public static final int COUNT_LIMIT_DEFAULT = 1000;
+    public static final String EXPORT_PARAM_FORMAT = "format";
+    public static final String EXPORT_FORMAT_DEFAULT = "csv";
+    public static final String INVALID_EXPORT_FORMAT = "Export format must be one of csv or ndjson";
+    public static final int EXPORT_FETCH_SIZE = 1000;
+    public static final int BULK_MAX_ITEMS = 5000;
+    public static final int BULK_BATCH_SIZE = 50;
+    public static final String BULK_LIMIT_EXCEEDED = "A bulk request can contain at most " + BULK_MAX_ITEMS + " items";
+    public static final String ID_REQUIRED = "Id is required";
+    public static final String DUPLICATE_ID = "Id appears more than once in the request";
+    public static final String ENTITY_NOT_FOUND = "Entity not found";
+    public static final String FIELD_NOT_PATCHABLE = "Field cannot be patched: ";
+    public static final String INVALID_PATCH = "Patch leaves the entity invalid: ";
+    public static final String INVALID_FIELD_TYPE = "Value has the wrong type";
+    public static final String PATCH_NOT_OBJECT = "Patch body must be a JSON object";
+    public static final String PASSWORD_NOT_TEXT = "password_hash must be a string";
+    public static final String IMAGE_URL_PREFIX = "/images/";
+    public static final int MAX_PRODUCT_IMAGES = 3;
+    public static final String DELTA_REQUIRED = "Delta is required";
+    public static final String INSUFFICIENT_STOCK = "Stock cannot go below zero";
+    public static final String BULK_TARGET_REQUIRED = "Either ids or filter params that select rows are required";
 
     public static final String USER_SCHEMA_NAME = "users";
     public static final String PRODUCT_SCHEMA_NAME = "products";
@@ -0,0 +1,36 @@
+package com.webstore.backoffice.crud.constants;
+
+/**
+ * Output formats of the streaming export.
+ */
+public enum ExportFormat {
+    /** RFC 4180 CSV with a header row taken from the first record */
+    CSV("text/csv", "csv"),
+    /** one JSON object per line */
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static ExportFormat fromValue(String value) {
+        for (ExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,13 @@
+package com.webstore.backoffice.crud.constants;
+
+/**
+ * Where the uploaded images of a product are in the processing pipeline.
+ */
+public enum ImageStatus {
+    /** uploads are staged or being processed, not all of them are listed on the product yet */
+    PENDING,
+    /** every upload was processed and recorded */
+    READY,
+    /** the last uploads finished but at least one was rejected or could not be stored */
+    FAILED
+}
@@ -0,0 +1,51 @@
+package com.webstore.backoffice.crud.constants;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Downscaled copies of a stored image, served under {@code /images/<segment>/<file name>}. An image is
+ * scaled to fit the bounds with its aspect ratio kept and is never enlarged.
+ */
+public enum ImageVariant {
+    THUMBNAIL("thumb", 160, 160),
+    SMALL("w320", 320, Integer.MAX_VALUE),
+    MEDIUM("w640", 640, Integer.MAX_VALUE),
+    LARGE("w1280", 1280, Integer.MAX_VALUE);
+
+    private final String segment;
+    private final int maxWidth;
+    private final int maxHeight;
+
+    ImageVariant(String segment, int maxWidth, int maxHeight) {
+        this.segment = segment;
+        this.maxWidth = maxWidth;
+        this.maxHeight = maxHeight;
+    }
+
+    public String getSegment() {
+        return segment;
+    }
+
+    public int getMaxWidth() {
+        return maxWidth;
+    }
+
+    public int getMaxHeight() {
+        return maxHeight;
+    }
+
+    /**
+     * The URL of this variant of a stored image, or the URL itself when it is not a stored image.
+     */
+    public String urlOf(String imageUrl) {
+        if (imageUrl == null || !imageUrl.startsWith(CrudConstants.IMAGE_URL_PREFIX)) {
+            return imageUrl;
+        }
+        return CrudConstants.IMAGE_URL_PREFIX + segment + "/" + imageUrl.substring(CrudConstants.IMAGE_URL_PREFIX.length());
+    }
+
+    public static Optional<ImageVariant> fromSegment(String segment) {
+        return Arrays.stream(values()).filter(variant -> variant.segment.equals(segment)).findFirst();
+    }
+}
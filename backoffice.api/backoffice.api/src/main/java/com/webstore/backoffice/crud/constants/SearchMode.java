@@ -0,0 +1,31 @@
+package com.webstore.backoffice.crud.constants;
+
+/**
+ * How a string filter on a schema property is matched, declared per property as {@code "search"}.
+ */
+public enum SearchMode {
+    /** case-insensitive substring match, {@code lower(col) LIKE '%value%'}; the default */
+    CONTAINS,
+    /** every word of the value occurs in the column's text search vector */
+    FULLTEXT,
+    /** case-insensitive substring or trigram-similar match, served by a pg_trgm index */
+    TRIGRAM,
+    /** case-insensitive prefix match, served by a text_pattern_ops index */
+    PREFIX;
+
+    public static SearchMode fromValue(String value) {
+        for (SearchMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(value)) {
+                return mode;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return whether matches of this mode carry a relevance score to order by
+     */
+    public boolean isRanked() {
+        return this == FULLTEXT || this == TRIGRAM;
+    }
+}
@@ -1,53 +1,151 @@
 package com.webstore.backoffice.crud.controllers;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.webstore.backoffice.crud.constants.ExportFormat;
+import com.webstore.backoffice.crud.dtos.ActivationRequest;
+import com.webstore.backoffice.crud.dtos.ActivationResult;
 import com.webstore.backoffice.crud.dtos.BaseDto;
+import com.webstore.backoffice.crud.dtos.BulkResult;
 import com.webstore.backoffice.crud.services.GenericAppService;
 import com.webstore.backoffice.crud.models.BaseEntity;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.List;
 import java.util.Map;
 
+/**
+ * CRUD endpoints for one entity. Each endpoint checks the caller's read, create, update or delete
+ * permission on the interface named by the subclass, as Node does for the same screens.
+ */
 @CrossOrigin(origins = "*", allowedHeaders = "*")
 public abstract class GenericController<D extends BaseDto<E>, E extends BaseEntity<ID>, ID> {
 
     private final GenericAppService<D, ?, ID> service;
+    private final String interfaceName;
 
-    protected GenericController(GenericAppService<D, ?, ID> service) {
+    protected GenericController(GenericAppService<D, ?, ID> service, String interfaceName) {
         this.service = service;
+        this.interfaceName = interfaceName;
+    }
+
+    /**
+     * The interfaces.code_name the permissions of these endpoints are granted on.
+     */
+    public String getInterfaceName() {
+        return interfaceName;
     }
 
     @Transactional
+    @PreAuthorize("hasPermission(this.interfaceName, 'read')")
     @GetMapping("/{id}")
     public ResponseEntity<D> getById(@PathVariable ID id) {
         return ResponseEntity.ok(service.findById(id));
     }
 
     @Transactional
+    @PreAuthorize("hasPermission(this.interfaceName, 'read')")
     @GetMapping("/filtered")
     public ResponseEntity<?> findAll(@RequestParam Map<String,String> allParams) throws JsonProcessingException {
         return ResponseEntity.ok(service.findAll(allParams));
     }
 
+    /**
+     * Streams every row matching filterParams/orderParams as CSV or NDJSON ({@code format}, default csv).
+     * Not transactional here on purpose: the rows are read inside the streaming body, after this returns.
+     */
+    @PreAuthorize("hasPermission(this.interfaceName, 'read')")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam Map<String,String> allParams) throws JsonProcessingException {
+        ExportFormat format = service.parseExportFormat(allParams);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(service.getExportFileName(format))
+                        .build()
+                        .toString())
+                .body(service.export(allParams, format));
+    }
+
     @Transactional
+    @PreAuthorize("hasPermission(this.interfaceName, 'create')")
     @PostMapping
     public ResponseEntity<D> create(@Valid @RequestBody D dto) {
         return ResponseEntity.ok().body(service.create(dto));
     }
 
+    /**
+     * Creates all items or none: when any item is invalid the response is 422 with per-item errors.
+     */
     @Transactional
+    @PreAuthorize("hasPermission(this.interfaceName, 'create')")
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkResult<D>> createAll(@RequestBody List<D> dtos) {
+        return bulkResponse(service.createAll(dtos));
+    }
+
+    /**
+     * Updates all items or none; every item must carry the id of an existing row.
+     */
+    @Transactional
+    @PreAuthorize("hasPermission(this.interfaceName, 'update')")
+    @PutMapping("/bulk")
+    public ResponseEntity<BulkResult<D>> updateAll(@RequestBody List<D> dtos) {
+        return bulkResponse(service.updateAll(dtos));
+    }
+
+    @Transactional
+    @PreAuthorize("hasPermission(this.interfaceName, 'update')")
     @PutMapping("/{id}")
     public ResponseEntity<D> update(@PathVariable ID id,@Valid @RequestBody D dto) {
         return ResponseEntity.ok(service.update(id, dto));
     }
 
+    /**
+     * Changes only the fields present in the body; a concurrent edit of the same fields is rejected.
+     */
     @Transactional
+    @PreAuthorize("hasPermission(this.interfaceName, 'update')")
+    @PatchMapping("/{id}")
+    public ResponseEntity<D> patch(@PathVariable ID id, @RequestBody JsonNode changes) {
+        return ResponseEntity.ok(service.patch(id, changes));
+    }
+
+    @Transactional
+    @PreAuthorize("hasPermission(this.interfaceName, 'delete')")
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable ID id) {
         service.delete(id);
         return ResponseEntity.ok().build();
     }
+
+    /**
+     * Soft-deletes the rows selected by ids and/or filter params with one UPDATE.
+     */
+    @Transactional
+    @PreAuthorize("hasPermission(this.interfaceName, 'delete')")
+    @PostMapping("/deactivate")
+    public ResponseEntity<ActivationResult> deactivate(@RequestBody ActivationRequest request) {
+        return ResponseEntity.ok(new ActivationResult(service.setActive(request, false)));
+    }
+
+    @Transactional
+    @PreAuthorize("hasPermission(this.interfaceName, 'update')")
+    @PostMapping("/activate")
+    public ResponseEntity<ActivationResult> activate(@RequestBody ActivationRequest request) {
+        return ResponseEntity.ok(new ActivationResult(service.setActive(request, true)));
+    }
+
+    private ResponseEntity<BulkResult<D>> bulkResponse(BulkResult<D> result) {
+        return ResponseEntity.status(result.failed() > 0 ? HttpStatus.UNPROCESSABLE_ENTITY : HttpStatus.OK).body(result);
+    }
 }
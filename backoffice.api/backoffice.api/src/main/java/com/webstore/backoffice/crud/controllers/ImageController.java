@@ -0,0 +1,168 @@
+package com.webstore.backoffice.crud.controllers;
+
+import com.webstore.backoffice.crud.constants.ImageVariant;
+import com.webstore.backoffice.crud.services.ImageProcessingService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.commons.io.FilenameUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Serves the stored product images. A stored file is named after the hash of its content and never
+ * changes, so the hash is a strong ETag, responses may be cached for good, and a conditional request is
+ * answered without touching the disk.
+ * <p>
+ * On Tomcat the body is handed to the connector's sendfile support: the request thread returns as soon
+ * as the headers are set and the poller copies the file to the socket without reading it into the heap.
+ * Other containers get a {@link FileChannel#transferTo} copy on the request thread.
+ */
+@RestController
+@RequestMapping("/images")
+public class ImageController {
+
+    private static final String CACHE_CONTROL = "public, max-age=31536000, immutable";
+    private static final String REVALIDATE = "no-cache";
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final ImageProcessingService imageProcessingService;
+
+    public ImageController(ImageProcessingService imageProcessingService) {
+        this.imageProcessingService = imageProcessingService;
+    }
+
+    @RequestMapping(value = "/{fileName}", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void serve(@PathVariable String fileName, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        if (!imageProcessingService.isStoredFileName(fileName)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        send(fileName, FilenameUtils.getBaseName(fileName), () -> imageProcessingService.findStored(fileName),
+                false, request, response);
+    }
+
+    /**
+     * A downscaled copy of a stored image, see {@link ImageVariant}. Its first request queues it and gets
+     * the original, which is only cached until revalidated so the variant replaces it once written.
+     */
+    @RequestMapping(value = "/{variant}/{fileName}", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void serveVariant(@PathVariable String variant, @PathVariable String fileName,
+                             HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ImageVariant imageVariant = ImageVariant.fromSegment(variant).orElse(null);
+        if (imageVariant == null || !imageProcessingService.isStoredFileName(fileName)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        send(fileName, FilenameUtils.getBaseName(fileName) + "-" + variant,
+                () -> imageProcessingService.findVariant(fileName, imageVariant), true, request, response);
+    }
+
+    private void send(String fileName, String tag, Supplier<Optional<Path>> lookup, boolean variant,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String etag = "\"" + tag + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        Path path = lookup.get().orElse(null);
+        if (path == null) {
+            response.reset();
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        if (variant && !imageProcessingService.isVariant(path)) {
+            etag = "\"" + FilenameUtils.getBaseName(fileName) + "\"";
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, REVALIDATE);
+            if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+        }
+
+        long length = Files.size(path);
+        long start = 0;
+        long end = length;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        // a Range whose If-Range names another version is ignored and the whole file sent
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(range);
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length) + 1;
+                }
+            } catch (IllegalArgumentException e) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            // several ranges are answered with the whole file, which the client has to accept
+            if (ranges.size() == 1) {
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + length);
+            }
+        }
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setContentType(MediaTypeFactory.getMediaType(fileName)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+        response.setContentLengthLong(end - start);
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end);
+            return;
+        }
+        try (FileChannel file = FileChannel.open(path)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position < end) {
+                position += file.transferTo(position, end - position, out);
+            }
+        }
+    }
+
+    /**
+     * Whether an If-None-Match value names {@code etag}, using the weak comparison it asks for.
+     */
+    private static boolean matches(String header, String etag) {
+        if (header == null) {
+            return false;
+        }
+        return Arrays.stream(header.split(","))
+                .map(String::trim)
+                .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+                .anyMatch(tag -> tag.equals(etag) || tag.equals("*"));
+    }
+}
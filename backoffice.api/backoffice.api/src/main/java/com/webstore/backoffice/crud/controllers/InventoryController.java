@@ -0,0 +1,37 @@
+package com.webstore.backoffice.crud.controllers;
+
+import com.webstore.backoffice.crud.dtos.BulkResult;
+import com.webstore.backoffice.crud.dtos.StockAdjustment;
+import com.webstore.backoffice.crud.dtos.StockLevel;
+import com.webstore.backoffice.crud.services.InventoryService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/crud/inventories")
+@CrossOrigin(origins = "*", allowedHeaders = "*")
+public class InventoryController {
+
+    private final InventoryService inventoryService;
+
+    public InventoryController(InventoryService inventoryService) {
+        this.inventoryService = inventoryService;
+    }
+
+    /**
+     * Adds each delta to its product's stock, all or nothing. Not transactional here on purpose: the
+     * service rolls back its own transaction when an adjustment is refused.
+     */
+    @PostMapping("/adjustments")
+    public ResponseEntity<BulkResult<StockLevel>> adjust(@RequestBody List<StockAdjustment> adjustments) {
+        BulkResult<StockLevel> result = inventoryService.adjust(adjustments);
+        return ResponseEntity.status(result.failed() > 0 ? HttpStatus.UNPROCESSABLE_ENTITY : HttpStatus.OK).body(result);
+    }
+}
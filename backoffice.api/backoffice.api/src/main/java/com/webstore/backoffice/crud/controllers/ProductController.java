@@ -1,12 +1,14 @@
 package com.webstore.backoffice.crud.controllers;
 
 import com.webstore.backoffice.crud.dtos.CategoryDto;
+import com.webstore.backoffice.crud.dtos.ImageProcessingStatus;
 import com.webstore.backoffice.crud.dtos.ProductDto;
+import com.webstore.backoffice.crud.services.ImageProcessingService;
 import com.webstore.backoffice.crud.services.ProductService;
 import com.webstore.backoffice.crud.models.Product;
-import jakarta.transaction.Transactional;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -20,11 +22,19 @@ import java.util.Set;
 @RequestMapping("/api/products")
 public class ProductController extends GenericController<ProductDto, Product, Long> {
 
-    public ProductController(ProductService service) {
-        super(service);
+    private final ImageProcessingService imageProcessingService;
+
+    public ProductController(ProductService service, ImageProcessingService imageProcessingService) {
+        super(service, "products");
+        this.imageProcessingService = imageProcessingService;
     }
 
-    @Transactional
+    /**
+     * The uploads are staged before the product's transaction starts, so no connection is held while
+     * they are written; the same applies to the multipart update. Calling the inherited endpoint does not
+     * go through method security again, so both check their permission here.
+     */
+    @PreAuthorize("hasPermission(this.interfaceName, 'create')")
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<ProductDto> create(@RequestParam("name") String name,
                                              @RequestParam("price") BigDecimal price,
@@ -53,13 +63,16 @@ public class ProductController extends GenericController<ProductDto, Product, Lo
         }
         dto.setCategories(categoryDtos);
         dto.setCode("P" + System.currentTimeMillis());
-        dto.setImages(Arrays.stream(new MultipartFile[] {image1, image2, image3})
-                .filter(image -> image.getSize() > 0)
-                .toArray(MultipartFile[]::new));
-        return super.create(dto);
+        dto.setStagedImages(imageProcessingService.stage(nonEmpty(image1, image2, image3)));
+        try {
+            return super.create(dto);
+        } catch (RuntimeException e) {
+            imageProcessingService.discard(dto.getStagedImages());
+            throw e;
+        }
     }
 
-    @Transactional
+    @PreAuthorize("hasPermission(this.interfaceName, 'update')")
     @PutMapping(value = "/{id}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<ProductDto> update(@PathVariable Long id,
                                              @RequestParam("name") String name,
@@ -95,9 +108,27 @@ public class ProductController extends GenericController<ProductDto, Product, Lo
                 .toList();
         dto.setImagesToDelete(imagesToDeleteList);
         dto.setCategories(categoryDtos);
-        dto.setImages(Arrays.stream(new MultipartFile[] {image1, image2, image3})
-                .filter(image -> image.getSize() > 0)
-                .toArray(MultipartFile[]::new));
-        return super.update(id, dto);
+        dto.setStagedImages(imageProcessingService.stage(nonEmpty(image1, image2, image3)));
+        try {
+            return super.update(id, dto);
+        } catch (RuntimeException e) {
+            imageProcessingService.discard(dto.getStagedImages());
+            throw e;
+        }
+    }
+
+    /**
+     * Whether the images uploaded with the last create or update are processed yet.
+     */
+    @PreAuthorize("hasPermission(this.interfaceName, 'read')")
+    @GetMapping("/{id}/image-status")
+    public ResponseEntity<ImageProcessingStatus> getImageStatus(@PathVariable Long id) {
+        return ResponseEntity.ok(imageProcessingService.getStatus(id));
+    }
+
+    private static MultipartFile[] nonEmpty(MultipartFile... images) {
+        return Arrays.stream(images)
+                .filter(image -> image != null && image.getSize() > 0)
+                .toArray(MultipartFile[]::new);
     }
 }
@@ -0,0 +1,26 @@
+package com.webstore.backoffice.crud.controllers;
+
+import com.webstore.backoffice.crud.dtos.QueryCacheStats;
+import com.webstore.backoffice.crud.services.QueryResultCache;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/crud/query-cache")
+@CrossOrigin(origins = "*", allowedHeaders = "*")
+public class QueryCacheController {
+
+    private final QueryResultCache queryResultCache;
+
+    public QueryCacheController(QueryResultCache queryResultCache) {
+        this.queryResultCache = queryResultCache;
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<QueryCacheStats> getStats() {
+        return ResponseEntity.ok(queryResultCache.getStats());
+    }
+}
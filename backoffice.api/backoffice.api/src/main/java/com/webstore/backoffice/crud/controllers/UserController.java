@@ -11,6 +11,6 @@ import org.springframework.web.bind.annotation.RestController;
 public class UserController extends GenericController<UserDto, User, Long> {
 
     public UserController(UserService service) {
-        super(service);
+        super(service, "users");
     }
 }
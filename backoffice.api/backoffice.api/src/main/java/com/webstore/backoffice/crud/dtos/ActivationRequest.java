@@ -0,0 +1,11 @@
+package com.webstore.backoffice.crud.dtos;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Selects the rows of a bulk activate or deactivate: explicit ids, the same filter params a list query
+ * accepts, or both, in which case a row must match both.
+ */
+public record ActivationRequest(List<Object> ids, Map<String, Object> filterParams) {
+}
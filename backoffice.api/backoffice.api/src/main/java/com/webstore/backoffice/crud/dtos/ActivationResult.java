@@ -0,0 +1,7 @@
+package com.webstore.backoffice.crud.dtos;
+
+/**
+ * @param affected number of rows whose active flag changed
+ */
+public record ActivationResult(int affected) {
+}
@@ -0,0 +1,29 @@
+package com.webstore.backoffice.crud.dtos;
+
+import java.util.Map;
+
+/**
+ * Outcome of one element of a bulk request, at the element's position in the request array.
+ *
+ * @param item   the stored DTO, present for created and updated elements
+ * @param errors property name to validation message, present for invalid elements
+ */
+public record BulkItemResult<D>(int index, Status status, D item, Map<String, String> errors) {
+
+    public enum Status {
+        CREATED,
+        UPDATED,
+        INVALID,
+        NOT_FOUND,
+        /** valid, but not written because another element of the request failed */
+        SKIPPED
+    }
+
+    public static <D> BulkItemResult<D> of(int index, Status status, D item) {
+        return new BulkItemResult<>(index, status, item, null);
+    }
+
+    public static <D> BulkItemResult<D> failed(int index, Status status, Map<String, String> errors) {
+        return new BulkItemResult<>(index, status, null, errors);
+    }
+}
@@ -0,0 +1,12 @@
+package com.webstore.backoffice.crud.dtos;
+
+import java.util.List;
+
+/**
+ * Per-element outcome of a bulk create or update. A request is applied completely or not at all:
+ * when {@code failed} is non-zero nothing was written.
+ *
+ * @param elapsedMs time spent validating and writing, for comparing throughput with single-item calls
+ */
+public record BulkResult<D>(List<BulkItemResult<D>> items, int succeeded, int failed, long elapsedMs) {
+}
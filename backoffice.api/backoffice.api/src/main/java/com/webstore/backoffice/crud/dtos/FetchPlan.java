@@ -0,0 +1,47 @@
+package com.webstore.backoffice.crud.dtos;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Associations a schema wants loaded together with a list page, read from its "fetchPlan" entry:
+ * <pre>
+ * "fetchPlan": { "join": ["inventory"], "batch": ["categories", "images"] }
+ * </pre>
+ * To-one associations in {@code join} are fetch-joined into the page query; collections in {@code batch}
+ * are loaded for the whole page with one query each, so joining them never multiplies the page rows.
+ */
+public class FetchPlan {
+
+    public static final FetchPlan EMPTY = new FetchPlan(List.of(), List.of());
+
+    private final List<String> join;
+    private final List<String> batch;
+
+    public FetchPlan(List<String> join, List<String> batch) {
+        this.join = List.copyOf(join);
+        this.batch = List.copyOf(batch);
+    }
+
+    public static FetchPlan fromSchema(JsonNode schema) {
+        JsonNode plan = schema.get("fetchPlan");
+        if (plan == null || !plan.isObject()) {
+            return EMPTY;
+        }
+        return new FetchPlan(readNames(plan.get("join")), readNames(plan.get("batch")));
+    }
+
+    private static List<String> readNames(JsonNode node) {
+        List<String> names = new ArrayList<>();
+        if (node != null && node.isArray()) {
+            node.forEach(name -> names.add(name.asText()));
+        }
+        return names;
+    }
+
+    public List<String> getJoin() { return join; }
+    public List<String> getBatch() { return batch; }
+    public boolean isEmpty() { return join.isEmpty() && batch.isEmpty(); }
+}
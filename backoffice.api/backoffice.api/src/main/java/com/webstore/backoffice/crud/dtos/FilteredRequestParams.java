@@ -1,5 +1,7 @@
 package com.webstore.backoffice.crud.dtos;
 
+import com.webstore.backoffice.crud.constants.CountMode;
+
 import java.util.List;
 import java.util.Map;
 
@@ -9,6 +11,9 @@ public class FilteredRequestParams {
     private List<List<String>> orderParams;
     private int pageSize;
     private int page; // page number
+    private String after; // keyset cursor, null for offset pagination
+    private CountMode countMode = CountMode.EXACT;
+    private boolean rank; // order full-text and trigram matches by relevance
 
     public Map<String, Object> getFilterParams() {
         return filterParams;
@@ -34,4 +39,25 @@ public class FilteredRequestParams {
     public void setPage(int page) {
         this.page = page;
     }
+    public String getAfter() {
+        return after;
+    }
+    public void setAfter(String after) {
+        this.after = after;
+    }
+    public CountMode getCountMode() {
+        return countMode;
+    }
+    public void setCountMode(CountMode countMode) {
+        this.countMode = countMode;
+    }
+    public boolean isRank() {
+        return rank;
+    }
+    public void setRank(boolean rank) {
+        this.rank = rank;
+    }
+    public boolean isKeyset() {
+        return after != null;
+    }
 }
@@ -11,6 +11,15 @@ public class GenderDto extends BaseDto<Gender>{
         this.name = gender.getType();
     }
 
+    private GenderDto(Long id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public static GenderDto of(Long id, String name) {
+        return new GenderDto(id, name);
+    }
+
     public Long getId() {
         return id;
     }
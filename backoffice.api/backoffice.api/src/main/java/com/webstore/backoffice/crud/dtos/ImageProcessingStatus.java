@@ -0,0 +1,11 @@
+package com.webstore.backoffice.crud.dtos;
+
+import com.webstore.backoffice.crud.constants.ImageStatus;
+
+import java.util.List;
+
+/**
+ * @param errors why uploads of the last batch were rejected, empty unless {@code status} is FAILED
+ */
+public record ImageProcessingStatus(Long productId, ImageStatus status, List<String> errors) {
+}
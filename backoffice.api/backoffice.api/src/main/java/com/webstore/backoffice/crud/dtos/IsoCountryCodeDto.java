@@ -13,6 +13,16 @@ public class IsoCountryCodeDto extends BaseDto<IsoCountryCode> {
         this.phoneCode = isoCountryCode.getPhoneCode();
     }
 
+    private IsoCountryCodeDto(Long id, String countryName, String phoneCode) {
+        this.id = id;
+        this.countryName = countryName;
+        this.phoneCode = phoneCode;
+    }
+
+    public static IsoCountryCodeDto of(Long id, String countryName, String phoneCode) {
+        return new IsoCountryCodeDto(id, countryName, phoneCode);
+    }
+
     public Long getId() {
         return id;
     }
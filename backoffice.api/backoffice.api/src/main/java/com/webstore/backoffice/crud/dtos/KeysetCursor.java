@@ -0,0 +1,71 @@
+package com.webstore.backoffice.crud.dtos;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Opaque keyset position: the sort key values of the last row of a page, in sort order,
+ * with the id as the final tiebreaker. Serialized as base64url JSON so clients treat it as a token.
+ */
+public class KeysetCursor {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final List<String> properties;
+    private final List<String> values;
+
+    public KeysetCursor(List<String> properties, List<String> values) {
+        this.properties = List.copyOf(properties);
+        this.values = new ArrayList<>(values);
+    }
+
+    public List<String> getProperties() {
+        return properties;
+    }
+
+    public List<String> getValues() {
+        return values;
+    }
+
+    public String encode() {
+        List<List<String>> pairs = new ArrayList<>();
+        for (int i = 0; i < properties.size(); i++) {
+            pairs.add(Arrays.asList(properties.get(i), values.get(i)));
+        }
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(pairs);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return the decoded cursor, or null when the token is not a cursor produced by {@link #encode()}
+     */
+    public static KeysetCursor decode(String token) {
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(token);
+            List<List<String>> pairs = objectMapper.readValue(json, new TypeReference<List<List<String>>>() {});
+            List<String> properties = new ArrayList<>();
+            List<String> values = new ArrayList<>();
+            for (List<String> pair : pairs) {
+                if (pair == null || pair.size() != 2 || pair.get(0) == null) {
+                    return null;
+                }
+                properties.add(pair.get(0));
+                values.add(pair.get(1));
+            }
+            return properties.isEmpty() ? null : new KeysetCursor(properties, values);
+        } catch (IllegalArgumentException | IOException e) {
+            return null;
+        }
+    }
+}
@@ -1,19 +1,32 @@
 package com.webstore.backoffice.crud.dtos;
 
+import com.webstore.backoffice.crud.constants.CountMode;
+
 import java.util.List;
 
 public class PaginatedResponse<T> {
+    public static final long COUNT_UNKNOWN = -1;
+
     private List<T> result;
     private long count;
     private int page;
     private int pageSize;
     private int totalPages;
+    private String nextCursor;
+    private Boolean hasNext;
+    private CountMode countMode;
 
     public PaginatedResponse(List<T> result, long count) {
         this.result = result;
         this.count = count;
     }
 
+    public PaginatedResponse(List<T> result, long count, String nextCursor) {
+        this.result = result;
+        this.count = count;
+        this.nextCursor = nextCursor;
+    }
+
     public List<T> getResult() {
         return result;
     }
@@ -29,5 +42,29 @@ public class PaginatedResponse<T> {
     public void setCount(long count) {
         this.count = count;
     }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public Boolean getHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(Boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
+    public CountMode getCountMode() {
+        return countMode;
+    }
+
+    public void setCountMode(CountMode countMode) {
+        this.countMode = countMode;
+    }
 }
 
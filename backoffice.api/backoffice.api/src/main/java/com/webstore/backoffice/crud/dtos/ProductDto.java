@@ -1,17 +1,27 @@
 package com.webstore.backoffice.crud.dtos;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.webstore.backoffice.crud.constants.CrudConstants;
+import com.webstore.backoffice.crud.constants.ImageStatus;
+import com.webstore.backoffice.crud.constants.ImageVariant;
 import com.webstore.backoffice.crud.models.Category;
 import com.webstore.backoffice.crud.models.Image;
 import com.webstore.backoffice.crud.models.Product;
+import com.webstore.backoffice.crud.models.ProductsView;
+import com.webstore.backoffice.security.dtos.AppSettingSnapshot;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.math.RoundingMode;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -22,10 +32,10 @@ public class ProductDto extends BaseDto<Product> {
     @NotBlank(message = CrudConstants.NAME_REQUIRED)
     private String name;
 
-    @NotBlank(message = CrudConstants.PRICE_REQUIRED)
+    @NotNull(message = CrudConstants.PRICE_REQUIRED)
     private BigDecimal price;
 
-    @NotBlank(message = CrudConstants.QUANTITY_REQUIRED)
+    @NotNull(message = CrudConstants.QUANTITY_REQUIRED)
     private Long quantity;
 
     @NotBlank(message = CrudConstants.SHORT_DESCRIPTION_REQUIRED)
@@ -36,21 +46,27 @@ public class ProductDto extends BaseDto<Product> {
     @JsonProperty("long_description")
     private String longDescription;
 
-    @NotBlank(message = CrudConstants.IMAGE_REQUIRED)
     private MultipartFile[] images;
 
-    @NotBlank(message = CrudConstants.CATEGORIES_REQUIRED)
+    @NotEmpty(message = CrudConstants.CATEGORIES_REQUIRED)
     private Set<CategoryDto> categories;
 
     private List<String> imageUrls;
 
+    private ImageStatus imageStatus;
+
+    @JsonIgnore
+    private List<StagedImage> stagedImages;
+
     private List<String> imagesToDelete;
 
     private String code;
 
     private BigDecimal priceWithVat;
 
-    public ProductDto(Product product, BigDecimal vatPercentage) {
+    private Boolean isActive;
+
+    public ProductDto(Product product, AppSettingSnapshot settings) {
         this.id = product.getId();
         this.name = product.getName();
         this.price = product.getPrice();
@@ -71,11 +87,38 @@ public class ProductDto extends BaseDto<Product> {
                 .stream().map(Image::getUrl)
                 .collect(Collectors.toList());
         this.code = product.getCode();
-        this.priceWithVat = product.getPrice().multiply(
-                BigDecimal.ONE.add(
-                        vatPercentage.divide(new BigDecimal("100"), 4, RoundingMode.HALF_UP)
-                )
-        ).setScale(2, RoundingMode.HALF_UP);
+        this.priceWithVat = settings.applyVat(product.getPrice());
+        this.isActive = product.isActive();
+    }
+
+    public ProductDto(ProductsView view) {
+        this.id = view.getId();
+        this.name = view.getName();
+        this.price = view.getPrice();
+        this.quantity = view.getQuantity();
+        this.shortDescription = view.getShortDescription();
+        this.longDescription = view.getLongDescription();
+        // category_ids and categories are aggregated in the same order, and hold a single NULL when empty
+        this.categories = new LinkedHashSet<>();
+        List<Long> categoryIds = view.getCategoryIds();
+        List<String> categoryNames = view.getCategories();
+        if (categoryIds != null && categoryNames != null) {
+            for (int i = 0; i < categoryIds.size() && i < categoryNames.size(); i++) {
+                if (categoryIds.get(i) == null) {
+                    continue;
+                }
+                CategoryDto category = new CategoryDto();
+                category.setId(categoryIds.get(i));
+                category.setName(categoryNames.get(i));
+                this.categories.add(category);
+            }
+        }
+        this.imageUrls = view.getImages() == null ? List.of() : view.getImages()
+                .stream().filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        this.code = view.getCode();
+        this.priceWithVat = view.getPriceWithVat();
+        this.isActive = view.getIsActive();
     }
 
     @Override
@@ -95,6 +138,9 @@ public class ProductDto extends BaseDto<Product> {
                     }
                 })
                 .collect(Collectors.toSet()));
+        if (this.isActive != null) {
+            product.setActive(this.isActive);
+        }
         return product;
     }
 
@@ -119,11 +165,11 @@ public class ProductDto extends BaseDto<Product> {
         this.name = name;
     }
 
-    public @NotBlank(message = CrudConstants.PRICE_REQUIRED) BigDecimal getPrice() {
+    public @NotNull(message = CrudConstants.PRICE_REQUIRED) BigDecimal getPrice() {
         return price;
     }
 
-    public void setPrice(@NotBlank(message = CrudConstants.PRICE_REQUIRED) BigDecimal price) {
+    public void setPrice(@NotNull(message = CrudConstants.PRICE_REQUIRED) BigDecimal price) {
         this.price = price;
     }
 
@@ -151,11 +197,11 @@ public class ProductDto extends BaseDto<Product> {
         this.images = images;
     }
 
-    public @NotBlank(message = CrudConstants.CATEGORIES_REQUIRED) Set<CategoryDto> getCategories() {
+    public @NotEmpty(message = CrudConstants.CATEGORIES_REQUIRED) Set<CategoryDto> getCategories() {
         return categories;
     }
 
-    public void setCategories(@NotBlank(message = CrudConstants.CATEGORIES_REQUIRED) Set<CategoryDto> categories) {
+    public void setCategories(@NotEmpty(message = CrudConstants.CATEGORIES_REQUIRED) Set<CategoryDto> categories) {
         this.categories = categories;
     }
 
@@ -167,6 +213,22 @@ public class ProductDto extends BaseDto<Product> {
         this.imagesToDelete = imagesToDelete;
     }
 
+    public ImageStatus getImageStatus() {
+        return imageStatus;
+    }
+
+    public void setImageStatus(ImageStatus imageStatus) {
+        this.imageStatus = imageStatus;
+    }
+
+    public List<StagedImage> getStagedImages() {
+        return stagedImages;
+    }
+
+    public void setStagedImages(List<StagedImage> stagedImages) {
+        this.stagedImages = stagedImages;
+    }
+
     public List<String> getImageUrls() {
         return imageUrls;
     }
@@ -175,6 +237,22 @@ public class ProductDto extends BaseDto<Product> {
         this.imageUrls = imageUrls;
     }
 
+    /**
+     * The downscaled copies of {@link #getImageUrls()} by variant segment, each list in the same order,
+     * so list pages can fetch thumbnails instead of the originals.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public Map<String, List<String>> getImageVariantUrls() {
+        if (imageUrls == null) {
+            return null;
+        }
+        Map<String, List<String>> variantUrls = new LinkedHashMap<>();
+        for (ImageVariant variant : ImageVariant.values()) {
+            variantUrls.put(variant.getSegment(), imageUrls.stream().map(variant::urlOf).toList());
+        }
+        return variantUrls;
+    }
+
     public String getCode() {
         return code;
     }
@@ -191,6 +269,14 @@ public class ProductDto extends BaseDto<Product> {
         this.priceWithVat = priceWithVat;
     }
 
+    public Boolean getIsActive() {
+        return isActive;
+    }
+
+    public void setIsActive(Boolean isActive) {
+        this.isActive = isActive;
+    }
+
     public ProductDto() {
     }
 
@@ -8,14 +8,22 @@ public class QueryBuildWrapper<T> {
     private final Specification<T> specification;
     private final Sort sort;
     private final PageRequest pageRequest;
+    private final Specification<T> seekSpecification;
 
     public QueryBuildWrapper(Specification<T> specification, Sort sort, PageRequest pageRequest) {
+        this(specification, sort, pageRequest, null);
+    }
+
+    public QueryBuildWrapper(Specification<T> specification, Sort sort, PageRequest pageRequest,
+                             Specification<T> seekSpecification) {
         this.specification = specification;
         this.sort = sort;
         this.pageRequest = pageRequest;
+        this.seekSpecification = seekSpecification;
     }
 
     public Specification<T> getSpecification() { return specification; }
     public Sort getSort() { return sort; }
     public PageRequest getPageRequest() { return pageRequest; }
+    public Specification<T> getSeekSpecification() { return seekSpecification; }
 }
@@ -0,0 +1,8 @@
+package com.webstore.backoffice.crud.dtos;
+
+/**
+ * Counters of the list query result cache since startup, with its current and maximum size in bytes.
+ */
+public record QueryCacheStats(long hits, long misses, long evictions, long invalidations,
+                              int entries, long bytes, long maxBytes) {
+}
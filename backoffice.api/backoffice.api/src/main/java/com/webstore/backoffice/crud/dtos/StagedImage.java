@@ -0,0 +1,19 @@
+package com.webstore.backoffice.crud.dtos;
+
+import java.nio.file.Path;
+
+/**
+ * An upload written to the staging area, waiting to be validated and moved into the image store.
+ *
+ * @param extension lower-case extension of the original file name, without the dot
+ * @param hash      hex SHA-256 of the content, which names the file once it is stored
+ */
+public record StagedImage(Path path, String extension, String originalName, String hash) {
+
+    /**
+     * Name of the stored file, which is also the last segment of its URL.
+     */
+    public String fileName() {
+        return extension.isEmpty() ? hash : hash + "." + extension;
+    }
+}
@@ -0,0 +1,7 @@
+package com.webstore.backoffice.crud.dtos;
+
+/**
+ * @param delta amount to add to the product's stock, negative to take stock out
+ */
+public record StockAdjustment(Long productId, Long delta) {
+}
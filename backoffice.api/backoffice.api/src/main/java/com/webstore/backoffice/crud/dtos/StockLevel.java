@@ -0,0 +1,4 @@
+package com.webstore.backoffice.crud.dtos;
+
+public record StockLevel(Long productId, long quantity) {
+}
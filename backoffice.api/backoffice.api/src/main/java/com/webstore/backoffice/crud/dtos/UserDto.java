@@ -2,6 +2,7 @@ package com.webstore.backoffice.crud.dtos;
 
 import com.webstore.backoffice.crud.constants.CrudConstants;
 import com.webstore.backoffice.crud.models.User;
+import com.webstore.backoffice.crud.models.UsersView;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -74,6 +75,31 @@ public class UserDto extends BaseDto<User>{
         this.gender = user.getGender() != null ? new GenderDto(user.getGender()) : null;
     }
 
+    public UserDto(UsersView view) {
+        this.id = view.getId();
+        this.userHash = view.getUserHash();
+        this.firstName = view.getFirstName();
+        this.lastName = view.getLastName();
+        this.email = view.getEmail();
+        this.phone = view.getPhone();
+        this.address = view.getAddress();
+        this.isEmailVerified = view.getIsEmailVerified();
+        this.hasFirstLogin = view.getHasFirstLogin();
+        this.isActive = view.getIsActive();
+        this.birthDate = view.getBirthDate();
+        this.createdAt = view.getCreatedAt();
+        this.isoCountryCodeId = view.getIsoCountryCodeId();
+        this.countryId = view.getCountryId();
+        this.genderId = view.getGenderId();
+
+        // The view flattens the references, so only the columns it carries are filled in
+        this.isoCountryCode = view.getIsoCountryCodeId() != null
+                ? IsoCountryCodeDto.of(view.getIsoCountryCodeId(), null, view.getPhoneCode()) : null;
+        this.country = view.getCountryId() != null
+                ? IsoCountryCodeDto.of(view.getCountryId(), view.getCountryName(), null) : null;
+        this.gender = view.getGenderId() != null ? GenderDto.of(view.getGenderId(), view.getGender()) : null;
+    }
+
     @Override
     public User toDomainEntity() {
         User user = new User();
@@ -215,12 +241,12 @@ public class UserDto extends BaseDto<User>{
         this.hasFirstLogin = hasFirstLogin;
     }
 
-    public Boolean getActive() {
+    public Boolean getIsActive() {
         return isActive;
     }
 
-    public void setActive(Boolean active) {
-        isActive = active;
+    public void setIsActive(Boolean isActive) {
+        this.isActive = isActive;
     }
 
     public LocalDate getBirthDate() {
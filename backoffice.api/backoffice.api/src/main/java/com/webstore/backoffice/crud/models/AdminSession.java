@@ -49,6 +49,12 @@ public class AdminSession {
     @Column(name = "rate_limited_until")
     private OffsetDateTime rateLimitedUntil;
 
+    @Column(name = "last_seen_at")
+    private OffsetDateTime lastSeenAt;
+
+    @Column(name = "api_blocked_until")
+    private OffsetDateTime apiBlockedUntil;
+
     public Long getId() {
         return id;
     }
@@ -121,4 +127,20 @@ public class AdminSession {
         this.rateLimitedUntil = rateLimitedUntil;
     }
 
+    public OffsetDateTime getLastSeenAt() {
+        return lastSeenAt;
+    }
+
+    public void setLastSeenAt(OffsetDateTime lastSeenAt) {
+        this.lastSeenAt = lastSeenAt;
+    }
+
+    public OffsetDateTime getApiBlockedUntil() {
+        return apiBlockedUntil;
+    }
+
+    public void setApiBlockedUntil(OffsetDateTime apiBlockedUntil) {
+        this.apiBlockedUntil = apiBlockedUntil;
+    }
+
 }
\ No newline at end of file
@@ -54,6 +54,21 @@ public class AppSetting {
     @Column(name = "target_group_status_update_initial_time", nullable = false)
     private OffsetTime targetGroupStatusUpdateInitialTime;
 
+    @NotNull
+    @ColumnDefault("600")
+    @Column(name = "api_request_limit", nullable = false)
+    private Long apiRequestLimit;
+
+    @NotNull
+    @ColumnDefault("60")
+    @Column(name = "api_request_window_seconds", nullable = false)
+    private Long apiRequestWindowSeconds;
+
+    @NotNull
+    @ColumnDefault("60")
+    @Column(name = "api_request_block_seconds", nullable = false)
+    private Long apiRequestBlockSeconds;
+
     public Long getId() {
         return id;
     }
@@ -118,6 +133,30 @@ public class AppSetting {
         this.reportRowLimitDisplay = reportRowLimitDisplay;
     }
 
+    public Long getApiRequestLimit() {
+        return apiRequestLimit;
+    }
+
+    public void setApiRequestLimit(Long apiRequestLimit) {
+        this.apiRequestLimit = apiRequestLimit;
+    }
+
+    public Long getApiRequestWindowSeconds() {
+        return apiRequestWindowSeconds;
+    }
+
+    public void setApiRequestWindowSeconds(Long apiRequestWindowSeconds) {
+        this.apiRequestWindowSeconds = apiRequestWindowSeconds;
+    }
+
+    public Long getApiRequestBlockSeconds() {
+        return apiRequestBlockSeconds;
+    }
+
+    public void setApiRequestBlockSeconds(Long apiRequestBlockSeconds) {
+        this.apiRequestBlockSeconds = apiRequestBlockSeconds;
+    }
+
     public OffsetTime getTargetGroupStatusUpdateInitialTime() {
         return targetGroupStatusUpdateInitialTime;
     }
@@ -7,7 +7,8 @@ import jakarta.validation.constraints.NotNull;
 @Table(name = "images")
 public class Image extends BaseEntity<Long> {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "images_id_gen")
+    @SequenceGenerator(name = "images_id_gen", sequenceName = "images_id_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
@@ -8,7 +8,8 @@ import org.hibernate.annotations.ColumnDefault;
 @Table(name = "inventories")
 public class Inventory {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventories_id_gen")
+    @SequenceGenerator(name = "inventories_id_gen", sequenceName = "inventories_id_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
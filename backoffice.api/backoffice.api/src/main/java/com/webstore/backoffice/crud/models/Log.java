@@ -41,6 +41,9 @@ public class Log {
     @Column(name = "debug_info", length = Integer.MAX_VALUE)
     private String debugInfo;
 
+    @Column(name = "fingerprint", length = Integer.MAX_VALUE)
+    private String fingerprint;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false)
     private OffsetDateTime createdAt;
@@ -114,6 +117,14 @@ public class Log {
         this.debugInfo = debugInfo;
     }
 
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
     public OffsetDateTime getCreatedAt() {
         return createdAt;
     }
@@ -40,7 +40,7 @@ public class LogsView {
     @Column(name = "debug_info", length = Integer.MAX_VALUE)
     private String debugInfo;
 
-    @Column(name = "created_at")
+    @Column(name = "created_at", nullable = false)
     private OffsetDateTime createdAt;
 
     public Long getId() {
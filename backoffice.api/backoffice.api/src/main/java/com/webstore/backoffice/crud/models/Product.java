@@ -2,16 +2,23 @@ package com.webstore.backoffice.crud.models;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.OptimisticLockType;
+import org.hibernate.annotations.OptimisticLocking;
 
 import java.math.BigDecimal;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@DynamicUpdate
+@OptimisticLocking(type = OptimisticLockType.DIRTY)
 @Table(name = "products")
 public class Product extends BaseEntity<Long> {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_id_gen")
+    @SequenceGenerator(name = "products_id_gen", sequenceName = "products_id_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
@@ -34,6 +41,11 @@ public class Product extends BaseEntity<Long> {
     @Column(name = "long_description", nullable = false, length = Integer.MAX_VALUE)
     private String longDescription;
 
+    @NotNull
+    @ColumnDefault("true")
+    @Column(name = "is_active", nullable = false)
+    private Boolean isActive = true;
+
     @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "products_categories",
@@ -63,6 +75,16 @@ public class Product extends BaseEntity<Long> {
         this.id = id;
     }
 
+    @Override
+    public Boolean isActive() {
+        return isActive;
+    }
+
+    @Override
+    public void setActive(Boolean active) {
+        isActive = active;
+    }
+
     public String getName() {
         return name;
     }
@@ -23,12 +23,15 @@ public class ProductsView {
     @Column(name = "code", length = Integer.MAX_VALUE)
     private String code;
 
-    @Column(name = "name", length = Integer.MAX_VALUE)
+    @Column(name = "name", nullable = false, length = Integer.MAX_VALUE)
     private String name;
 
-    @Column(name = "price", precision = 12, scale = 2)
+    @Column(name = "price", nullable = false, precision = 12, scale = 2)
     private BigDecimal price;
 
+    @Column(name = "quantity")
+    private Long quantity;
+
     @Column(name = "short_description", length = Integer.MAX_VALUE)
     private String shortDescription;
 
@@ -50,6 +53,12 @@ public class ProductsView {
     @Column(name = "price_with_vat")
     private BigDecimal priceWithVat;
 
+    @Column(name = "category_ids")
+    private List<Long> categoryIds;
+
+    @Column(name = "is_active", nullable = false)
+    private Boolean isActive;
+
     public Long getId() {
         return id;
     }
@@ -66,6 +75,10 @@ public class ProductsView {
         return price;
     }
 
+    public Long getQuantity() {
+        return quantity;
+    }
+
     public String getShortDescription() {
         return shortDescription;
     }
@@ -94,6 +107,14 @@ public class ProductsView {
         return priceWithVat;
     }
 
+    public List<Long> getCategoryIds() {
+        return categoryIds;
+    }
+
+    public Boolean getIsActive() {
+        return isActive;
+    }
+
     protected ProductsView() {
     }
 }
\ No newline at end of file
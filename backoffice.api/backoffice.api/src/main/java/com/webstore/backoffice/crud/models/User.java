@@ -3,6 +3,9 @@ package com.webstore.backoffice.crud.models;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.OptimisticLockType;
+import org.hibernate.annotations.OptimisticLocking;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDate;
@@ -10,10 +13,13 @@ import java.time.OffsetDateTime;
 import java.util.UUID;
 
 @Entity
+@DynamicUpdate
+@OptimisticLocking(type = OptimisticLockType.DIRTY)
 @Table(name = "users")
 public class User extends BaseEntity<Long> {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id_gen")
+    @SequenceGenerator(name = "users_id_gen", sequenceName = "users_id_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
@@ -70,6 +76,11 @@ public class User extends BaseEntity<Long> {
     @Column(name = "birth_date")
     private LocalDate birthDate;
 
+    @NotNull
+    @ColumnDefault("true")
+    @Column(name = "is_active", nullable = false)
+    private Boolean isActive = true;
+
     @NotNull
     @ColumnDefault("now()")
     @CreationTimestamp
@@ -185,12 +196,22 @@ public class User extends BaseEntity<Long> {
         this.hasFirstLogin = hasFirstLogin;
     }
 
+    @Override
+    public Boolean isActive() {
+        return isActive;
+    }
+
+    @Override
+    public void setActive(Boolean active) {
+        isActive = active;
+    }
+
     public Boolean getIsActive() {
-        return super.isActive();
+        return isActive;
     }
 
     public void setIsActive(Boolean isActive) {
-        super.setActive(isActive);
+        this.isActive = isActive;
     }
 
     public LocalDate getBirthDate() {
@@ -8,13 +8,15 @@ import org.hibernate.annotations.Immutable;
 
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.util.UUID;
 
 /**
- * Mapping for DB view
+ * Mapping for DB view. The backoffice's own copy of users_view: it also lists deactivated users, which
+ * the users_view shared with the Node server hides.
  */
 @Entity
 @Immutable
-@Table(name = "users_view")
+@Table(name = "backoffice_users_view")
 public class UsersView {
     @Id
     @Column(name = "id")
@@ -26,7 +28,7 @@ public class UsersView {
     @Column(name = "last_name", length = Integer.MAX_VALUE)
     private String lastName;
 
-    @Column(name = "email", length = Integer.MAX_VALUE)
+    @Column(name = "email", nullable = false, length = Integer.MAX_VALUE)
     private String email;
 
     @Column(name = "phone", length = Integer.MAX_VALUE)
@@ -62,7 +64,7 @@ public class UsersView {
     @Column(name = "has_first_login")
     private Boolean hasFirstLogin;
 
-    @Column(name = "created_at")
+    @Column(name = "created_at", nullable = false)
     private OffsetDateTime createdAt;
 
     @Column(name = "days_since_registration")
@@ -71,6 +73,12 @@ public class UsersView {
     @Column(name = "days_since_order")
     private Double daysSinceOrder;
 
+    @Column(name = "user_hash")
+    private UUID userHash;
+
+    @Column(name = "is_active", nullable = false)
+    private Boolean isActive;
+
     public Long getId() {
         return id;
     }
@@ -143,6 +151,14 @@ public class UsersView {
         return daysSinceOrder;
     }
 
+    public UUID getUserHash() {
+        return userHash;
+    }
+
+    public Boolean getIsActive() {
+        return isActive;
+    }
+
     protected UsersView() {
     }
 }
\ No newline at end of file
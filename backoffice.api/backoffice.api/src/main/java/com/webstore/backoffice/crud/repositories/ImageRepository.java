@@ -5,5 +5,10 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
 public interface ImageRepository extends JpaRepository<Image, Long>, JpaSpecificationExecutor<Image> {
-    void deleteByUrl(String url);
+    void deleteByProductIdAndUrl(Long productId, String url);
+
+    /**
+     * Images are stored once per content, so this is the number of references to the file behind the URL.
+     */
+    long countByUrl(String url);
 }
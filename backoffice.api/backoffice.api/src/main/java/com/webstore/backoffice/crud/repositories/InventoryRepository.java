@@ -3,6 +3,37 @@ package com.webstore.backoffice.crud.repositories;
 import com.webstore.backoffice.crud.models.Inventory;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
 
 public interface InventoryRepository extends JpaRepository<Inventory, Long>, JpaSpecificationExecutor<Inventory> {
-}
\ No newline at end of file
+
+    /**
+     * Overwrites the stock of a product without reading the row first.
+     *
+     * @return the number of rows changed, 0 when the product has no inventory row yet
+     */
+    @Modifying
+    @Query("update Inventory i set i.quantity = :quantity where i.product.id = :productId")
+    int setQuantity(@Param("productId") Long productId, @Param("quantity") Long quantity);
+
+    /**
+     * Adds {@code delta} to the stock in a single statement, so concurrent adjustments of one product
+     * wait on its row lock and none of them is lost. The stock never goes below zero.
+     *
+     * @return the number of rows changed, 0 when the product has no inventory row or too little stock
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE inventories SET quantity = quantity + :delta " +
+            "WHERE product_id = :productId AND quantity + :delta >= 0", nativeQuery = true)
+    int adjustQuantity(@Param("productId") Long productId, @Param("delta") long delta);
+
+    /**
+     * Reads the stock straight from the table, so it sees the statements above and not a managed copy.
+     */
+    @Query(value = "SELECT quantity FROM inventories WHERE product_id = :productId", nativeQuery = true)
+    Optional<Long> findQuantityByProductId(@Param("productId") Long productId);
+}
@@ -0,0 +1,250 @@
+package com.webstore.backoffice.crud.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Table;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Specification queries that {@link org.springframework.data.jpa.repository.JpaSpecificationExecutor}
+ * cannot express without an accompanying count(*): offset slices, bounded counts and planner estimates.
+ * Also hands out specification executors for mapped entities without a repository of their own, such as
+ * the read-only view entities.
+ */
+@Repository
+public class SpecificationQueryExecutor {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final Map<String, Optional<Class<?>>> entityClassesByTable = new ConcurrentHashMap<>();
+    private final Map<Class<?>, JpaSpecificationExecutor<?>> executors = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Map<String, Class<?>>> basicAttributes = new ConcurrentHashMap<>();
+
+    /**
+     * @return the mapped entity whose {@link Table} name matches, or null when nothing maps the table
+     */
+    public Class<?> findEntityClass(String tableName) {
+        return entityClassesByTable.computeIfAbsent(tableName, name -> entityManager.getMetamodel().getEntities()
+                .stream()
+                .<Class<?>>map(EntityType::getJavaType)
+                .filter(type -> type.isAnnotationPresent(Table.class)
+                        && type.getAnnotation(Table.class).name().equals(name))
+                .findFirst())
+                .orElse(null);
+    }
+
+    /**
+     * @return the plain column attributes of the entity by name with their Java types, without the id
+     * and version and without associations
+     */
+    public Map<String, Class<?>> findBasicAttributes(Class<?> domainClass) {
+        return basicAttributes.computeIfAbsent(domainClass, type -> entityManager.getMetamodel().entity(type)
+                .getSingularAttributes().stream()
+                .filter(attribute -> attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.BASIC
+                        && !attribute.isId() && !attribute.isVersion())
+                .collect(Collectors.toUnmodifiableMap(SingularAttribute::getName, SingularAttribute::getJavaType)));
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> JpaSpecificationExecutor<T> executorFor(Class<T> domainClass) {
+        return (JpaSpecificationExecutor<T>) executors.computeIfAbsent(domainClass,
+                type -> new SimpleJpaRepository<>(type, entityManager));
+    }
+
+    public <T> List<T> findSlice(Class<T> domainClass, Specification<T> specification, Sort sort, long offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(domainClass);
+        Root<T> root = query.from(domainClass);
+        applySpecification(specification, root, query, cb);
+        query.select(root);
+        if (sort.isSorted()) {
+            // an unsorted request keeps whatever order the specification set
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+        return entityManager.createQuery(query)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Streams the matching rows from a forward-only cursor. Call inside a transaction: PostgreSQL only
+     * honors the fetch size with auto-commit off, otherwise the driver buffers the whole result.
+     * The caller closes the stream.
+     */
+    public <T> Stream<T> stream(Class<T> domainClass, Specification<T> specification, Sort sort, int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(domainClass);
+        Root<T> root = query.from(domainClass);
+        applySpecification(specification, root, query, cb);
+        query.select(root);
+        if (sort.isSorted()) {
+            // an unsorted request keeps whatever order the specification set
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    /**
+     * Builds the query {@link #stream} would run without running it, so that errors in the filters or the
+     * sort surface while the caller can still answer with an error. Needs no transaction.
+     */
+    public <T> void compile(Class<T> domainClass, Specification<T> specification, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(domainClass);
+        Root<T> root = query.from(domainClass);
+        applySpecification(specification, root, query, cb);
+        if (sort.isSorted()) {
+            QueryUtils.toOrders(sort, root, cb);
+        }
+    }
+
+    /**
+     * Detaches everything loaded so far, so long-running reads keep a bounded persistence context.
+     */
+    public void clear() {
+        entityManager.clear();
+    }
+
+    /**
+     * Sends the pending inserts and updates, which go out as JDBC batches of hibernate.jdbc.batch_size.
+     */
+    public void flush() {
+        entityManager.flush();
+    }
+
+    /**
+     * @return the subset of {@code ids} that exist, read with a single id-only query
+     */
+    public <T, ID> List<ID> findExistingIds(Class<T> domainClass, Class<ID> idClass, Collection<ID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ID> query = cb.createQuery(idClass);
+        Root<T> root = query.from(domainClass);
+        query.select(root.get("id")).where(root.get("id").in(ids));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    /**
+     * Sets {@code is_active} on every matching row with one UPDATE, without loading the rows. Rows that
+     * already have the value are left untouched, so the count is the number of rows that changed.
+     * {@code filters} select ids from {@code filterClass}, typically the view the filters were written
+     * for: UPDATE table SET is_active = ? WHERE id IN (SELECT id FROM view WHERE filters). Either
+     * specification may be null; neither may rely on its query argument, since an update has none.
+     */
+    public <T, V> int updateActive(Class<T> domainClass, Specification<T> specification,
+                                   Class<V> filterClass, Specification<V> filters, boolean active) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<T> update = cb.createCriteriaUpdate(domainClass);
+        Root<T> root = update.from(domainClass);
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.notEqual(root.get("isActive"), active));
+        if (specification != null) {
+            predicates.add(specification.toPredicate(root, null, cb));
+        }
+        if (filters != null) {
+            Path<Object> id = root.get("id");
+            // typed like the id, Hibernate rejects comparing the id with an untyped subquery
+            @SuppressWarnings("unchecked")
+            Subquery<Object> matching = update.subquery((Class<Object>) id.getJavaType());
+            Root<V> filterRoot = matching.from(filterClass);
+            matching.select(filterRoot.get("id")).where(filters.toPredicate(filterRoot, null, cb));
+            predicates.add(id.in(matching));
+        }
+        update.set(root.<Boolean>get("isActive"), active).where(predicates.toArray(new Predicate[0]));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    /**
+     * Counts matching rows but stops reading after {@code limit} of them, so the cost is bounded by the
+     * limit rather than by the table size.
+     */
+    public <T> long countUpTo(Class<T> domainClass, Specification<T> specification, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object> query = cb.createQuery();
+        Root<T> root = query.from(domainClass);
+        applySpecification(specification, root, query, cb);
+        query.select(root.get("id"));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList()
+                .size();
+    }
+
+    /**
+     * @return the planner's row estimate for the table, or -1 when the table has never been analyzed
+     */
+    public long estimateRowCount(String tableName) {
+        List<?> result = entityManager
+                .createNativeQuery("SELECT reltuples::bigint FROM pg_class WHERE oid = to_regclass(:tableName)")
+                .setParameter("tableName", tableName)
+                .getResultList();
+        if (result.isEmpty() || result.get(0) == null) {
+            return -1;
+        }
+        return ((Number) result.get(0)).longValue();
+    }
+
+    /**
+     * Initializes the named collections of already loaded rows with one fetch-join query per collection,
+     * so walking them afterwards stays inside the persistence context.
+     */
+    public <T> void preload(Class<T> domainClass, List<T> rows, List<String> collections) {
+        if (rows.isEmpty() || collections.isEmpty()) {
+            return;
+        }
+        var persistenceUnitUtil = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+        List<Object> ids = rows.stream().map(persistenceUnitUtil::getIdentifier).toList();
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        for (String collection : collections) {
+            CriteriaQuery<T> query = cb.createQuery(domainClass);
+            Root<T> root = query.from(domainClass);
+            root.fetch(collection, JoinType.LEFT);
+            query.select(root).where(root.get("id").in(ids));
+            entityManager.createQuery(query).getResultList();
+        }
+    }
+
+    private <T> void applySpecification(Specification<T> specification, Root<T> root,
+                                        CriteriaQuery<?> query, CriteriaBuilder cb) {
+        if (specification == null) {
+            return;
+        }
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+}
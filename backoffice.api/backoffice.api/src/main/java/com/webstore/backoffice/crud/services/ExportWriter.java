@@ -0,0 +1,111 @@
+package com.webstore.backoffice.crud.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webstore.backoffice.crud.constants.ExportFormat;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes DTOs one at a time in an export format. Nothing is retained between records except the CSV
+ * header, so memory use does not depend on the number of rows.
+ */
+abstract class ExportWriter {
+
+    protected final ObjectMapper objectMapper;
+    protected final Writer writer;
+
+    protected ExportWriter(ObjectMapper objectMapper, Writer writer) {
+        this.objectMapper = objectMapper;
+        this.writer = writer;
+    }
+
+    static ExportWriter of(ExportFormat format, ObjectMapper objectMapper, Writer writer) {
+        return switch (format) {
+            case CSV -> new CsvExportWriter(objectMapper, writer);
+            case NDJSON -> new NdjsonExportWriter(objectMapper, writer);
+        };
+    }
+
+    abstract void write(Object record) throws IOException;
+
+    void flush() throws IOException {
+        writer.flush();
+    }
+
+    private static final class NdjsonExportWriter extends ExportWriter {
+
+        private NdjsonExportWriter(ObjectMapper objectMapper, Writer writer) {
+            super(objectMapper, writer);
+        }
+
+        @Override
+        void write(Object record) throws IOException {
+            writer.write(objectMapper.writeValueAsString(record));
+            writer.write('\n');
+        }
+    }
+
+    private static final class CsvExportWriter extends ExportWriter {
+
+        private List<String> columns;
+
+        private CsvExportWriter(ObjectMapper objectMapper, Writer writer) {
+            super(objectMapper, writer);
+        }
+
+        @Override
+        void write(Object record) throws IOException {
+            JsonNode node = objectMapper.valueToTree(record);
+            if (columns == null) {
+                columns = new ArrayList<>();
+                Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+                while (fields.hasNext()) {
+                    columns.add(fields.next().getKey());
+                }
+                writeLine(columns);
+            }
+            List<String> values = new ArrayList<>(columns.size());
+            for (String column : columns) {
+                values.add(cellValue(node.get(column)));
+            }
+            writeLine(values);
+        }
+
+        private String cellValue(JsonNode value) throws JsonProcessingException {
+            if (value == null || value.isNull()) {
+                return "";
+            }
+            // nested objects and arrays keep their JSON form inside a single cell
+            return value.isContainerNode() ? objectMapper.writeValueAsString(value) : value.asText();
+        }
+
+        private void writeLine(List<String> cells) throws IOException {
+            for (int i = 0; i < cells.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeCell(cells.get(i));
+            }
+            writer.write("\r\n");
+        }
+
+        private void writeCell(String cell) throws IOException {
+            boolean quote = cell.indexOf(',') >= 0 || cell.indexOf('"') >= 0
+                    || cell.indexOf('\n') >= 0 || cell.indexOf('\r') >= 0;
+            if (!quote) {
+                writer.write(cell);
+                return;
+            }
+            writer.write('"');
+            writer.write(cell.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+}
@@ -4,30 +4,81 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.webstore.backoffice.crud.configurations.SchemaModel;
 import com.webstore.backoffice.crud.configurations.SchemaRegistry;
 import com.webstore.backoffice.crud.configurations.GenericSpecificationBuilder;
+import com.webstore.backoffice.crud.constants.CountMode;
 import com.webstore.backoffice.crud.constants.CrudConstants;
+import com.webstore.backoffice.crud.constants.ExportFormat;
+import com.webstore.backoffice.crud.dtos.ActivationRequest;
 import com.webstore.backoffice.crud.dtos.BaseDto;
+import com.webstore.backoffice.crud.dtos.BulkItemResult;
+import com.webstore.backoffice.crud.dtos.BulkResult;
+import com.webstore.backoffice.crud.dtos.FetchPlan;
 import com.webstore.backoffice.crud.dtos.FilteredRequestParams;
 import com.webstore.backoffice.crud.dtos.PaginatedResponse;
+import com.webstore.backoffice.crud.dtos.QueryBuildWrapper;
 import com.webstore.backoffice.crud.models.BaseEntity;
+import com.webstore.backoffice.crud.repositories.SpecificationQueryExecutor;
+import jakarta.persistence.Table;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import jakarta.persistence.criteria.JoinType;
+import org.springframework.beans.PropertyAccessor;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import static com.webstore.backoffice.asserts.AssertUtil.*;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 public abstract class GenericAppService<D extends BaseDto<E>, E extends BaseEntity<ID>, ID> {
 
+    private static final PropertyNamingStrategies.NamingBase SNAKE_CASE = new PropertyNamingStrategies.SnakeCaseStrategy();
+
     private final JpaRepository<E, ID> repository;
     private final JpaSpecificationExecutor<E> specExecutor;
     private final SchemaRegistry schemaRegistry;
     private final ObjectMapper objectMapper;
     private final GenericSpecificationBuilder<E> specificationBuilder;
 
+    @Autowired
+    private SpecificationQueryExecutor queryExecutor;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private QueryResultCache queryResultCache;
+    @Autowired
+    private Validator validator;
+
     public GenericAppService(JpaRepository<E, ID> repository,
                              SchemaRegistry schemaRegistry,
                              ObjectMapper objectMapper,
@@ -41,7 +92,9 @@ public abstract class GenericAppService<D extends BaseDto<E>, E extends BaseEnti
 
     public D create(D dto) {
         E entity = dto.toDomainEntity();
-        return convertToDto(repository.save(entity));
+        D created = convertToDto(repository.save(entity));
+        invalidateCachedResults();
+        return created;
     }
 
     public D findById(ID id) {
@@ -54,28 +107,516 @@ public abstract class GenericAppService<D extends BaseDto<E>, E extends BaseEnti
         var entity = repository.findById(id).orElseThrow();
         entity.setActive(false);
         repository.save(entity);
+        invalidateCachedResults();
     }
 
     public D update(ID id, D dto) {
         E entity = dto.toDomainEntity();
         entity.setId(id);
-        return convertToDto(repository.save(entity));
+        keepActiveFlag(id, entity);
+        D updated = convertToDto(repository.save(entity));
+        invalidateCachedResults();
+        return updated;
+    }
+
+    /**
+     * Copies the stored active flag onto an entity built from a DTO. The flag only changes through
+     * {@link #delete} and {@link #setActive}; a full update would otherwise write the DTO's default and
+     * reactivate the row. The lookup is served from the persistence context when the row is already loaded,
+     * as it is for the merge that follows.
+     */
+    protected void keepActiveFlag(ID id, E entity) {
+        repository.findById(id).ifPresent(stored -> entity.setActive(stored.isActive()));
+    }
+
+    /**
+     * Applies only the fields present in {@code changes} to the managed row. The entities patched this
+     * way use dynamic updates with dirty-field optimistic locking, so the UPDATE sets just the changed
+     * columns and fails, instead of overwriting, when another edit changed one of them in the meantime.
+     *
+     * @param changes schema properties that map to plain columns, by their JSON names
+     */
+    public D patch(ID id, JsonNode changes) {
+        ASSERT_USER(changes != null && changes.isObject(), CrudConstants.PATCH_NOT_OBJECT,
+                new HashMap<>() {{
+                    put("code", "APP_SRV_00020_PATCH_NOT_OBJECT");
+                    put("long_description", CrudConstants.PATCH_NOT_OBJECT);
+                }});
+        E entity = repository.findById(id).orElse(null);
+        ASSERT_USER(entity != null, CrudConstants.ENTITY_NOT_FOUND,
+                new HashMap<>() {{
+                    put("code", "APP_SRV_00016_ENTITY_NOT_FOUND");
+                    put("long_description", CrudConstants.ENTITY_NOT_FOUND);
+                }});
+
+        SchemaModel schema = schemaRegistry.getSchema(getSchemaName());
+        Map<String, Class<?>> attributes = queryExecutor.findBasicAttributes(getDomainClass());
+        Map<String, String> attributesByField = new HashMap<>();
+        attributes.keySet().forEach(attribute -> attributesByField.put(SNAKE_CASE.translate(attribute), attribute));
+        // the active flag is filterable but only changes through delete and setActive
+        attributesByField.remove("is_active");
+
+        PropertyAccessor accessor = PropertyAccessorFactory.forDirectFieldAccess(entity);
+        Map<String, String> errors = new LinkedHashMap<>();
+        for (Iterator<Map.Entry<String, JsonNode>> fields = changes.fields(); fields.hasNext(); ) {
+            Map.Entry<String, JsonNode> change = fields.next();
+            String attribute = attributesByField.get(change.getKey());
+            String message = CrudConstants.FIELD_NOT_PATCHABLE + change.getKey();
+            ASSERT_USER(attribute != null && schema.getProperty(change.getKey()) != null, message,
+                    new HashMap<>() {{
+                        put("code", "APP_SRV_00017_FIELD_NOT_PATCHABLE");
+                        put("long_description", message);
+                    }});
+            try {
+                accessor.setPropertyValue(attribute, objectMapper.convertValue(change.getValue(), attributes.get(attribute)));
+            } catch (IllegalArgumentException e) {
+                errors.put(change.getKey(), CrudConstants.INVALID_FIELD_TYPE);
+            }
+        }
+
+        // the entity carries the column constraints and the DTO the request ones, such as required fields
+        validate(entity).forEach(errors::putIfAbsent);
+        validate(convertToDto(entity)).forEach(errors::putIfAbsent);
+        String message = CrudConstants.INVALID_PATCH + errors;
+        ASSERT_USER(errors.isEmpty(), message,
+                new HashMap<>() {{
+                    put("code", "APP_SRV_00018_INVALID_PATCH");
+                    put("long_description", message);
+                }});
+        // flushing here surfaces a concurrent edit as an error of this call rather than of the commit
+        D patched = convertToDto(repository.saveAndFlush(entity));
+        invalidateCachedResults();
+        return patched;
+    }
+
+    /**
+     * Sets the active flag of the selected rows with a single UPDATE, without loading them. Filters are
+     * defined on the columns the list reads, so they select ids from the schema's view when it has one.
+     *
+     * @return the number of rows whose flag changed
+     */
+    public int setActive(ActivationRequest request, boolean active) {
+        boolean byIds = request.ids() != null && !request.ids().isEmpty();
+        boolean byFilters = request.filterParams() != null && !request.filterParams().isEmpty();
+        ASSERT_USER(byIds || byFilters, CrudConstants.BULK_TARGET_REQUIRED,
+                new HashMap<>() {{
+                    put("code", "APP_SRV_00015_BULK_TARGET_REQUIRED");
+                    put("long_description", CrudConstants.BULK_TARGET_REQUIRED);
+                }});
+
+        Specification<E> ids = null;
+        if (byIds) {
+            ASSERT_USER(request.ids().size() <= CrudConstants.BULK_MAX_ITEMS, CrudConstants.BULK_LIMIT_EXCEEDED,
+                    new HashMap<>() {{
+                        put("code", "APP_SRV_00014_BULK_LIMIT_EXCEEDED");
+                        put("long_description", CrudConstants.BULK_LIMIT_EXCEEDED);
+                    }});
+            // JSON numbers arrive as Integer, the id attribute needs the exact id type
+            List<ID> typedIds = request.ids().stream()
+                    .map(id -> DefaultConversionService.getSharedInstance().convert(id, getIdClass()))
+                    .toList();
+            ids = (root, query, cb) -> root.get("id").in(typedIds);
+        }
+
+        int affected;
+        if (byFilters) {
+            SchemaModel schema = schemaRegistry.getSchema(getSchemaName());
+            affected = updateActive(ids, rowSource(schema), schema, request.filterParams(), active);
+        } else {
+            affected = queryExecutor.updateActive(getDomainClass(), ids, null, null, active);
+        }
+        if (affected > 0) {
+            invalidateCachedResults();
+        }
+        return affected;
+    }
+
+    private <R> int updateActive(Specification<E> ids, RowSource<R, D> filterSource, SchemaModel schema,
+                                 Map<String, Object> filterParams, boolean active) {
+        Specification<R> filters = filterSource.specificationBuilder().buildRestrictingSpecification(schema, filterParams);
+        return queryExecutor.updateActive(getDomainClass(), ids, filterSource.rowClass(), filters, active);
+    }
+
+    /**
+     * Validates every element, then creates them in chunks of {@link CrudConstants#BULK_BATCH_SIZE}. Each
+     * chunk is flushed as one JDBC batch per table and then detached, so memory stays flat for large
+     * imports. Nothing is written when any element is invalid.
+     */
+    public BulkResult<D> createAll(List<D> dtos) {
+        long start = System.nanoTime();
+        assertBulkSize(dtos);
+        Map<Integer, BulkItemResult<D>> failures = new HashMap<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            Map<String, String> errors = validate(dtos.get(i));
+            if (!errors.isEmpty()) {
+                failures.put(i, BulkItemResult.failed(i, BulkItemResult.Status.INVALID, errors));
+            }
+        }
+        if (!failures.isEmpty()) {
+            return rejected(dtos.size(), failures, start);
+        }
+
+        List<BulkItemResult<D>> results = new ArrayList<>(dtos.size());
+        for (int from = 0; from < dtos.size(); from += CrudConstants.BULK_BATCH_SIZE) {
+            int to = Math.min(from + CrudConstants.BULK_BATCH_SIZE, dtos.size());
+            for (int i = from; i < to; i++) {
+                results.add(BulkItemResult.of(i, BulkItemResult.Status.CREATED, create(dtos.get(i))));
+            }
+            queryExecutor.flush();
+            queryExecutor.clear();
+        }
+        return new BulkResult<>(results, results.size(), 0, elapsedMs(start));
+    }
+
+    /**
+     * Validates every element and checks with one query that all ids exist, then updates them in chunks of
+     * {@link CrudConstants#BULK_BATCH_SIZE}. The rows of a chunk are loaded with a single query before
+     * the updates, which are flushed as JDBC batches. Nothing is written when any element fails.
+     */
+    public BulkResult<D> updateAll(List<D> dtos) {
+        long start = System.nanoTime();
+        assertBulkSize(dtos);
+        List<ID> ids = dtos.stream().map(dto -> dto.toDomainEntity().getId()).toList();
+        Set<ID> existing = new HashSet<>(queryExecutor.findExistingIds(getDomainClass(), getIdClass(),
+                ids.stream().filter(Objects::nonNull).distinct().toList()));
+        Set<ID> seen = new HashSet<>();
+        Map<Integer, BulkItemResult<D>> failures = new HashMap<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            ID id = ids.get(i);
+            Map<String, String> errors = validate(dtos.get(i));
+            if (id == null) {
+                errors.put("id", CrudConstants.ID_REQUIRED);
+            } else if (!seen.add(id)) {
+                errors.put("id", CrudConstants.DUPLICATE_ID);
+            }
+            if (!errors.isEmpty()) {
+                failures.put(i, BulkItemResult.failed(i, BulkItemResult.Status.INVALID, errors));
+            } else if (!existing.contains(id)) {
+                failures.put(i, BulkItemResult.failed(i, BulkItemResult.Status.NOT_FOUND, null));
+            }
+        }
+        if (!failures.isEmpty()) {
+            return rejected(dtos.size(), failures, start);
+        }
+
+        List<BulkItemResult<D>> results = new ArrayList<>(dtos.size());
+        for (int from = 0; from < dtos.size(); from += CrudConstants.BULK_BATCH_SIZE) {
+            int to = Math.min(from + CrudConstants.BULK_BATCH_SIZE, dtos.size());
+            // with the rows already managed, each update merges in memory instead of selecting its row
+            repository.findAllById(ids.subList(from, to));
+            for (int i = from; i < to; i++) {
+                results.add(BulkItemResult.of(i, BulkItemResult.Status.UPDATED, update(ids.get(i), dtos.get(i))));
+            }
+            queryExecutor.flush();
+            queryExecutor.clear();
+        }
+        return new BulkResult<>(results, results.size(), 0, elapsedMs(start));
+    }
+
+    private void assertBulkSize(List<D> dtos) {
+        ASSERT_USER(dtos != null && dtos.size() <= CrudConstants.BULK_MAX_ITEMS, CrudConstants.BULK_LIMIT_EXCEEDED,
+                new HashMap<>() {{
+                    put("code", "APP_SRV_00014_BULK_LIMIT_EXCEEDED");
+                    put("long_description", CrudConstants.BULK_LIMIT_EXCEEDED);
+                }});
+    }
+
+    private Map<String, String> validate(Object dto) {
+        Map<String, String> errors = new LinkedHashMap<>();
+        if (dto == null) {
+            errors.put("item", "Item is required");
+            return errors;
+        }
+        for (ConstraintViolation<Object> violation : validator.validate(dto)) {
+            errors.putIfAbsent(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        return errors;
+    }
+
+    private BulkResult<D> rejected(int size, Map<Integer, BulkItemResult<D>> failures, long start) {
+        List<BulkItemResult<D>> results = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            BulkItemResult<D> failure = failures.get(i);
+            results.add(failure != null ? failure : BulkItemResult.of(i, BulkItemResult.Status.SKIPPED, null));
+        }
+        return new BulkResult<>(results, 0, failures.size(), elapsedMs(start));
+    }
+
+    private static long elapsedMs(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
     }
 
+    /**
+     * Answers repeated list queries from {@link QueryResultCache}; any write through this service drops
+     * the cached pages of its schema.
+     */
     public PaginatedResponse<D> findAll(Map<String, String> allParams) throws JsonProcessingException {
-        JsonNode schema = schemaRegistry.getSchema(getSchemaName());
-        var params = parseFilterParams(allParams);
-        var queryWrapper = specificationBuilder.buildSpecification(schema, params);
-        var result = specExecutor.findAll(queryWrapper.getSpecification(), queryWrapper.getPageRequest());
-        List<D> resultElements = result.getContent().stream().map(this::convertToDto).toList();
-        return new PaginatedResponse<>(resultElements, result.getTotalElements());
+        SchemaModel schema = schemaRegistry.getSchema(getSchemaName());
+        var params = parseFilterParams(allParams, schema);
+        return queryResultCache.get(getSchemaName(), params, () -> loadPage(schema, params));
+    }
+
+    /**
+     * Drops the cached list results of this service's schema. Services that write without going through
+     * create, update or delete call this themselves.
+     */
+    protected void invalidateCachedResults() {
+        queryResultCache.invalidate(getSchemaName());
+    }
+
+    private PaginatedResponse<D> loadPage(SchemaModel schema, FilteredRequestParams params) {
+        return findPage(rowSource(schema), params, schema);
+    }
+
+    public ExportFormat parseExportFormat(Map<String, String> allParams) {
+        ExportFormat format = ExportFormat.fromValue(
+                allParams.getOrDefault(CrudConstants.EXPORT_PARAM_FORMAT, CrudConstants.EXPORT_FORMAT_DEFAULT));
+        ASSERT_USER(format != null, CrudConstants.INVALID_EXPORT_FORMAT,
+                new HashMap<>() {{
+                    put("code", "APP_SRV_00013_INVALID_EXPORT_FORMAT");
+                    put("long_description", CrudConstants.INVALID_EXPORT_FORMAT);
+                }});
+        return format;
+    }
+
+    public String getExportFileName(ExportFormat format) {
+        return getSchemaName() + "." + format.getExtension();
+    }
+
+    /**
+     * Validates the filter and order parameters up front and returns a body that streams every matching
+     * row in the given format. Rows are read through a forward-only cursor inside a read-only transaction
+     * and written in chunks of {@link CrudConstants#EXPORT_FETCH_SIZE}; after each chunk the output is
+     * flushed and the persistence context cleared.
+     */
+    public StreamingResponseBody export(Map<String, String> allParams, ExportFormat format) throws JsonProcessingException {
+        SchemaModel schema = schemaRegistry.getSchema(getSchemaName());
+        var params = parseExportParams(allParams);
+        return exportBody(rowSource(schema), params, schema, format);
+    }
+
+    /**
+     * Builds and compiles the query before the body is handed out: once the body runs the response status
+     * is committed, and a bad filter or sort could no longer be answered with an error.
+     */
+    private <R> StreamingResponseBody exportBody(RowSource<R, D> source, FilteredRequestParams params,
+                                                 SchemaModel schema, ExportFormat format) {
+        var queryWrapper = source.specificationBuilder().buildSpecification(schema, params);
+        Specification<R> specification = withFetchPlan(source, queryWrapper.getSpecification());
+        queryExecutor.compile(source.rowClass(), specification, queryWrapper.getSort());
+        return outputStream -> {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setReadOnly(true);
+            transaction.executeWithoutResult(status ->
+                    writeExport(source, specification, queryWrapper.getSort(), format, outputStream));
+        };
+    }
+
+    private <R> void writeExport(RowSource<R, D> source, Specification<R> specification, Sort sort,
+                                 ExportFormat format, OutputStream outputStream) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        ExportWriter exportWriter = ExportWriter.of(format, objectMapper, writer);
+        List<R> chunk = new ArrayList<>(CrudConstants.EXPORT_FETCH_SIZE);
+        try (Stream<R> rows = queryExecutor.stream(source.rowClass(), specification, sort,
+                CrudConstants.EXPORT_FETCH_SIZE)) {
+            Iterator<R> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == CrudConstants.EXPORT_FETCH_SIZE) {
+                    writeChunk(source, chunk, exportWriter);
+                }
+            }
+            writeChunk(source, chunk, exportWriter);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private <R> void writeChunk(RowSource<R, D> source, List<R> chunk, ExportWriter exportWriter) throws IOException {
+        preloadCollections(source, chunk);
+        for (R row : chunk) {
+            exportWriter.write(source.converter().apply(row));
+        }
+        exportWriter.flush();
+        chunk.clear();
+        queryExecutor.clear();
+    }
+
+    /**
+     * Maps a row of the view entity declared under the schema's "views" key to the response DTO. Services
+     * that keep the default null list through the base entity instead.
+     */
+    protected Function<Object, D> getViewRowConverter() {
+        return null;
+    }
+
+    /**
+     * The rows lists, exports and filters read: the schema's view when it has one, the base entity otherwise.
+     */
+    private RowSource<?, D> rowSource(SchemaModel schema) {
+        RowSource<?, D> viewSource = resolveViewSource(schema);
+        if (viewSource != null) {
+            return viewSource;
+        }
+        return new RowSource<>(getDomainClass(), specExecutor, specificationBuilder, this::convertToDto,
+                schema.getFetchPlan());
+    }
+
+    @SuppressWarnings("unchecked")
+    private RowSource<?, D> resolveViewSource(SchemaModel schema) {
+        Function<Object, D> converter = getViewRowConverter();
+        if (converter == null || schema.getViews() == null) {
+            return null;
+        }
+        Class<Object> viewClass = (Class<Object>) queryExecutor.findEntityClass(schema.getViews());
+        if (viewClass == null) {
+            return null;
+        }
+        // the builder only reads the metamodel of whatever root it is given, so it serves the view as well
+        var viewSpecificationBuilder = (GenericSpecificationBuilder<Object>) (GenericSpecificationBuilder<?>) specificationBuilder;
+        return new RowSource<>(viewClass, queryExecutor.executorFor(viewClass), viewSpecificationBuilder, converter,
+                FetchPlan.EMPTY);
+    }
+
+    private <R> PaginatedResponse<D> findPage(RowSource<R, D> source, FilteredRequestParams params, SchemaModel schema) {
+        var queryWrapper = source.specificationBuilder().buildSpecification(schema, params);
+        if (params.isKeyset()) {
+            return findAllByKeyset(source, queryWrapper, params, schema);
+        }
+        if (params.getCountMode() == CountMode.EXACT) {
+            var result = source.executor().findAll(withFetchPlan(source, queryWrapper.getSpecification()),
+                    queryWrapper.getPageRequest());
+            preloadCollections(source, result.getContent());
+            List<D> resultElements = result.getContent().stream().map(source.converter()).toList();
+            var response = new PaginatedResponse<>(resultElements, result.getTotalElements());
+            response.setHasNext(result.hasNext());
+            response.setCountMode(CountMode.EXACT);
+            return response;
+        }
+
+        // slice query: one row past the page answers has-next, the count strategy decides the rest
+        PageRequest pageRequest = queryWrapper.getPageRequest();
+        int pageSize = pageRequest.getPageSize();
+        List<R> rows = queryExecutor.findSlice(source.rowClass(), withFetchPlan(source, queryWrapper.getSpecification()),
+                queryWrapper.getSort(), pageRequest.getOffset(), pageSize + 1);
+        boolean hasNext = rows.size() > pageSize;
+        List<R> pageRows = hasNext ? rows.subList(0, pageSize) : rows;
+        preloadCollections(source, pageRows);
+
+        RowCount rowCount = hasNext || params.getCountMode() == CountMode.NONE
+                ? countRows(source, queryWrapper.getSpecification(), params, schema)
+                : new RowCount(pageRequest.getOffset() + pageRows.size(), CountMode.EXACT);
+        var response = new PaginatedResponse<>(pageRows.stream().map(source.converter()).toList(), rowCount.value());
+        response.setHasNext(hasNext);
+        response.setCountMode(rowCount.mode());
+        return response;
+    }
+
+    private <R> PaginatedResponse<D> findAllByKeyset(RowSource<R, D> source, QueryBuildWrapper<R> queryWrapper,
+                                                     FilteredRequestParams params, SchemaModel schema) {
+        int pageSize = params.getPageSize();
+        Specification<R> specification = queryWrapper.getSeekSpecification() == null
+                ? queryWrapper.getSpecification()
+                : queryWrapper.getSpecification().and(queryWrapper.getSeekSpecification());
+        // fetching one row past the page tells whether a next page exists without an OFFSET scan
+        List<R> rows = source.executor().findBy(withFetchPlan(source, specification),
+                query -> query.sortBy(queryWrapper.getSort()).limit(pageSize + 1).all());
+        boolean hasNext = rows.size() > pageSize;
+        List<R> pageRows = hasNext ? rows.subList(0, pageSize) : rows;
+        preloadCollections(source, pageRows);
+        String nextCursor = hasNext
+                ? source.specificationBuilder().buildCursor(pageRows.get(pageRows.size() - 1), queryWrapper.getSort())
+                : null;
+        RowCount rowCount = countRows(source, queryWrapper.getSpecification(), params, schema);
+        List<D> resultElements = pageRows.stream().map(source.converter()).toList();
+        var response = new PaginatedResponse<>(resultElements, rowCount.value(), nextCursor);
+        response.setHasNext(hasNext);
+        response.setCountMode(rowCount.mode());
+        return response;
+    }
+
+    private <R> Specification<R> withFetchPlan(RowSource<R, D> source, Specification<R> specification) {
+        List<String> joins = source.fetchPlan().getJoin();
+        if (joins.isEmpty()) {
+            return specification;
+        }
+        Specification<R> fetchJoins = (root, query, cb) -> {
+            // count and id-only queries reuse the specification, but only a query selecting the row can fetch
+            if (source.rowClass().equals(query.getResultType())) {
+                joins.forEach(attribute -> root.fetch(attribute, JoinType.LEFT));
+            }
+            return null;
+        };
+        return Specification.where(fetchJoins).and(specification);
+    }
+
+    private <R> void preloadCollections(RowSource<R, D> source, List<R> rows) {
+        if (!source.fetchPlan().getBatch().isEmpty()) {
+            queryExecutor.preload(source.rowClass(), rows, source.fetchPlan().getBatch());
+        }
+    }
+
+    private <R> RowCount countRows(RowSource<R, D> source, Specification<R> specification,
+                                   FilteredRequestParams params, SchemaModel schema) {
+        return switch (params.getCountMode()) {
+            case EXACT -> new RowCount(source.executor().count(specification), CountMode.EXACT);
+            case ESTIMATED -> estimateRows(source, specification, params, schema);
+            case NONE -> new RowCount(PaginatedResponse.COUNT_UNKNOWN, CountMode.NONE);
+        };
+    }
+
+    private <R> RowCount estimateRows(RowSource<R, D> source, Specification<R> specification,
+                                      FilteredRequestParams params, SchemaModel schema) {
+        if (params.getFilterParams() == null || params.getFilterParams().isEmpty()) {
+            // views carry no statistics of their own, the base table's estimate stands in for them
+            long estimate = queryExecutor.estimateRowCount(getTableName());
+            if (estimate >= 0) {
+                return new RowCount(estimate, CountMode.ESTIMATED);
+            }
+        }
+        int countLimit = schema.getCountLimit() != null
+                ? schema.getCountLimit()
+                : CrudConstants.COUNT_LIMIT_DEFAULT;
+        long bounded = queryExecutor.countUpTo(source.rowClass(), specification, countLimit + 1);
+        return bounded > countLimit
+                ? new RowCount(countLimit, CountMode.ESTIMATED)
+                : new RowCount(bounded, CountMode.EXACT);
+    }
+
+    @SuppressWarnings("unchecked")
+    protected Class<E> getDomainClass() {
+        return (Class<E>) GenericTypeResolver.resolveTypeArguments(getClass(), GenericAppService.class)[1];
+    }
+
+    @SuppressWarnings("unchecked")
+    protected Class<ID> getIdClass() {
+        return (Class<ID>) GenericTypeResolver.resolveTypeArguments(getClass(), GenericAppService.class)[2];
+    }
+
+    private String getTableName() {
+        Table table = getDomainClass().getAnnotation(Table.class);
+        return table != null ? table.name() : getSchemaName();
     }
 
     protected abstract D convertToDto(E entity);
     protected abstract String getSchemaName();
 
-    private FilteredRequestParams parseFilterParams(Map<String, String> allParams) throws JsonProcessingException {
-        ASSERT_USER(allParams != null && allParams.containsKey(CrudConstants.FILTER_PARAM_PAGE), CrudConstants.PAGE_REQUIRED,
+    private FilteredRequestParams parseExportParams(Map<String, String> allParams) throws JsonProcessingException {
+        FilteredRequestParams params = new FilteredRequestParams();
+        // a single unbounded "page"; the builder still needs a valid page request to attach the sort to
+        params.setPage(1);
+        params.setPageSize(CrudConstants.EXPORT_FETCH_SIZE);
+        params.setRank(Boolean.parseBoolean(allParams.get(CrudConstants.FILTER_PARAM_RANK)));
+        params.setFilterParams(objectMapper.readValue(allParams.getOrDefault(CrudConstants.FILTER_PARAM_FILTERS, "{}"),
+                new TypeReference<Map<String, Object>>(){}));
+        params.setOrderParams(objectMapper.readValue(allParams.getOrDefault(CrudConstants.FILTER_PARAM_ORDERS, "[]"),
+                new TypeReference<List<List<String>>>() {}));
+        return params;
+    }
+
+    private FilteredRequestParams parseFilterParams(Map<String, String> allParams, SchemaModel schema) throws JsonProcessingException {
+        ASSERT_USER(allParams != null && (allParams.containsKey(CrudConstants.FILTER_PARAM_PAGE)
+                        || allParams.containsKey(CrudConstants.FILTER_PARAM_AFTER)), CrudConstants.PAGE_REQUIRED,
                 new HashMap<>() {{
                     put("code", "APP_SRV_00002_PAGE_REQUIRED");
                     put("long_description", CrudConstants.PAGE_REQUIRED);
@@ -104,8 +645,41 @@ public abstract class GenericAppService<D extends BaseDto<E>, E extends BaseEnti
         FilteredRequestParams params = new FilteredRequestParams();
         params.setPage(Integer.parseInt(allParams.getOrDefault(CrudConstants.FILTER_PARAM_PAGE, CrudConstants.FILTER_PARAM_PAGE_DEFAULT)));
         params.setPageSize(Integer.parseInt(allParams.getOrDefault(CrudConstants.FILTER_PARAM_SIZE, CrudConstants.FILTER_PARAM_SIZE_DEFAULT)));
+        params.setAfter(allParams.get(CrudConstants.FILTER_PARAM_AFTER));
+        // a cursor cannot carry the relevance score, keyset pages keep the requested order
+        params.setRank(!params.isKeyset() && Boolean.parseBoolean(allParams.get(CrudConstants.FILTER_PARAM_RANK)));
+
+        // request parameter wins; past the first keyset page the total is already known and is not
+        // counted again, otherwise the schema default wins over an exact count
+        String countMode = allParams.get(CrudConstants.FILTER_PARAM_COUNT_MODE);
+        if (countMode == null && params.isKeyset() && !params.getAfter().isEmpty()) {
+            countMode = CountMode.NONE.name();
+        }
+        if (countMode == null) {
+            countMode = schema.getCountMode();
+        }
+        params.setCountMode(countMode == null ? CountMode.EXACT : CountMode.fromValue(countMode));
+        ASSERT_USER(params.getCountMode() != null, CrudConstants.INVALID_COUNT_MODE,
+                new HashMap<>() {{
+                    put("code", "APP_SRV_00012_INVALID_COUNT_MODE");
+                    put("long_description", CrudConstants.INVALID_COUNT_MODE);
+                }});
         params.setFilterParams(objectMapper.readValue(allParams.get(CrudConstants.FILTER_PARAM_FILTERS), new TypeReference<Map<String, Object>>(){}));
         params.setOrderParams(objectMapper.readValue(allParams.get(CrudConstants.FILTER_PARAM_ORDERS), new com.fasterxml.jackson.core.type.TypeReference<List<List<String>>>() {}));
         return params;
     }
+
+    private record RowCount(long value, CountMode mode) {
+    }
+
+    /**
+     * What a list query reads from: the base entity or the schema's view entity, with the matching
+     * executor, specification builder, row-to-DTO mapping and the associations to load with each page.
+     */
+    private record RowSource<R, O>(Class<R> rowClass,
+                                JpaSpecificationExecutor<R> executor,
+                                GenericSpecificationBuilder<R> specificationBuilder,
+                                Function<? super R, O> converter,
+                                FetchPlan fetchPlan) {
+    }
 }
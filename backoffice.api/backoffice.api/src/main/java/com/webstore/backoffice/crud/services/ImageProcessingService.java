@@ -0,0 +1,693 @@
+package com.webstore.backoffice.crud.services;
+
+import com.webstore.backoffice.crud.constants.CrudConstants;
+import com.webstore.backoffice.crud.constants.ImageStatus;
+import com.webstore.backoffice.crud.constants.ImageVariant;
+import com.webstore.backoffice.crud.dtos.ImageProcessingStatus;
+import com.webstore.backoffice.crud.dtos.StagedImage;
+import com.webstore.backoffice.crud.models.Image;
+import com.webstore.backoffice.crud.models.Product;
+import com.webstore.backoffice.crud.repositories.ImageRepository;
+import com.webstore.backoffice.crud.repositories.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FilenameUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import javax.imageio.stream.ImageInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static com.webstore.backoffice.asserts.AssertUtil.ASSERT_USER;
+
+/**
+ * Takes product image uploads off the request path. Uploads are first written to a staging directory,
+ * before any transaction starts. Once the product's transaction commits they are handed to a bounded
+ * worker pool, which validates each file, moves it into the upload directory and records its
+ * {@link Image} row. Until then the product reports {@link ImageStatus#PENDING}.
+ * <p>
+ * Stored files are content addressed: a file is named after the SHA-256 of its bytes, computed while the
+ * upload is staged, so identical uploads share one file and one URL. The {@link Image} rows with that URL
+ * are its references, and {@link #release(String)} unlinks the file once none are left. Storing and
+ * releasing the same content is serialized by a lock striped on the hash, which only covers this
+ * process.
+ * <p>
+ * Each {@link ImageVariant} of a stored file is cached under {@code .variants/<hash>/} in the upload
+ * directory. The variants of a new upload are generated by the worker that stores it. Any other variant is
+ * queued on its first request to a pool of its own, once however many requests ask for it at the same time,
+ * and the original is served until it is written, so a request never waits for a decode.
+ * <p>
+ * Job state lives in memory: a restart forgets pending jobs, and staged files older than
+ * {@link #STALE_STAGED_FILE_AGE} are removed on startup.
+ */
+@Service
+public class ImageProcessingService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageProcessingService.class);
+    private static final Set<String> ALLOWED_EXTENSIONS = Set.of("jpg", "jpeg", "png", "gif", "webp");
+    private static final Duration STALE_STAGED_FILE_AGE = Duration.ofHours(1);
+    private static final int LOCK_STRIPES = 64;
+    private static final String VARIANTS_DIR = ".variants";
+    private static final Pattern STORED_FILE_NAME = Pattern.compile("[A-Za-z0-9_-]+(\\.[A-Za-z0-9]+)?");
+
+    private final ImageRepository imageRepository;
+    private final ProductRepository productRepository;
+    private final QueryResultCache queryResultCache;
+    private final TransactionTemplate transactionTemplate;
+    private final Path uploadDir;
+    private final Path stagingDir;
+    private final long maxPixels;
+    private final Executor executor;
+    private final Executor variantExecutor;
+
+    private final Map<Long, Job> jobs = new ConcurrentHashMap<>();
+    private final Lock[] locks = new Lock[LOCK_STRIPES];
+    private final Set<Path> variantsInFlight = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public ImageProcessingService(ImageRepository imageRepository,
+                                  ProductRepository productRepository,
+                                  QueryResultCache queryResultCache,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.upload.dir}") String uploadDir,
+                                  @Value("${app.upload.staging-dir:}") String stagingDir,
+                                  @Value("${app.images.max-pixels:40000000}") long maxPixels,
+                                  @Value("${app.images.workers:2}") int workers,
+                                  @Value("${app.images.queue-capacity:200}") int queueCapacity,
+                                  @Value("${app.images.variant-workers:1}") int variantWorkers) {
+        this(imageRepository, productRepository, queryResultCache, transactionManager, Path.of(uploadDir),
+                stagingDir.isBlank() ? Path.of(uploadDir, ".staging") : Path.of(stagingDir), maxPixels,
+                // a full queue slows the committing request down instead of dropping its uploads
+                newWorkerPool("image-worker-", workers, queueCapacity, new ThreadPoolExecutor.CallerRunsPolicy()),
+                // a dropped variant is queued again by its next request, which gets the original meanwhile
+                newWorkerPool("image-variant-", variantWorkers, queueCapacity, new ThreadPoolExecutor.AbortPolicy()));
+    }
+
+    ImageProcessingService(ImageRepository imageRepository,
+                           ProductRepository productRepository,
+                           QueryResultCache queryResultCache,
+                           PlatformTransactionManager transactionManager,
+                           Path uploadDir,
+                           Path stagingDir,
+                           long maxPixels,
+                           Executor executor,
+                           Executor variantExecutor) {
+        this.imageRepository = imageRepository;
+        this.productRepository = productRepository;
+        this.queryResultCache = queryResultCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // a job that runs on the committing thread must not join the transaction that just committed
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.uploadDir = uploadDir;
+        this.stagingDir = stagingDir;
+        this.maxPixels = maxPixels;
+        this.executor = executor;
+        this.variantExecutor = variantExecutor;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Writes the uploads to the staging directory and hashes them in the same pass. Call before the
+     * transaction that saves the product, so a slow upload does not hold a pooled connection. Images with
+     * more than {@code app.images.max-pixels} pixels are rejected from their header, before any decoding.
+     */
+    public List<StagedImage> stage(MultipartFile[] images) {
+        if (images == null || images.length == 0) {
+            return List.of();
+        }
+        ASSERT_USER(images.length <= CrudConstants.MAX_PRODUCT_IMAGES, "Maximum 3 images allowed",
+                new HashMap<>() {{
+                    put("code", "APP_SRV_00008_MAX_IMAGES_EXCEEDED");
+                }});
+
+        List<StagedImage> staged = new ArrayList<>(images.length);
+        try {
+            Files.createDirectories(stagingDir);
+            for (MultipartFile image : images) {
+                String originalName = image.getOriginalFilename() == null ? "" : image.getOriginalFilename();
+                String extension = FilenameUtils.getExtension(originalName).toLowerCase(Locale.ROOT);
+                Path path = stagingDir.resolve(UUID.randomUUID() + "." + extension);
+                MessageDigest digest = DigestUtils.getSha256Digest();
+                try (InputStream input = new DigestInputStream(image.getInputStream(), digest)) {
+                    Files.copy(input, path);
+                } catch (IOException e) {
+                    deleteQuietly(path);
+                    throw e;
+                }
+                staged.add(new StagedImage(path, extension, originalName, Hex.encodeHexString(digest.digest())));
+            }
+        } catch (IOException e) {
+            discard(staged);
+            ASSERT_USER(false, "Failed to upload images",
+                    new HashMap<>() {{
+                        put("code", "APP_SRV_00009_IMAGE_UPLOAD_FAILED");
+                    }});
+        }
+        long largest = staged.stream().mapToLong(image -> pixelCount(image.path())).max().orElse(0);
+        if (largest > maxPixels) {
+            discard(staged);
+        }
+        assertWithinPixelLimit(largest);
+        return staged;
+    }
+
+    /**
+     * Queues the staged uploads of a product. Inside a transaction they are processed once it commits
+     * and discarded if it rolls back.
+     */
+    public void submit(Long productId, List<StagedImage> staged) {
+        if (staged == null || staged.isEmpty()) {
+            return;
+        }
+        // a new batch clears the errors of the previous one
+        jobs.compute(productId, (id, job) -> job == null || job.pending() == 0
+                ? new Job(1, List.of())
+                : new Job(job.pending() + 1, job.errors()));
+        invalidateProducts();
+
+        Runnable task = () -> process(productId, staged);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            executor.execute(task);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    executor.execute(task);
+                } else {
+                    discard(staged);
+                    finish(productId, List.of());
+                }
+            }
+        });
+    }
+
+    public ImageProcessingStatus getStatus(Long productId) {
+        Job job = productId == null ? null : jobs.get(productId);
+        if (job == null) {
+            return new ImageProcessingStatus(productId, ImageStatus.READY, List.of());
+        }
+        return new ImageProcessingStatus(productId,
+                job.pending() > 0 ? ImageStatus.PENDING : ImageStatus.FAILED, job.errors());
+    }
+
+    /**
+     * The stored file with the given name, the last segment of an image URL. Names that could leave the
+     * upload directory are never resolved.
+     */
+    public Optional<Path> findStored(String fileName) {
+        if (!isStoredFileName(fileName)) {
+            return Optional.empty();
+        }
+        Path path = uploadDir.resolve(fileName);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    /**
+     * The cached variant of a stored file. While it does not exist yet the original is returned and the
+     * variant queued, and the original stays the answer when the JDK cannot decode its format.
+     */
+    public Optional<Path> findVariant(String fileName, ImageVariant variant) {
+        Optional<Path> original = findStored(fileName);
+        if (original.isEmpty()) {
+            return original;
+        }
+        Path target = variantPath(fileName, variant);
+        if (Files.isRegularFile(target)) {
+            return Optional.of(target);
+        }
+        generateVariant(original.get(), target, variant);
+        return original;
+    }
+
+    /**
+     * Whether {@code path}, as returned by {@link #findVariant}, is a variant rather than its original.
+     */
+    public boolean isVariant(Path path) {
+        return path.startsWith(uploadDir.resolve(VARIANTS_DIR));
+    }
+
+    public boolean isStoredFileName(String fileName) {
+        return fileName != null && STORED_FILE_NAME.matcher(fileName).matches();
+    }
+
+    public void discard(List<StagedImage> staged) {
+        staged.forEach(image -> deleteQuietly(image.path()));
+    }
+
+    /**
+     * Unlinks the stored file behind {@code url} if no image row refers to it any more. Inside a
+     * transaction the check runs once it commits, so it sees the transaction's own deletes.
+     */
+    public void release(String url) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            unlinkIfUnreferenced(url);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    unlinkIfUnreferenced(url);
+                }
+            }
+        });
+    }
+
+    @PostConstruct
+    void removeStaleStagedFiles() {
+        if (!Files.isDirectory(stagingDir)) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(STALE_STAGED_FILE_AGE);
+        try (Stream<Path> files = Files.list(stagingDir)) {
+            files.filter(path -> isOlderThan(path, cutoff)).forEach(this::deleteQuietly);
+        } catch (IOException e) {
+            log.warn("Could not clean the image staging directory {}", stagingDir, e);
+        }
+    }
+
+    @PreDestroy
+    void close() throws InterruptedException {
+        if (variantExecutor instanceof ExecutorService pool) {
+            pool.shutdownNow();
+        }
+        if (executor instanceof ExecutorService pool) {
+            pool.shutdown();
+            pool.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private void process(Long productId, List<StagedImage> staged) {
+        List<String> errors = new ArrayList<>();
+        List<StagedImage> valid = new ArrayList<>();
+        for (StagedImage image : staged) {
+            try {
+                validate(image);
+                valid.add(image);
+            } catch (IOException | IllegalArgumentException e) {
+                errors.add(image.originalName() + ": " + e.getMessage());
+                deleteQuietly(image.path());
+            }
+        }
+
+        // held until the rows commit, so a concurrent release cannot unlink a file this batch is about to reference
+        List<Lock> held = lockAll(valid.stream().map(StagedImage::hash).toList());
+        List<String> urls = new ArrayList<>();
+        boolean recorded = false;
+        try {
+            for (StagedImage image : valid) {
+                try {
+                    store(image);
+                    urls.add(CrudConstants.IMAGE_URL_PREFIX + image.fileName());
+                } catch (IOException e) {
+                    errors.add(image.originalName() + ": " + e.getMessage());
+                    deleteQuietly(image.path());
+                }
+            }
+            if (!urls.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    Product product = productRepository.getReferenceById(productId);
+                    for (String url : urls) {
+                        Image image = new Image();
+                        image.setUrl(url);
+                        image.setProduct(product);
+                        imageRepository.save(image);
+                    }
+                });
+                recorded = true;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not record the images of product {}", productId, e);
+            urls.forEach(this::unlinkIfUnreferenced);
+            errors.add("Images could not be recorded");
+        } finally {
+            held.forEach(Lock::unlock);
+            finish(productId, errors);
+        }
+        if (recorded) {
+            generateVariants(urls);
+        }
+    }
+
+    /**
+     * Rejects files whose extension is not an image type, and files whose content is not that type
+     * when the JDK can recognize it. The check reads only the header.
+     */
+    private void validate(StagedImage image) throws IOException {
+        if (!ALLOWED_EXTENSIONS.contains(image.extension())) {
+            throw new IllegalArgumentException("unsupported file type");
+        }
+        if (Files.size(image.path()) == 0) {
+            throw new IllegalArgumentException("file is empty");
+        }
+        if (!ImageIO.getImageReadersBySuffix(image.extension()).hasNext()) {
+            return;
+        }
+        try (ImageInputStream input = ImageIO.createImageInputStream(image.path().toFile())) {
+            if (input == null || !ImageIO.getImageReaders(input).hasNext()) {
+                throw new IllegalArgumentException("file is not a valid image");
+            }
+        }
+    }
+
+    /**
+     * Moves the staged file into the store, or drops it when the store already has the same content.
+     * The caller holds the lock of the hash.
+     */
+    private void store(StagedImage image) throws IOException {
+        Path target = uploadDir.resolve(image.fileName());
+        if (Files.exists(target)) {
+            deleteQuietly(image.path());
+            return;
+        }
+        try {
+            Files.move(image.path(), target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            // staging on another file system
+            Files.move(image.path(), target);
+        }
+    }
+
+    /**
+     * Runs on a worker already, so the variants are generated right here rather than queued again.
+     */
+    private void generateVariants(List<String> urls) {
+        for (String url : urls) {
+            String fileName = url.substring(CrudConstants.IMAGE_URL_PREFIX.length());
+            Path original = uploadDir.resolve(fileName);
+            for (ImageVariant variant : ImageVariant.values()) {
+                Path target = variantPath(fileName, variant);
+                try {
+                    if (!Files.isRegularFile(target)) {
+                        writeVariant(original, target, variant);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    // the variant is tried again on its first request
+                    log.warn("Could not generate the {} variant of {}", variant.getSegment(), fileName, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Queues a variant on the variant pool, unless it is already queued or being written. Nobody waits
+     * for it: a failure is logged and the variant is tried again on its next request.
+     */
+    private void generateVariant(Path original, Path target, ImageVariant variant) {
+        if (!variantsInFlight.add(target)) {
+            return;
+        }
+        try {
+            variantExecutor.execute(() -> {
+                try {
+                    writeVariant(original, target, variant);
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Could not generate the {} variant of {}", variant.getSegment(), original.getFileName(), e);
+                } finally {
+                    variantsInFlight.remove(target);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            variantsInFlight.remove(target);
+            log.debug("The {} variant of {} was not queued", variant.getSegment(), original.getFileName());
+        }
+    }
+
+    /**
+     * Writes a downscaled copy of the original to a temporary file and moves it into place, so a
+     * reader never sees a partial variant. Returns the original when its format cannot be decoded.
+     * <p>
+     * The dimensions come from the header, so an original over the pixel limit is refused without being
+     * decoded, and a large one is decoded subsampled to no more than about twice the variant's size.
+     */
+    private Path writeVariant(Path original, Path target, ImageVariant variant) throws IOException {
+        String format = FilenameUtils.getExtension(original.getFileName().toString()).toLowerCase(Locale.ROOT);
+        if (!ImageIO.getImageWritersBySuffix(format).hasNext()) {
+            return original;
+        }
+        BufferedImage source = null;
+        int width;
+        int height;
+        try (ImageInputStream input = ImageIO.createImageInputStream(original.toFile())) {
+            ImageReader reader = readerFor(input);
+            if (reader == null) {
+                return original;
+            }
+            try {
+                int originalWidth = reader.getWidth(0);
+                int originalHeight = reader.getHeight(0);
+                assertWithinPixelLimit((long) originalWidth * originalHeight);
+                double scale = Math.min(1.0, Math.min(
+                        (double) variant.getMaxWidth() / originalWidth,
+                        (double) variant.getMaxHeight() / originalHeight));
+                width = Math.max(1, (int) Math.round(originalWidth * scale));
+                height = Math.max(1, (int) Math.round(originalHeight * scale));
+                if (scale < 1.0) {
+                    ImageReadParam param = reader.getDefaultReadParam();
+                    int step = Math.max(1, (int) (1 / scale / 2));
+                    param.setSourceSubsampling(step, step, 0, 0);
+                    source = reader.read(0, param);
+                }
+            } finally {
+                reader.dispose();
+            }
+        }
+
+        Files.createDirectories(target.getParent());
+        Path temporary = Files.createTempFile(target.getParent(), variant.getSegment(), ".tmp");
+        try {
+            if (source == null) {
+                // never enlarged; the copy keeps later requests from decoding the original again
+                Files.copy(original, temporary, StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                boolean opaque = format.equals("jpg") || format.equals("jpeg") || !source.getColorModel().hasAlpha();
+                BufferedImage scaled = new BufferedImage(width, height,
+                        opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+                Graphics2D graphics = scaled.createGraphics();
+                try {
+                    graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+                    graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                    graphics.drawImage(source, 0, 0, width, height, null);
+                } finally {
+                    graphics.dispose();
+                }
+                if (!ImageIO.write(scaled, format, temporary.toFile())) {
+                    return original;
+                }
+            }
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return target;
+        } finally {
+            deleteQuietly(temporary);
+        }
+    }
+
+    /**
+     * The pixel count from the file's header, or 0 when the JDK cannot read its format; such files are
+     * never decoded here either.
+     */
+    private long pixelCount(Path path) {
+        try (ImageInputStream input = ImageIO.createImageInputStream(path.toFile())) {
+            ImageReader reader = readerFor(input);
+            if (reader == null) {
+                return 0;
+            }
+            try {
+                return (long) reader.getWidth(0) * reader.getHeight(0);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            // a broken header is reported by the worker's validation
+            return 0;
+        }
+    }
+
+    private void assertWithinPixelLimit(long pixels) {
+        ASSERT_USER(pixels <= maxPixels, "Images can have at most " + maxPixels + " pixels",
+                new HashMap<>() {{
+                    put("code", "APP_SRV_00022_IMAGE_TOO_LARGE");
+                }});
+    }
+
+    /**
+     * The first reader that recognizes the content, already reading from it, or null when there is none.
+     */
+    private static ImageReader readerFor(ImageInputStream input) {
+        Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+        if (readers == null || !readers.hasNext()) {
+            return null;
+        }
+        ImageReader reader = readers.next();
+        reader.setInput(input, true, true);
+        return reader;
+    }
+
+    private Path variantPath(String fileName, ImageVariant variant) {
+        return uploadDir.resolve(VARIANTS_DIR)
+                .resolve(FilenameUtils.getBaseName(fileName))
+                .resolve(variant.getSegment() + "." + FilenameUtils.getExtension(fileName));
+    }
+
+    private void unlinkIfUnreferenced(String url) {
+        if (url == null || !url.startsWith(CrudConstants.IMAGE_URL_PREFIX)) {
+            return;
+        }
+        String fileName = url.substring(CrudConstants.IMAGE_URL_PREFIX.length());
+        Path path = uploadDir.resolve(fileName).normalize();
+        if (fileName.isEmpty() || !path.getParent().equals(uploadDir.normalize())) {
+            return;
+        }
+        Lock lock = lockFor(FilenameUtils.getBaseName(fileName));
+        lock.lock();
+        try {
+            Long references = transactionTemplate.execute(status -> imageRepository.countByUrl(url));
+            if (references != null && references == 0) {
+                deleteQuietly(path);
+                deleteVariants(fileName);
+            }
+        } catch (RuntimeException e) {
+            // an orphaned file is cheaper than a broken image
+            log.warn("Could not count the references to {}, keeping the file", url, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes the stripes of all hashes in index order, so two batches never wait on each other in a cycle.
+     */
+    private List<Lock> lockAll(List<String> hashes) {
+        List<Lock> held = hashes.stream()
+                .map(this::stripeOf)
+                .distinct()
+                .sorted()
+                .map(stripe -> locks[stripe])
+                .toList();
+        held.forEach(Lock::lock);
+        return held;
+    }
+
+    private Lock lockFor(String hash) {
+        return locks[stripeOf(hash)];
+    }
+
+    private int stripeOf(String hash) {
+        return Math.floorMod(hash.hashCode(), LOCK_STRIPES);
+    }
+
+    private void finish(Long productId, List<String> errors) {
+        jobs.computeIfPresent(productId, (id, job) -> {
+            List<String> allErrors = new ArrayList<>(job.errors());
+            allErrors.addAll(errors);
+            int pending = job.pending() - 1;
+            return pending <= 0 && allErrors.isEmpty() ? null : new Job(Math.max(pending, 0), List.copyOf(allErrors));
+        });
+        invalidateProducts();
+    }
+
+    /**
+     * Cached product pages carry the images and their processing status, so every job transition drops
+     * them, including a batch in which every image failed.
+     */
+    private void invalidateProducts() {
+        queryResultCache.invalidate(CrudConstants.PRODUCT_SCHEMA_NAME);
+    }
+
+    private boolean isOlderThan(Path path, Instant cutoff) {
+        try {
+            return Files.getLastModifiedTime(path).toInstant().isBefore(cutoff);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void deleteVariants(String fileName) {
+        Path variants = uploadDir.resolve(VARIANTS_DIR).resolve(FilenameUtils.getBaseName(fileName));
+        try {
+            FileSystemUtils.deleteRecursively(variants);
+        } catch (IOException e) {
+            log.warn("Could not delete {}", variants, e);
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete {}", path, e);
+        }
+    }
+
+    private static ThreadPoolExecutor newWorkerPool(String threadPrefix, int workers, int queueCapacity,
+                                                    RejectedExecutionHandler rejectionHandler) {
+        AtomicInteger threads = new AtomicInteger();
+        return new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, threadPrefix + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                rejectionHandler);
+    }
+
+    /**
+     * @param pending batches of the product that are staged or being processed
+     */
+    private record Job(int pending, List<String> errors) {
+    }
+}
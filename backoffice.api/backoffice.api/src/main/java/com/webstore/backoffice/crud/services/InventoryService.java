@@ -0,0 +1,118 @@
+package com.webstore.backoffice.crud.services;
+
+import com.webstore.backoffice.crud.constants.CrudConstants;
+import com.webstore.backoffice.crud.dtos.BulkItemResult;
+import com.webstore.backoffice.crud.dtos.BulkResult;
+import com.webstore.backoffice.crud.dtos.StockAdjustment;
+import com.webstore.backoffice.crud.dtos.StockLevel;
+import com.webstore.backoffice.crud.repositories.InventoryRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static com.webstore.backoffice.asserts.AssertUtil.ASSERT_USER;
+
+/**
+ * Stock changes as relative, set-based updates of single inventory rows. Adjustments never read the
+ * quantity into memory, so concurrent edits from the admin UI and from imports only wait on the rows
+ * they touch and cannot overwrite each other.
+ */
+@Service
+public class InventoryService {
+
+    private final InventoryRepository inventoryRepository;
+    private final QueryResultCache queryResultCache;
+    private final TransactionTemplate transactionTemplate;
+
+    public InventoryService(InventoryRepository inventoryRepository,
+                            QueryResultCache queryResultCache,
+                            PlatformTransactionManager transactionManager) {
+        this.inventoryRepository = inventoryRepository;
+        this.queryResultCache = queryResultCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Applies every adjustment in one transaction, or none of them when any product is missing or would
+     * go below zero. Rows are updated in product id order, so two overlapping requests lock them in the
+     * same order and cannot deadlock.
+     */
+    public BulkResult<StockLevel> adjust(List<StockAdjustment> adjustments) {
+        long start = System.nanoTime();
+        ASSERT_USER(adjustments != null && adjustments.size() <= CrudConstants.BULK_MAX_ITEMS,
+                CrudConstants.BULK_LIMIT_EXCEEDED,
+                new HashMap<>() {{
+                    put("code", "APP_SRV_00014_BULK_LIMIT_EXCEEDED");
+                    put("long_description", CrudConstants.BULK_LIMIT_EXCEEDED);
+                }});
+
+        return transactionTemplate.execute(status -> {
+            List<BulkItemResult<StockLevel>> results = new ArrayList<>(adjustments.size());
+            for (int i = 0; i < adjustments.size(); i++) {
+                results.add(null);
+            }
+            int failed = 0;
+            for (int index : lockOrder(adjustments)) {
+                BulkItemResult<StockLevel> result = apply(index, adjustments.get(index));
+                results.set(index, result);
+                if (result.status() != BulkItemResult.Status.UPDATED) {
+                    failed++;
+                }
+            }
+
+            if (failed > 0) {
+                status.setRollbackOnly();
+                results.replaceAll(result -> result.status() == BulkItemResult.Status.UPDATED
+                        ? BulkItemResult.of(result.index(), BulkItemResult.Status.SKIPPED, null)
+                        : result);
+                return new BulkResult<>(results, 0, failed, elapsedMs(start));
+            }
+            queryResultCache.invalidate(CrudConstants.PRODUCT_SCHEMA_NAME);
+            return new BulkResult<>(results, results.size(), 0, elapsedMs(start));
+        });
+    }
+
+    private BulkItemResult<StockLevel> apply(int index, StockAdjustment adjustment) {
+        if (adjustment == null || adjustment.productId() == null) {
+            return BulkItemResult.failed(index, BulkItemResult.Status.INVALID,
+                    Map.of("product_id", CrudConstants.PRODUCT_ID_REQUIRED));
+        }
+        if (adjustment.delta() == null) {
+            return BulkItemResult.failed(index, BulkItemResult.Status.INVALID,
+                    Map.of("delta", CrudConstants.DELTA_REQUIRED));
+        }
+        int changed = inventoryRepository.adjustQuantity(adjustment.productId(), adjustment.delta());
+        // the update holds the row lock until commit, so the quantity read back is the one it wrote
+        Optional<Long> quantity = inventoryRepository.findQuantityByProductId(adjustment.productId());
+        if (changed > 0 && quantity.isPresent()) {
+            return BulkItemResult.of(index, BulkItemResult.Status.UPDATED,
+                    new StockLevel(adjustment.productId(), quantity.get()));
+        }
+        if (quantity.isEmpty()) {
+            return BulkItemResult.failed(index, BulkItemResult.Status.NOT_FOUND, null);
+        }
+        return BulkItemResult.failed(index, BulkItemResult.Status.INVALID,
+                Map.of("delta", CrudConstants.INSUFFICIENT_STOCK));
+    }
+
+    private static List<Integer> lockOrder(List<StockAdjustment> adjustments) {
+        return IntStream.range(0, adjustments.size()).boxed()
+                .sorted(Comparator.comparing(
+                        (Integer index) -> adjustments.get(index) == null ? null : adjustments.get(index).productId(),
+                        Comparator.nullsFirst(Comparator.naturalOrder())))
+                .toList();
+    }
+
+    private static long elapsedMs(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+}
@@ -5,57 +5,60 @@ import com.webstore.backoffice.crud.configurations.GenericSpecificationBuilder;
 import com.webstore.backoffice.crud.configurations.SchemaRegistry;
 import com.webstore.backoffice.crud.constants.CrudConstants;
 import com.webstore.backoffice.crud.dtos.ProductDto;
-import com.webstore.backoffice.crud.models.Image;
+import com.webstore.backoffice.crud.dtos.StagedImage;
 import com.webstore.backoffice.crud.models.Inventory;
 import com.webstore.backoffice.crud.models.Product;
+import com.webstore.backoffice.crud.models.ProductsView;
 import com.webstore.backoffice.crud.repositories.ImageRepository;
-import com.webstore.backoffice.security.repositories.AppSettingRepository;
-import org.apache.commons.codec.digest.DigestUtils;
-import org.apache.commons.io.FilenameUtils;
-import org.springframework.beans.factory.annotation.Value;
+import com.webstore.backoffice.crud.repositories.InventoryRepository;
+import com.webstore.backoffice.security.services.AppSettingService;
+import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
-import java.math.BigDecimal;
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.util.*;
+import java.util.function.Function;
 
 import static com.webstore.backoffice.asserts.AssertUtil.*;
 
 @Service
 public class ProductService extends GenericAppService<ProductDto, Product, Long> {
 
-    @Value("${app.upload.dir}")
-    private String uploadDir;
     private final ImageRepository imageRepository;
-    private final AppSettingRepository appSettingRepository;
-    private BigDecimal vatPercentage;
+    private final AppSettingService appSettingService;
     private final JpaRepository<Product, Long> repository;
-    private final JpaRepository<Inventory, Long> inventoryRepository;
+    private final InventoryRepository inventoryRepository;
+    private final ImageProcessingService imageProcessingService;
 
     public ProductService(JpaRepository<Product, Long> repository,
                           SchemaRegistry schemaRegistry,
                           ObjectMapper objectMapper,
                           GenericSpecificationBuilder<Product> specificationBuilder,
                           ImageRepository imageRepository,
-                          AppSettingRepository appSettingRepository,
-                          JpaRepository<Inventory, Long> inventoryRepository) {
+                          AppSettingService appSettingService,
+                          InventoryRepository inventoryRepository,
+                          ImageProcessingService imageProcessingService) {
         super(repository, schemaRegistry, objectMapper, specificationBuilder);
         this.imageRepository = imageRepository;
-        this.appSettingRepository = appSettingRepository;
+        this.appSettingService = appSettingService;
         this.repository = repository;
         this.inventoryRepository = inventoryRepository;
+        this.imageProcessingService = imageProcessingService;
     }
 
     public ProductDto convertToDto(Product product) {
-        var appSetting = appSettingRepository.findById(1L);
-        return appSetting
-                .map(setting -> new ProductDto(product, setting.getVatPercentage()))
-                .orElseGet(() -> new ProductDto(product, new BigDecimal("0.00")));
+        ProductDto dto = new ProductDto(product, appSettingService.getSnapshot());
+        dto.setImageStatus(imageProcessingService.getStatus(product.getId()).status());
+        return dto;
+    }
+
+    @Override
+    protected Function<Object, ProductDto> getViewRowConverter() {
+        return row -> {
+            ProductDto dto = new ProductDto((ProductsView) row);
+            dto.setImageStatus(imageProcessingService.getStatus(dto.getId()).status());
+            return dto;
+        };
     }
 
     @Override
@@ -63,29 +66,27 @@ public class ProductService extends GenericAppService<ProductDto, Product, Long>
         return CrudConstants.PRODUCT_SCHEMA_NAME;
     }
 
+    /**
+     * Saves the product and its stock; the images are processed after the commit, see
+     * {@link ImageProcessingService}.
+     */
     @Override
+    @Transactional
     public ProductDto create(ProductDto dto) {
         var createdProduct = super.create(dto);
         var createdProductDomainEntity = createdProduct.toDomainEntity();
 
-        List<String> imagePaths = handleImageUploads(dto.getImages());
-
-        for (String imagePath : imagePaths) {
-            Image productImage = new Image();
-            productImage.setUrl(imagePath);
-            productImage.setProduct(createdProductDomainEntity);
-            imageRepository.save(productImage);
-        }
-
         var inventory = new Inventory();
         inventory.setProduct(createdProductDomainEntity);
         inventory.setQuantity(dto.getQuantity());
         inventoryRepository.save(inventory);
 
+        submitImages(createdProduct, dto);
         return createdProduct;
     }
 
     @Override
+    @Transactional
     public ProductDto update(Long id, ProductDto dto) {
         var product = repository.findById(id);
         ASSERT_USER(product.isPresent(), "Product not found",
@@ -96,75 +97,34 @@ public class ProductService extends GenericAppService<ProductDto, Product, Long>
         var updatedProduct = super.update(id, dto);
         var updatedProductDomainEntity = updatedProduct.toDomainEntity();
 
-        List<String> imagePaths = handleImageUploads(dto.getImages());
-
-        for (String imagePath : imagePaths) {
-            Image productImage = new Image();
-            productImage.setUrl(imagePath);
-            productImage.setProduct(updatedProductDomainEntity);
-            imageRepository.save(productImage);
-        }
-
         if (dto.getImagesToDelete() != null) {
             for (String imageToDelete : dto.getImagesToDelete()) {
-                deleteImage(imageToDelete);
-                imageRepository.deleteByUrl(imageToDelete);
+                // other products may share the stored file, so only this product's reference is dropped
+                imageRepository.deleteByProductIdAndUrl(id, imageToDelete);
+                imageProcessingService.release(imageToDelete);
             }
         }
 
-        var inventory = inventoryRepository.findAll().stream()
-                .filter(inv -> inv.getProduct().getId().equals(id))
-                .findFirst();
-        if (inventory.isPresent()) {
-            inventory.get().setQuantity(dto.getQuantity());
-            inventoryRepository.save(inventory.get());
-        } else {
+        if (inventoryRepository.setQuantity(id, dto.getQuantity()) == 0) {
             var newInventory = new Inventory();
             newInventory.setProduct(updatedProductDomainEntity);
             newInventory.setQuantity(dto.getQuantity());
             inventoryRepository.save(newInventory);
         }
 
+        submitImages(updatedProduct, dto);
         return updatedProduct;
     }
 
-    private List<String> handleImageUploads(MultipartFile[] images) {
-        ASSERT_USER(images != null && images.length <= 3, "Maximum 3 images allowed",
-                new HashMap<>() {{
-                    put("code", "APP_SRV_00008_MAX_IMAGES_EXCEEDED");
-                }});
-
-        List<String> imagePaths = new ArrayList<>();
-
-        try {
-            for (MultipartFile image : images) {
-                String fileExtension = FilenameUtils.getExtension(image.getOriginalFilename());
-                String hashedName = DigestUtils.sha256Hex(UUID.randomUUID().toString());
-                String fileName = hashedName + "." + fileExtension;
-                String filePath = uploadDir + "/" + fileName;
-
-                Files.copy(image.getInputStream(), Paths.get(filePath),
-                        StandardCopyOption.REPLACE_EXISTING);
-                imagePaths.add("/images/" + fileName);
-            }
-        } catch (IOException e) {
-            ASSERT_USER(false, "Failed to upload images",
-                    new HashMap<>() {{
-                        put("code", "APP_SRV_00009_IMAGE_UPLOAD_FAILED");
-                    }});
-        }
-        return imagePaths;
-    }
-
-    private void deleteImage(String imagePath) {
-        try {
-            imagePath = imagePath.split("/images")[1];
-            Files.delete(Paths.get(uploadDir + imagePath));
-        } catch (IOException e) {
-            ASSERT_USER(false, "Failed to delete image",
-                    new HashMap<>() {{
-                        put("code", "APP_SRV_00010_IMAGE_DELETE_FAILED");
-                    }});
-        }
+    /**
+     * Callers that did not stage the uploads before the transaction, such as the JSON endpoints, have
+     * them staged here.
+     */
+    private void submitImages(ProductDto product, ProductDto request) {
+        List<StagedImage> staged = request.getStagedImages() != null
+                ? request.getStagedImages()
+                : imageProcessingService.stage(request.getImages());
+        imageProcessingService.submit(product.getId(), staged);
+        product.setImageStatus(imageProcessingService.getStatus(product.getId()).status());
     }
 }
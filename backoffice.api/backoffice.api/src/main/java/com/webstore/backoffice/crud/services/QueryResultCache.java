@@ -0,0 +1,213 @@
+package com.webstore.backoffice.crud.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.webstore.backoffice.crud.configurations.SchemaChangedEvent;
+import com.webstore.backoffice.crud.dtos.QueryCacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of list query results, keyed by the schema and the normalized query parameters.
+ * Entries expire after a fixed TTL and the least recently used ones are evicted once the total size
+ * passes the byte limit; the size of an entry is the length of its JSON form. Every entry is tagged with
+ * its schema, and {@link #invalidate(String)} drops all entries of one schema.
+ * <p>
+ * A result loaded while its schema was being invalidated is returned but not stored, so a write that
+ * commits during a slow query cannot leave the pre-write page in the cache.
+ */
+@Service
+public class QueryResultCache {
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter keyWriter;
+    private final long maxBytes;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<String, Set<String>> keysByTag = new HashMap<>();
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+    private long totalBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    @Autowired
+    public QueryResultCache(ObjectMapper objectMapper,
+                            @Value("${app.query-cache.max-bytes:16777216}") long maxBytes,
+                            @Value("${app.query-cache.ttl:PT30S}") Duration ttl) {
+        this(objectMapper, maxBytes, ttl, System::nanoTime);
+    }
+
+    QueryResultCache(ObjectMapper objectMapper, long maxBytes, Duration ttl, LongSupplier nanoClock) {
+        this.objectMapper = objectMapper;
+        // nested filter maps are written in key order, so equal queries produce equal keys
+        this.keyWriter = objectMapper.writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+        this.maxBytes = maxBytes;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Returns the cached result of {@code query} for the schema, or loads, stores and returns it.
+     *
+     * @param query anything Jackson can serialize that fully determines the result
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V get(String tag, Object query, Supplier<V> loader) {
+        if (maxBytes <= 0 || ttlNanos <= 0) {
+            return loader.get();
+        }
+        String key = key(tag, query);
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt() - nanoClock.getAsLong() > 0) {
+                hits.increment();
+                return (V) entry.value();
+            }
+            if (entry != null) {
+                remove(key);
+            }
+        }
+        misses.increment();
+
+        long generation = generation(tag).get();
+        V value = loader.get();
+        long size = sizeOf(value);
+        synchronized (this) {
+            if (size <= maxBytes && generation(tag).get() == generation) {
+                put(key, new Entry(tag, value, size, nanoClock.getAsLong() + ttlNanos));
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Drops every entry of the schema. Inside a transaction the schema is dropped again after completion,
+     * so a read that ran between this call and the commit cannot keep serving the old rows. A transaction
+     * registers one synchronization no matter how many rows it writes.
+     */
+    public void invalidate(String tag) {
+        invalidations.increment();
+        evict(tag);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            @SuppressWarnings("unchecked")
+            Set<String> pending = (Set<String>) TransactionSynchronizationManager.getResource(this);
+            if (pending == null) {
+                Set<String> tags = new HashSet<>();
+                pending = tags;
+                TransactionSynchronizationManager.bindResource(this, tags);
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        TransactionSynchronizationManager.unbindResourceIfPossible(QueryResultCache.this);
+                        tags.forEach(QueryResultCache.this::evict);
+                    }
+                });
+            }
+            pending.add(tag);
+        }
+    }
+
+    @EventListener
+    public void onSchemaChanged(SchemaChangedEvent event) {
+        invalidations.increment();
+        evict(event.getSchemaName());
+    }
+
+    public synchronized QueryCacheStats getStats() {
+        return new QueryCacheStats(hits.sum(), misses.sum(), evictions.sum(), invalidations.sum(),
+                entries.size(), totalBytes, maxBytes);
+    }
+
+    private void evict(String tag) {
+        generation(tag).incrementAndGet();
+        synchronized (this) {
+            Set<String> keys = keysByTag.remove(tag);
+            if (keys != null) {
+                for (String key : keys) {
+                    Entry entry = entries.remove(key);
+                    if (entry != null) {
+                        totalBytes -= entry.size();
+                    }
+                }
+            }
+        }
+    }
+
+    private AtomicLong generation(String tag) {
+        return generations.computeIfAbsent(tag, ignored -> new AtomicLong());
+    }
+
+    private void put(String key, Entry entry) {
+        remove(key);
+        entries.put(key, entry);
+        keysByTag.computeIfAbsent(entry.tag(), ignored -> new HashSet<>()).add(key);
+        totalBytes += entry.size();
+
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Entry> next = eldest.next();
+            eldest.remove();
+            untag(next.getKey(), next.getValue());
+            evictions.increment();
+        }
+    }
+
+    private void remove(String key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            untag(key, entry);
+        }
+    }
+
+    private void untag(String key, Entry entry) {
+        totalBytes -= entry.size();
+        Set<String> keys = keysByTag.get(entry.tag());
+        if (keys != null) {
+            keys.remove(key);
+        }
+    }
+
+    private String key(String tag, Object query) {
+        try {
+            return tag + ":" + keyWriter.writeValueAsString(query);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Query cannot be used as a cache key", e);
+        }
+    }
+
+    private long sizeOf(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value).length;
+        } catch (JsonProcessingException e) {
+            // a result that cannot be measured is never stored
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private record Entry(String tag, Object value, long size, long expiresAt) {
+    }
+}
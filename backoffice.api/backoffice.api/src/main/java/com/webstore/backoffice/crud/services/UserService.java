@@ -1,16 +1,24 @@
 package com.webstore.backoffice.crud.services;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.webstore.backoffice.crud.configurations.SchemaRegistry;
 import com.webstore.backoffice.crud.configurations.GenericSpecificationBuilder;
 import com.webstore.backoffice.crud.constants.CrudConstants;
 import com.webstore.backoffice.crud.dtos.UserDto;
 import com.webstore.backoffice.crud.mappers.UserMapper;
 import com.webstore.backoffice.crud.models.User;
+import com.webstore.backoffice.crud.models.UsersView;
 import com.webstore.backoffice.crud.repositories.UserRepository;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
+import java.util.function.Function;
+
+import static com.webstore.backoffice.asserts.AssertUtil.*;
+
 @Service
 public class UserService extends GenericAppService<UserDto, User, Long> {
 
@@ -36,6 +44,11 @@ public class UserService extends GenericAppService<UserDto, User, Long> {
 
     }
 
+    @Override
+    protected Function<Object, UserDto> getViewRowConverter() {
+        return row -> new UserDto((UsersView) row);
+    }
+
     @Override
     protected String getSchemaName() {
         return CrudConstants.USER_SCHEMA_NAME;
@@ -46,15 +59,35 @@ public class UserService extends GenericAppService<UserDto, User, Long> {
         dto.setPasswordHash(bCryptPasswordEncoder.encode(dto.getPasswordHash()));
         dto.setId(id);
         User entity = userMapper.toDomainEntity(dto);
+        keepActiveFlag(id, entity);
         User updated = userRepository.save(entity);
+        invalidateCachedResults();
         return convertToDto(updated);
     }
 
+    @Override
+    public UserDto patch(Long id, JsonNode changes) {
+        JsonNode passwordHash = changes != null ? changes.get("password_hash") : null;
+        if (passwordHash != null) {
+            // anything but a string would otherwise be stored as the hash without being encoded
+            ASSERT_USER(passwordHash.isTextual(), CrudConstants.PASSWORD_NOT_TEXT,
+                    new HashMap<>() {{
+                        put("code", "APP_SRV_00021_PASSWORD_NOT_TEXT");
+                        put("long_description", CrudConstants.PASSWORD_NOT_TEXT);
+                    }});
+            ObjectNode encoded = changes.deepCopy();
+            encoded.put("password_hash", bCryptPasswordEncoder.encode(passwordHash.asText()));
+            changes = encoded;
+        }
+        return super.patch(id, changes);
+    }
+
     @Override
     public UserDto create(UserDto dto) {
         dto.setPasswordHash(bCryptPasswordEncoder.encode(dto.getPasswordHash()));
         var entity = userMapper.toDomainEntity(dto);
         var savedEntity = userRepository.save(entity);
+        invalidateCachedResults();
         return convertToDto(savedEntity);
     }
 }
@@ -1,6 +1,7 @@
 package com.webstore.backoffice.security.configurations;
 
-import com.webstore.backoffice.crud.models.AdminSession;
+import com.webstore.backoffice.security.dtos.SessionPrincipal;
+import com.webstore.backoffice.security.services.AnonymousSessionTokens;
 import com.webstore.backoffice.security.services.AuthService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -14,54 +15,72 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.regex.Pattern;
 
 public class CustomSessionAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final Pattern SESSION_HASH = Pattern.compile(
+            "[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+
     private final AuthService authService;
+    private final AnonymousSessionTokens anonymousSessionTokens;
     private final String sessionCookieName;
+    private final String anonymousCookieName;
 
-    public CustomSessionAuthenticationFilter(AuthService authService, String sessionCookieName) {
+    public CustomSessionAuthenticationFilter(AuthService authService, AnonymousSessionTokens anonymousSessionTokens,
+                                             String sessionCookieName, String anonymousCookieName) {
         this.authService = authService;
+        this.anonymousSessionTokens = anonymousSessionTokens;
         this.sessionCookieName = sessionCookieName;
+        this.anonymousCookieName = anonymousCookieName;
     }
 
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
-        // Get session hash from cookie
-        UUID sessionHash = extractSessionHashFromCookie(request.getCookies());
-        if (sessionHash != null) {
-            // Validate the session and load the session record (which contains user details)
-            Optional<AdminSession> sessionOpt = authService.getValidSession(sessionHash);
-            if (sessionOpt.isPresent()) {
-                AdminSession session = sessionOpt.get();
-                // Create a CustomUserDetails instance that implements UserDetails.
-                CustomUserDetails userDetails = new CustomUserDetails(session);
-                // Create an Authentication object (set credentials to null because we're not using password auth here)
-                UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                // Set the authentication in the context
-                SecurityContextHolder.getContext().setAuthentication(auth);
+        Cookie[] cookies = request.getCookies();
+        String sessionHash = extractCookie(cookies, sessionCookieName);
+        Optional<SessionPrincipal> sessionOpt = Optional.empty();
+        if (sessionHash != null && SESSION_HASH.matcher(sessionHash).matches()) {
+            // Validate the Node server's session, from the session cache when it holds it
+            sessionOpt = authService.getValidPrincipal(UUID.fromString(sessionHash));
+        }
+        if (sessionOpt.isEmpty()) {
+            // Anonymous sessions validate themselves, no database lookup. They have a cookie of their own:
+            // the session cookie belongs to the Node server, which replaces any value that is not its row
+            sessionOpt = anonymousSessionTokens.verify(extractCookie(cookies, anonymousCookieName));
+            if (sessionOpt.isEmpty()) {
+                issueAnonymousSession(response, null);
+            } else if (anonymousSessionTokens.needsRenewal(sessionOpt.get())) {
+                issueAnonymousSession(response, sessionOpt.get().sessionHash());
             }
-        } else {
-            Optional<AdminSession> newSessionOptional = authService.createSession();
-            AdminSession newSession = newSessionOptional.get();
-            UUID newSessionHash = newSession.getSessionHash();
+        }
 
-            Cookie sessionCookie = new Cookie(sessionCookieName, newSessionHash.toString());
-            sessionCookie.setHttpOnly(true);
-            sessionCookie.setPath("/");
-            response.addCookie(sessionCookie);
+        if (sessionOpt.isPresent()) {
+            CustomUserDetails userDetails = new CustomUserDetails(sessionOpt.get());
+            // Create an Authentication object (set credentials to null because we're not using password auth here)
+            UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
+                    userDetails, null, userDetails.getAuthorities());
+            // Set the authentication in the context
+            SecurityContextHolder.getContext().setAuthentication(auth);
         }
         // Continue filter chain
         filterChain.doFilter(request, response);
     }
 
-    private UUID extractSessionHashFromCookie(Cookie[] cookies) {
+    private void issueAnonymousSession(HttpServletResponse response, UUID sessionHash) {
+        Cookie sessionCookie = new Cookie(anonymousCookieName, anonymousSessionTokens.issue(sessionHash));
+        sessionCookie.setHttpOnly(true);
+        sessionCookie.setPath("/");
+        sessionCookie.setMaxAge((int) anonymousSessionTokens.getTtl().toSeconds());
+        response.addCookie(sessionCookie);
+    }
+
+    private String extractCookie(Cookie[] cookies, String name) {
         if (cookies == null) return null;
         for (Cookie cookie : cookies) {
-            if (sessionCookieName.equals(cookie.getName())) {
-                return UUID.fromString(cookie.getValue());
+            if (name.equals(cookie.getName())) {
+                return cookie.getValue();
             }
         }
         return null;
@@ -1,28 +1,26 @@
 package com.webstore.backoffice.security.configurations;
 
-import com.webstore.backoffice.crud.models.AdminSession;
+import com.webstore.backoffice.security.dtos.SessionPrincipal;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import java.util.Collection;
 
 public class CustomUserDetails implements UserDetails {
 
-    private final AdminSession session;
+    private final SessionPrincipal session;
 
-    public CustomUserDetails(AdminSession session) {
+    public CustomUserDetails(SessionPrincipal session) {
         this.session = session;
     }
 
-    // Here, you map your session's admin_user_id or related fields to authorities.
+    public SessionPrincipal getSession() {
+        return session;
+    }
+
+    // Sessions with an admin_user_id are ROLE_ADMIN, the others ROLE_USER; see SessionPrincipal.
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        // Example: if session contains an admin_user_id, grant ROLE_ADMIN.
-        // Otherwise, grant ROLE_USER.
-        if (session.getAdminUser() != null) {
-            return java.util.Collections.singleton(() -> "ROLE_ADMIN");
-        } else {
-            return java.util.Collections.singleton(() -> "ROLE_USER");
-        }
+        return session.authorities();
     }
 
     @Override
@@ -33,7 +31,7 @@ public class CustomUserDetails implements UserDetails {
     @Override
     public String getUsername() {
         // You can return the session hash or the admin user's email/name if available.
-        return session.getSessionHash().toString();
+        return session.sessionHash().toString();
     }
 
     @Override
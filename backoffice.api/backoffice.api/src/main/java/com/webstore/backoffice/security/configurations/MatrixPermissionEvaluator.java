@@ -0,0 +1,41 @@
+package com.webstore.backoffice.security.configurations;
+
+import com.webstore.backoffice.security.services.PermissionMatrixService;
+import org.springframework.security.access.PermissionEvaluator;
+import org.springframework.security.core.Authentication;
+
+import java.io.Serializable;
+
+/**
+ * Answers {@code hasPermission('<interface code name>', '<permission>')} in method security expressions
+ * from the compiled {@link com.webstore.backoffice.security.dtos.PermissionMatrix}. Only sessions of an
+ * active admin user hold permissions: the matrix holds no grants for deactivated admins.
+ */
+public class MatrixPermissionEvaluator implements PermissionEvaluator {
+
+    private final PermissionMatrixService permissionMatrixService;
+
+    public MatrixPermissionEvaluator(PermissionMatrixService permissionMatrixService) {
+        this.permissionMatrixService = permissionMatrixService;
+    }
+
+    @Override
+    public boolean hasPermission(Authentication authentication, Object interfaceName, Object permission) {
+        if (authentication == null || !(authentication.getPrincipal() instanceof CustomUserDetails userDetails)
+                || !(interfaceName instanceof String) || !(permission instanceof String)) {
+            return false;
+        }
+        Long adminUserId = userDetails.getSession().adminUserId();
+        return adminUserId != null && permissionMatrixService.getMatrix()
+                .isGranted(adminUserId, (String) interfaceName, (String) permission);
+    }
+
+    /**
+     * Permissions are granted per interface, not per record, so the target id is not used.
+     */
+    @Override
+    public boolean hasPermission(Authentication authentication, Serializable targetId, String interfaceName,
+                                 Object permission) {
+        return hasPermission(authentication, interfaceName, permission);
+    }
+}
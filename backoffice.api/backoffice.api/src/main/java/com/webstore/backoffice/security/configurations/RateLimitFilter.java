@@ -0,0 +1,107 @@
+package com.webstore.backoffice.security.configurations;
+
+import com.webstore.backoffice.security.dtos.SessionPrincipal;
+import com.webstore.backoffice.security.services.AuthService;
+import com.webstore.backoffice.security.services.RequestRateLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Applies the {@link RequestRateLimiter} after the session filter has resolved the caller: per session for
+ * callers with an admin_sessions row, and per client address for everyone else, since an anonymous caller
+ * can drop its token at will. Behind a proxy the address is the proxy's unless
+ * {@code server.forward-headers-strategy} is set.
+ * <p>
+ * The block of a session is also written to its api_blocked_until and honored from there, so it outlasts a
+ * restart and holds on every node. Blocks of an address only live in memory.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+    private static final String TOO_MANY_REQUESTS = "{\"error\":\"Too many requests, try again later\"}";
+
+    private final RequestRateLimiter requestRateLimiter;
+    private final AuthService authService;
+    private final List<String> excludedPaths;
+
+    public RateLimitFilter(RequestRateLimiter requestRateLimiter, AuthService authService, List<String> excludedPaths) {
+        this.requestRateLimiter = requestRateLimiter;
+        this.authService = authService;
+        this.excludedPaths = excludedPaths;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return excludedPaths.stream().anyMatch(path::startsWith);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        SessionPrincipal session = currentSession();
+        SessionPrincipal persisted = session != null && session.isPersisted() ? session : null;
+        if (persisted != null && persisted.apiBlockedUntil() != null) {
+            Duration remaining = Duration.between(Instant.now(), persisted.apiBlockedUntil());
+            if (remaining.compareTo(Duration.ZERO) > 0) {
+                reject(response, remaining);
+                return;
+            }
+        }
+
+        String key = persisted != null ? "session:" + persisted.sessionHash() : "address:" + request.getRemoteAddr();
+        RequestRateLimiter.Decision decision = requestRateLimiter.tryAcquire(key);
+        if (decision.allowed()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (decision.blockStarted()) {
+            logger.warn("Rate limit exceeded by {}, blocking it for {}", key, decision.retryAfter());
+            if (persisted != null) {
+                recordBlock(persisted, decision.retryAfter());
+            }
+        }
+        reject(response, decision.retryAfter());
+    }
+
+    private void recordBlock(SessionPrincipal session, Duration duration) {
+        try {
+            authService.blockApiUntil(session.sessionHash(), Instant.now().plus(duration));
+        } catch (DataAccessException e) {
+            // the in-memory block still holds on this node
+            logger.warn("Could not record the rate limit block of session {}", session.sessionId(), e);
+        }
+    }
+
+    private SessionPrincipal currentSession() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof CustomUserDetails userDetails) {
+            return userDetails.getSession();
+        }
+        return null;
+    }
+
+    private void reject(HttpServletResponse response, Duration retryAfter) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        // whole seconds, rounded up so a client retrying on time is not blocked again
+        long seconds = retryAfter.getSeconds() + (retryAfter.getNano() > 0 ? 1 : 0);
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write(TOO_MANY_REQUESTS);
+    }
+}
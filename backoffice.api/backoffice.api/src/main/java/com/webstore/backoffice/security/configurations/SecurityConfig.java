@@ -1,8 +1,15 @@
 package com.webstore.backoffice.security.configurations;
 
+import com.webstore.backoffice.security.services.AnonymousSessionTokens;
 import com.webstore.backoffice.security.services.AuthService;
+import com.webstore.backoffice.security.services.PermissionMatrixService;
+import com.webstore.backoffice.security.services.RequestRateLimiter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -10,15 +17,29 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 
+import java.util.List;
+
 @Configuration
 @EnableMethodSecurity
 public class SecurityConfig {
 
     private final AuthService authService;
+    private final AnonymousSessionTokens anonymousSessionTokens;
+    private final RequestRateLimiter requestRateLimiter;
+    private final boolean rateLimitEnabled;
+    private final List<String> rateLimitExcludedPaths;
     private final String sessionCookieName = "admin_session_id";
+    private final String anonymousCookieName = "admin_anonymous_session";
 
-    public SecurityConfig(AuthService authService) {
+    public SecurityConfig(AuthService authService, AnonymousSessionTokens anonymousSessionTokens,
+                          RequestRateLimiter requestRateLimiter,
+                          @Value("${app.rate-limit.enabled:true}") boolean rateLimitEnabled,
+                          @Value("${app.rate-limit.excluded-paths:/images/}") List<String> rateLimitExcludedPaths) {
         this.authService = authService;
+        this.anonymousSessionTokens = anonymousSessionTokens;
+        this.requestRateLimiter = requestRateLimiter;
+        this.rateLimitEnabled = rateLimitEnabled;
+        this.rateLimitExcludedPaths = rateLimitExcludedPaths;
     }
 
     @Bean
@@ -36,13 +57,30 @@ public class SecurityConfig {
                         .requestMatchers("/auth/**").permitAll()
                         .anyRequest().permitAll()
                 )
-                .addFilterBefore(new CustomSessionAuthenticationFilter(authService, sessionCookieName),
+                .addFilterBefore(new CustomSessionAuthenticationFilter(authService, anonymousSessionTokens, sessionCookieName,
+                                anonymousCookieName),
                         org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter.class)
                 .httpBasic(Customizer.withDefaults()); // or formLogin if needed
+        if (rateLimitEnabled) {
+            // Runs once the session filter has resolved who is calling
+            http.addFilterAfter(new RateLimitFilter(requestRateLimiter, authService, rateLimitExcludedPaths),
+                    CustomSessionAuthenticationFilter.class);
+        }
 
         return http.build();
     }
 
+    /**
+     * Resolves {@code hasPermission} in {@code @PreAuthorize} against the compiled permission matrix.
+     * Static and lazy so method security can be set up before the services it checks against.
+     */
+    @Bean
+    static MethodSecurityExpressionHandler methodSecurityExpressionHandler(@Lazy PermissionMatrixService permissionMatrixService) {
+        DefaultMethodSecurityExpressionHandler handler = new DefaultMethodSecurityExpressionHandler();
+        handler.setPermissionEvaluator(new MatrixPermissionEvaluator(permissionMatrixService));
+        return handler;
+    }
+
     @Bean
     public BCryptPasswordEncoder bCryptPasswordEncoder() {
         return new BCryptPasswordEncoder();
@@ -0,0 +1,26 @@
+package com.webstore.backoffice.security.controllers;
+
+import com.webstore.backoffice.security.dtos.RateLimiterStats;
+import com.webstore.backoffice.security.services.RequestRateLimiter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/crud/rate-limiter")
+@CrossOrigin(origins = "*", allowedHeaders = "*")
+public class RateLimiterController {
+
+    private final RequestRateLimiter requestRateLimiter;
+
+    public RateLimiterController(RequestRateLimiter requestRateLimiter) {
+        this.requestRateLimiter = requestRateLimiter;
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<RateLimiterStats> getStats() {
+        return ResponseEntity.ok(requestRateLimiter.getStats());
+    }
+}
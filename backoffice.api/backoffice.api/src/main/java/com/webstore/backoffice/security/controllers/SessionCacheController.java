@@ -0,0 +1,26 @@
+package com.webstore.backoffice.security.controllers;
+
+import com.webstore.backoffice.security.dtos.SessionCacheStats;
+import com.webstore.backoffice.security.services.SessionCache;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/crud/session-cache")
+@CrossOrigin(origins = "*", allowedHeaders = "*")
+public class SessionCacheController {
+
+    private final SessionCache sessionCache;
+
+    public SessionCacheController(SessionCache sessionCache) {
+        this.sessionCache = sessionCache;
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<SessionCacheStats> getStats() {
+        return ResponseEntity.ok(sessionCache.getStats());
+    }
+}
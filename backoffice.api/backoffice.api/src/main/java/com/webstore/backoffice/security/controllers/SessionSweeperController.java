@@ -0,0 +1,26 @@
+package com.webstore.backoffice.security.controllers;
+
+import com.webstore.backoffice.security.dtos.SessionSweepStats;
+import com.webstore.backoffice.security.services.SessionSweeper;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/crud/session-sweeper")
+@CrossOrigin(origins = "*", allowedHeaders = "*")
+public class SessionSweeperController {
+
+    private final SessionSweeper sessionSweeper;
+
+    public SessionSweeperController(SessionSweeper sessionSweeper) {
+        this.sessionSweeper = sessionSweeper;
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<SessionSweepStats> getStats() {
+        return ResponseEntity.ok(sessionSweeper.getStats());
+    }
+}
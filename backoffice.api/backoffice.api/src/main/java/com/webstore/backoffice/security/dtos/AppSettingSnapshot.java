@@ -0,0 +1,103 @@
+package com.webstore.backoffice.security.dtos;
+
+import com.webstore.backoffice.crud.models.AppSetting;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+
+/**
+ * Immutable copy of the app_settings row with the derived values precomputed, safe to share between
+ * threads and to hold on to for the length of a request.
+ */
+public final class AppSettingSnapshot {
+
+    public static final long DEFAULT_REQUEST_LIMIT = 10L;
+    public static final long DEFAULT_REPORT_ROW_LIMIT_DISPLAY = 1000L;
+    public static final long DEFAULT_API_REQUEST_LIMIT = 600L;
+    public static final long DEFAULT_API_REQUEST_WINDOW_SECONDS = 60L;
+    public static final long DEFAULT_API_REQUEST_BLOCK_SECONDS = 60L;
+
+    private static final BigDecimal ONE_HUNDRED = new BigDecimal("100");
+
+    private final long version;
+    private final BigDecimal vatPercentage;
+    private final BigDecimal vatMultiplier;
+    private final long requestLimit;
+    private final long reportRowLimitDisplay;
+    private final long apiRequestLimit;
+    private final Duration apiRequestWindow;
+    private final Duration apiRequestBlockDuration;
+
+    public AppSettingSnapshot(long version, BigDecimal vatPercentage, long requestLimit, long reportRowLimitDisplay,
+                              long apiRequestLimit, Duration apiRequestWindow, Duration apiRequestBlockDuration) {
+        this.version = version;
+        this.vatPercentage = vatPercentage;
+        this.vatMultiplier = BigDecimal.ONE.add(vatPercentage.divide(ONE_HUNDRED, 4, RoundingMode.HALF_UP));
+        this.requestLimit = requestLimit;
+        this.reportRowLimitDisplay = reportRowLimitDisplay;
+        this.apiRequestLimit = apiRequestLimit;
+        this.apiRequestWindow = apiRequestWindow;
+        this.apiRequestBlockDuration = apiRequestBlockDuration;
+    }
+
+    /**
+     * Snapshot of the column defaults, used while app_settings has no row.
+     */
+    public static AppSettingSnapshot defaults(long version) {
+        return new AppSettingSnapshot(version, new BigDecimal("0.00"), DEFAULT_REQUEST_LIMIT,
+                DEFAULT_REPORT_ROW_LIMIT_DISPLAY, DEFAULT_API_REQUEST_LIMIT,
+                Duration.ofSeconds(DEFAULT_API_REQUEST_WINDOW_SECONDS),
+                Duration.ofSeconds(DEFAULT_API_REQUEST_BLOCK_SECONDS));
+    }
+
+    public static AppSettingSnapshot of(long version, AppSetting setting) {
+        return new AppSettingSnapshot(version,
+                setting.getVatPercentage() != null ? setting.getVatPercentage() : new BigDecimal("0.00"),
+                setting.getRequestLimit() != null ? setting.getRequestLimit() : DEFAULT_REQUEST_LIMIT,
+                setting.getReportRowLimitDisplay() != null
+                        ? setting.getReportRowLimitDisplay() : DEFAULT_REPORT_ROW_LIMIT_DISPLAY,
+                setting.getApiRequestLimit() != null ? setting.getApiRequestLimit() : DEFAULT_API_REQUEST_LIMIT,
+                Duration.ofSeconds(setting.getApiRequestWindowSeconds() != null
+                        ? setting.getApiRequestWindowSeconds() : DEFAULT_API_REQUEST_WINDOW_SECONDS),
+                Duration.ofSeconds(setting.getApiRequestBlockSeconds() != null
+                        ? setting.getApiRequestBlockSeconds() : DEFAULT_API_REQUEST_BLOCK_SECONDS));
+    }
+
+    /**
+     * Gross price for the given net price, rounded to cents.
+     */
+    public BigDecimal applyVat(BigDecimal price) {
+        return price.multiply(vatMultiplier).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * @return true when the setting values match, regardless of the version they were loaded under
+     */
+    public boolean sameValues(AppSettingSnapshot other) {
+        return other != null
+                && vatPercentage.compareTo(other.vatPercentage) == 0
+                && requestLimit == other.requestLimit
+                && reportRowLimitDisplay == other.reportRowLimitDisplay
+                && apiRequestLimit == other.apiRequestLimit
+                && apiRequestWindow.equals(other.apiRequestWindow)
+                && apiRequestBlockDuration.equals(other.apiRequestBlockDuration);
+    }
+
+    public long getVersion() { return version; }
+    public BigDecimal getVatPercentage() { return vatPercentage; }
+    public BigDecimal getVatMultiplier() { return vatMultiplier; }
+    public long getRequestLimit() { return requestLimit; }
+    public long getReportRowLimitDisplay() { return reportRowLimitDisplay; }
+    public long getApiRequestLimit() { return apiRequestLimit; }
+    public Duration getApiRequestWindow() { return apiRequestWindow; }
+    public Duration getApiRequestBlockDuration() { return apiRequestBlockDuration; }
+
+    @Override
+    public String toString() {
+        return "AppSettingSnapshot{version=" + version + ", vatPercentage=" + vatPercentage
+                + ", requestLimit=" + requestLimit + ", reportRowLimitDisplay=" + reportRowLimitDisplay
+                + ", apiRequestLimit=" + apiRequestLimit + ", apiRequestWindow=" + apiRequestWindow
+                + ", apiRequestBlockDuration=" + apiRequestBlockDuration + "}";
+    }
+}
@@ -0,0 +1,92 @@
+package com.webstore.backoffice.security.dtos;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, compiled form of the role tables: every admin's roles flattened into one bitset, with the
+ * permissions of an interface on adjacent bits. A check is two map lookups and a bit test, however many
+ * roles the admin holds.
+ */
+public final class PermissionMatrix {
+
+    private final long version;
+    private final Map<String, Map<String, Integer>> bitsByInterface;
+    private final Map<Long, long[]> grantsByAdmin;
+    private final int permissionCount;
+
+    private PermissionMatrix(long version, Map<String, Map<String, Integer>> bitsByInterface,
+                             Map<Long, long[]> grantsByAdmin, int permissionCount) {
+        this.version = version;
+        this.bitsByInterface = bitsByInterface;
+        this.grantsByAdmin = grantsByAdmin;
+        this.permissionCount = permissionCount;
+    }
+
+    public static PermissionMatrix empty(long version) {
+        return new PermissionMatrix(version, Map.of(), Map.of(), 0);
+    }
+
+    /**
+     * @param permissions every permission of an active interface
+     * @param grants the permissions each admin holds through an active role; grants of permissions not
+     *               in {@code permissions} are ignored
+     */
+    public static PermissionMatrix compile(long version, List<PermissionEntry> permissions, List<Grant> grants) {
+        Map<String, Map<String, Integer>> bitsByInterface = new HashMap<>();
+        Map<Long, Integer> bitByPermissionId = new HashMap<>();
+        int bits = 0;
+        List<PermissionEntry> ordered = permissions.stream()
+                .sorted(Comparator.comparing(PermissionEntry::interfaceName).thenComparing(PermissionEntry::permissionId))
+                .toList();
+        for (PermissionEntry permission : ordered) {
+            Map<String, Integer> interfaceBits = bitsByInterface.computeIfAbsent(permission.interfaceName(),
+                    name -> new HashMap<>());
+            Integer bit = interfaceBits.get(permission.permissionName());
+            if (bit == null) {
+                bit = bits++;
+                interfaceBits.put(permission.permissionName(), bit);
+            }
+            bitByPermissionId.put(permission.permissionId(), bit);
+        }
+
+        int words = (bits + Long.SIZE - 1) / Long.SIZE;
+        Map<Long, long[]> grantsByAdmin = new HashMap<>();
+        for (Grant grant : grants) {
+            Integer bit = bitByPermissionId.get(grant.permissionId());
+            if (bit != null) {
+                grantsByAdmin.computeIfAbsent(grant.adminUserId(), id -> new long[words])[bit / Long.SIZE]
+                        |= 1L << bit;
+            }
+        }
+        return new PermissionMatrix(version, bitsByInterface, grantsByAdmin, bits);
+    }
+
+    public boolean isGranted(Long adminUserId, String interfaceName, String permissionName) {
+        if (adminUserId == null) {
+            return false;
+        }
+        long[] granted = grantsByAdmin.get(adminUserId);
+        Map<String, Integer> interfaceBits = bitsByInterface.get(interfaceName);
+        if (granted == null || interfaceBits == null) {
+            return false;
+        }
+        Integer bit = interfaceBits.get(permissionName);
+        return bit != null && (granted[bit / Long.SIZE] & 1L << bit) != 0;
+    }
+
+    public long getVersion() { return version; }
+    public int getPermissionCount() { return permissionCount; }
+    public int getAdminCount() { return grantsByAdmin.size(); }
+
+    /**
+     * @param interfaceName the interface's code name, as used in {@code hasPermission} checks
+     */
+    public record PermissionEntry(long permissionId, String interfaceName, String permissionName) {
+    }
+
+    public record Grant(long adminUserId, long permissionId) {
+    }
+}
@@ -0,0 +1,9 @@
+package com.webstore.backoffice.security.dtos;
+
+/**
+ * Counters of the request rate limiter since startup. A rejected request either started a block or
+ * arrived while its caller was blocked.
+ */
+public record RateLimiterStats(long allowed, long rejected, long blocksStarted, long evictions,
+                               int trackedKeys, int maxKeys) {
+}
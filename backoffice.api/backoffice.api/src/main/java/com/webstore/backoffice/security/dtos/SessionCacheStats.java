@@ -0,0 +1,9 @@
+package com.webstore.backoffice.security.dtos;
+
+/**
+ * Counters of the session cache since startup. A load is a database lookup after a miss, whether or not
+ * it found a valid session.
+ */
+public record SessionCacheStats(long hits, long misses, double hitRate, long loads, double averageLoadMillis,
+                                long evictions, long invalidations, int entries, int maxEntries) {
+}
@@ -0,0 +1,53 @@
+package com.webstore.backoffice.security.dtos;
+
+import com.webstore.backoffice.crud.models.AdminSession;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Immutable copy of what a request needs from its admin_sessions row, safe to cache and share between
+ * threads. Holds ids rather than entities, so nothing in it can trigger a lazy load.
+ *
+ * @param expiresAt when the session itself expires; a cached copy is never used past it
+ * @param apiBlockedUntil until when the rate limiter blocks the session, or null
+ */
+public record SessionPrincipal(Long sessionId,
+                               UUID sessionHash,
+                               Long adminUserId,
+                               String sessionType,
+                               Instant expiresAt,
+                               List<GrantedAuthority> authorities,
+                               Instant apiBlockedUntil) {
+
+    public static final String ROLE_ADMIN = "ROLE_ADMIN";
+    public static final String ROLE_USER = "ROLE_USER";
+    public static final String ANONYMOUS = "Anonymous";
+
+    public static SessionPrincipal of(AdminSession session) {
+        Long adminUserId = session.getAdminUser() == null ? null : session.getAdminUser().getId();
+        return new SessionPrincipal(
+                session.getId(),
+                session.getSessionHash(),
+                adminUserId,
+                session.getSessionType() == null ? null : session.getSessionType().getType(),
+                session.getExpiresAt().toInstant(),
+                List.of(new SimpleGrantedAuthority(adminUserId != null ? ROLE_ADMIN : ROLE_USER)),
+                session.getApiBlockedUntil() == null ? null : session.getApiBlockedUntil().toInstant());
+    }
+
+    /**
+     * A session that only lives in its signed cookie and has no row yet.
+     */
+    public static SessionPrincipal anonymous(UUID sessionHash, Instant expiresAt) {
+        return new SessionPrincipal(null, sessionHash, null, ANONYMOUS, expiresAt,
+                List.of(new SimpleGrantedAuthority(ROLE_USER)), null);
+    }
+
+    public boolean isPersisted() {
+        return sessionId != null;
+    }
+}
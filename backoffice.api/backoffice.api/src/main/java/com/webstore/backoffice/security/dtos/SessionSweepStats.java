@@ -0,0 +1,11 @@
+package com.webstore.backoffice.security.dtos;
+
+import java.time.Instant;
+
+/**
+ * Outcome of the last session sweep and totals since startup. Deactivated sessions are expired ones
+ * marked inactive; deleted ones were removed after the retention period.
+ */
+public record SessionSweepStats(long runs, Instant lastRunAt, long lastDeactivated, long lastDeleted,
+                                long lastDurationMillis, long totalDeactivated, long totalDeleted) {
+}
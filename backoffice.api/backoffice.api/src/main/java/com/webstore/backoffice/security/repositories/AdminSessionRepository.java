@@ -2,10 +2,23 @@ package com.webstore.backoffice.security.repositories;
 
 import com.webstore.backoffice.crud.models.AdminSession;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.OffsetDateTime;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface AdminSessionRepository extends JpaRepository<AdminSession, Long> {
     Optional<AdminSession> findBySessionHashAndIsActiveTrue(UUID sessionHash);
+
+    /**
+     * @return the number of rows changed, 0 when the session does not exist
+     */
+    @Transactional
+    @Modifying
+    @Query("update AdminSession s set s.apiBlockedUntil = :until where s.sessionHash = :sessionHash")
+    int setApiBlockedUntil(@Param("sessionHash") UUID sessionHash, @Param("until") OffsetDateTime until);
 }
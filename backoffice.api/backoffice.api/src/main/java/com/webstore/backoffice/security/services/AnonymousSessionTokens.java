@@ -0,0 +1,129 @@
+package com.webstore.backoffice.security.services;
+
+import com.webstore.backoffice.security.dtos.SessionPrincipal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Signed cookie values for anonymous sessions, so a visitor without a session costs no admin_sessions
+ * row. A token reads {@code a.<session hash>.<expiry epoch seconds>.<signature>}, signed with HMAC-SHA256,
+ * and validates itself. It is never persisted: the token lives in a cookie of its own, and logging in
+ * through the Node server sets that server's session cookie, which the authentication filter prefers.
+ * <p>
+ * Without {@code app.sessions.anonymous-secret} a random key is made at startup, so anonymous tokens do
+ * not survive a restart or work across nodes.
+ */
+@Service
+public class AnonymousSessionTokens {
+
+    public static final String PREFIX = "a.";
+
+    private static final Logger log = LoggerFactory.getLogger(AnonymousSessionTokens.class);
+    private static final String ALGORITHM = "HmacSHA256";
+    // prefix, UUID, epoch seconds and a 43 character signature with their separators
+    private static final int MAX_TOKEN_LENGTH = 128;
+
+    private final SecretKeySpec key;
+    private final Duration ttl;
+    private final Clock clock;
+
+    @Autowired
+    public AnonymousSessionTokens(@Value("${app.sessions.anonymous-secret:}") String secret,
+                                  @Value("${app.sessions.anonymous-ttl:PT40M}") Duration ttl) {
+        this(secret.isBlank() ? randomSecret() : secret.getBytes(StandardCharsets.UTF_8), ttl, Clock.systemUTC());
+    }
+
+    AnonymousSessionTokens(byte[] secret, Duration ttl, Clock clock) {
+        this.key = new SecretKeySpec(secret, ALGORITHM);
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    /**
+     * A new anonymous session, or a renewal of {@code sessionHash} when one is given.
+     */
+    public String issue(UUID sessionHash) {
+        UUID hash = sessionHash != null ? sessionHash : UUID.randomUUID();
+        String payload = hash + "." + clock.instant().plus(ttl).getEpochSecond();
+        return PREFIX + payload + "." + sign(payload);
+    }
+
+    /**
+     * The anonymous session of a valid, unexpired token. Anything else, including values that are not
+     * anonymous tokens at all, is empty; nothing here throws on malformed input.
+     */
+    public Optional<SessionPrincipal> verify(String token) {
+        if (token == null || token.length() > MAX_TOKEN_LENGTH || !token.startsWith(PREFIX)) {
+            return Optional.empty();
+        }
+        int signatureStart = token.lastIndexOf('.');
+        int expiryStart = token.lastIndexOf('.', signatureStart - 1);
+        if (expiryStart <= PREFIX.length()) {
+            return Optional.empty();
+        }
+        String payload = token.substring(PREFIX.length(), signatureStart);
+        byte[] expected = sign(payload).getBytes(StandardCharsets.US_ASCII);
+        byte[] actual = token.substring(signatureStart + 1).getBytes(StandardCharsets.US_ASCII);
+        if (!MessageDigest.isEqual(expected, actual)) {
+            return Optional.empty();
+        }
+        // the payload is ours from here on, so parsing can only fail on a key shared with a different format
+        try {
+            UUID hash = UUID.fromString(token.substring(PREFIX.length(), expiryStart));
+            Instant expiresAt = Instant.ofEpochSecond(Long.parseLong(token.substring(expiryStart + 1, signatureStart)));
+            if (!clock.instant().isBefore(expiresAt)) {
+                return Optional.empty();
+            }
+            return Optional.of(SessionPrincipal.anonymous(hash, expiresAt));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Whether the token is past half its lifetime and should be reissued, which keeps an active visitor's
+     * session alive without any write.
+     */
+    public boolean needsRenewal(SessionPrincipal anonymous) {
+        return Duration.between(clock.instant(), anonymous.expiresAt()).compareTo(ttl.dividedBy(2)) < 0;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    private String sign(String payload) {
+        try {
+            // a Mac is cheap to create next to the HMAC itself, and not thread-safe to share
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            byte[] signature = mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        }
+    }
+
+    private static byte[] randomSecret() {
+        log.warn("app.sessions.anonymous-secret is not set, anonymous sessions end on restart");
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        return secret;
+    }
+}
@@ -0,0 +1,56 @@
+package com.webstore.backoffice.security.services;
+
+import com.webstore.backoffice.security.dtos.AppSettingSnapshot;
+import com.webstore.backoffice.security.repositories.AppSettingRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Shared, in-memory view of the app_settings row. Readers get the current immutable snapshot without
+ * touching the database; the row is loaded on first use and re-read on a fixed interval or on
+ * {@link #refresh()}. The snapshot version only moves when a setting value actually changes.
+ */
+@Service
+public class AppSettingService {
+
+    public static final long SETTINGS_ID = 1L;
+
+    private final AppSettingRepository appSettingRepository;
+    private final AtomicReference<AppSettingSnapshot> snapshot = new AtomicReference<>();
+
+    public AppSettingService(AppSettingRepository appSettingRepository) {
+        this.appSettingRepository = appSettingRepository;
+    }
+
+    public AppSettingSnapshot getSnapshot() {
+        AppSettingSnapshot current = snapshot.get();
+        return current != null ? current : refresh();
+    }
+
+    /**
+     * Re-reads the settings row and publishes a new snapshot if any value changed.
+     */
+    public synchronized AppSettingSnapshot refresh() {
+        AppSettingSnapshot current = snapshot.get();
+        long nextVersion = current == null ? 1 : current.getVersion() + 1;
+        AppSettingSnapshot loaded = appSettingRepository.findById(SETTINGS_ID)
+                .map(setting -> AppSettingSnapshot.of(nextVersion, setting))
+                .orElseGet(() -> AppSettingSnapshot.defaults(nextVersion));
+        if (loaded.sameValues(current)) {
+            return current;
+        }
+        snapshot.set(loaded);
+        return loaded;
+    }
+
+    @Scheduled(fixedDelayString = "${app.settings.refresh-interval:PT30S}",
+            initialDelayString = "${app.settings.refresh-interval:PT30S}")
+    public void scheduledRefresh() {
+        // nothing to keep fresh until someone has asked for the settings
+        if (snapshot.get() != null) {
+            refresh();
+        }
+    }
+}
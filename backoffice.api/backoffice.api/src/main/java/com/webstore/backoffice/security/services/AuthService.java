@@ -1,12 +1,15 @@
 package com.webstore.backoffice.security.services;
 
 import com.webstore.backoffice.crud.models.AdminSession;
+import com.webstore.backoffice.security.dtos.SessionPrincipal;
 import com.webstore.backoffice.security.repositories.AdminSessionRepository;
 import com.webstore.backoffice.security.repositories.AdminUserRepository;
 import com.webstore.backoffice.security.repositories.SessionTypeRepository;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -16,11 +19,15 @@ public class AuthService {
     private final AdminSessionRepository adminSessionRepository;
     private final SessionTypeRepository sessionTypeRepository;
     private final AdminUserRepository adminUserRepository;
+    private final SessionCache sessionCache;
+    private final SessionActivityBuffer sessionActivityBuffer;
 
-    public AuthService(AdminSessionRepository adminSessionRepository, SessionTypeRepository sessionTypeRepository, AdminUserRepository adminUserRepository) {
+    public AuthService(AdminSessionRepository adminSessionRepository, SessionTypeRepository sessionTypeRepository, AdminUserRepository adminUserRepository, SessionCache sessionCache, SessionActivityBuffer sessionActivityBuffer) {
         this.adminSessionRepository = adminSessionRepository;
         this.sessionTypeRepository = sessionTypeRepository;
         this.adminUserRepository = adminUserRepository;
+        this.sessionCache = sessionCache;
+        this.sessionActivityBuffer = sessionActivityBuffer;
     }
 
     public Optional<AdminSession> getValidSession(UUID sessionHash) {
@@ -28,22 +35,38 @@ public class AuthService {
                 .filter(session -> session.getExpiresAt().isAfter(OffsetDateTime.now()));
     }
 
+    /**
+     * The hot-path variant of {@link #getValidSession(UUID)}: answered from the session cache while it
+     * holds the session, and never returns a session past its expiry. A session found here counts as
+     * used and has its expiry slid forward by the next last-seen flush.
+     */
+    public Optional<SessionPrincipal> getValidPrincipal(UUID sessionHash) {
+        Optional<SessionPrincipal> principal = sessionCache.get(sessionHash,
+                hash -> getValidSession(hash).map(SessionPrincipal::of));
+        principal.ifPresent(sessionActivityBuffer::touch);
+        return principal;
+    }
+
+    /**
+     * Inserts a new anonymous session row. Visitors without a cookie get a signed token from
+     * {@link AnonymousSessionTokens} instead, which costs no row.
+     */
     public Optional<AdminSession> createSession() {
-        AdminSession session = new AdminSession();
-        session.setSessionHash(UUID.randomUUID());
-//        session.setIpAddress(ipAddress);
-        var sessionType = sessionTypeRepository.findByType("Anonymous");
+        AdminSession session = newSession(UUID.randomUUID());
+        var sessionType = sessionTypeRepository.findByType(SessionPrincipal.ANONYMOUS);
         session.setSessionType(sessionType.get());
-
-        session.setCreatedAt(OffsetDateTime.now());
-        session.setExpiresAt(OffsetDateTime.now().plusMinutes(60));
-        session.setIsActive(true);
         return Optional.of(adminSessionRepository.save(session));
     }
 
+    /**
+     * Changes the type and user of an active persisted session; empty when there is none. Logins normally
+     * happen in the Node server, whose changes reach the session cache through {@link SessionChangeWatcher}.
+     */
     public Optional<AdminSession> changeSessionType(UUID sessionHash, String sessionTypeName, Long adminUserId) {
         Optional<AdminSession> sessionOpt = adminSessionRepository.findBySessionHashAndIsActiveTrue(sessionHash);
-        // assert sessionOpt.isPresent();
+        if (sessionOpt.isEmpty()) {
+            return sessionOpt;
+        }
         AdminSession session = sessionOpt.get();
 
         var sessionType = sessionTypeRepository.findByType(sessionTypeName);
@@ -55,6 +78,26 @@ public class AuthService {
         // assert adminUser.isPresent();
         session.setAdminUser(adminUser.get());
 
-        return Optional.of(adminSessionRepository.save(session));
+        AdminSession saved = adminSessionRepository.save(session);
+        sessionCache.invalidate(sessionHash);
+        return Optional.of(saved);
+    }
+
+    /**
+     * Records a rate limit block on the session row, so it outlasts a restart and holds on every node
+     * once their cached copy of the session is reloaded.
+     */
+    public void blockApiUntil(UUID sessionHash, Instant until) {
+        adminSessionRepository.setApiBlockedUntil(sessionHash, until.atOffset(ZoneOffset.UTC));
+    }
+
+    private AdminSession newSession(UUID sessionHash) {
+        AdminSession session = new AdminSession();
+        session.setSessionHash(sessionHash);
+//        session.setIpAddress(ipAddress);
+        session.setCreatedAt(OffsetDateTime.now());
+        session.setExpiresAt(OffsetDateTime.now().plus(sessionActivityBuffer.getIdleTimeout()));
+        session.setIsActive(true);
+        return session;
     }
 }
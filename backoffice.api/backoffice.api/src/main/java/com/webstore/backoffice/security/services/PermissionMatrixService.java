@@ -0,0 +1,79 @@
+package com.webstore.backoffice.security.services;
+
+import com.webstore.backoffice.security.dtos.PermissionMatrix;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Shared, in-memory {@link PermissionMatrix} compiled from interfaces, permissions, roles,
+ * role_permissions and admin_user_roles; inactive admins hold no grants. Authorization checks read the
+ * current matrix without touching the database. Triggers on those tables and on admin_users.is_active bump
+ * rbac_version, which is polled on a fixed interval; the matrix is only recompiled when the version moved.
+ */
+@Service
+public class PermissionMatrixService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PermissionMatrixService.class);
+    private static final String VERSION_SQL = "SELECT version FROM rbac_version WHERE id = 1";
+    private static final String PERMISSIONS_SQL = "SELECT p.id, i.code_name, p.name FROM permissions p "
+            + "JOIN interfaces i ON i.id = p.interface_id WHERE i.is_active";
+    private static final String GRANTS_SQL = "SELECT DISTINCT aur.admin_user_id, rp.permission_id "
+            + "FROM admin_user_roles aur "
+            + "JOIN admin_users au ON au.id = aur.admin_user_id AND au.is_active "
+            + "JOIN roles r ON r.id = aur.role_id AND r.is_active "
+            + "JOIN role_permissions rp ON rp.role_id = r.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AtomicReference<PermissionMatrix> matrix = new AtomicReference<>();
+
+    public PermissionMatrixService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public PermissionMatrix getMatrix() {
+        PermissionMatrix current = matrix.get();
+        return current != null ? current : refresh();
+    }
+
+    /**
+     * Recompiles the matrix if the role tables changed since it was built.
+     */
+    public synchronized PermissionMatrix refresh() {
+        PermissionMatrix current = matrix.get();
+        long version = jdbcTemplate.queryForObject(VERSION_SQL, Long.class);
+        if (current != null && current.getVersion() == version) {
+            return current;
+        }
+        // read after the version, so a change made meanwhile only costs one extra rebuild
+        List<PermissionMatrix.PermissionEntry> permissions = jdbcTemplate.query(PERMISSIONS_SQL,
+                (rs, rowNum) -> new PermissionMatrix.PermissionEntry(rs.getLong(1), rs.getString(2), rs.getString(3)));
+        List<PermissionMatrix.Grant> grants = jdbcTemplate.query(GRANTS_SQL,
+                (rs, rowNum) -> new PermissionMatrix.Grant(rs.getLong(1), rs.getLong(2)));
+        PermissionMatrix compiled = PermissionMatrix.compile(version, permissions, grants);
+        matrix.set(compiled);
+        logger.info("Compiled permission matrix version {}: {} permissions for {} admins",
+                version, compiled.getPermissionCount(), compiled.getAdminCount());
+        return compiled;
+    }
+
+    @Scheduled(fixedDelayString = "${app.permissions.refresh-interval:PT10S}",
+            initialDelayString = "${app.permissions.refresh-interval:PT10S}")
+    public void scheduledRefresh() {
+        // nothing to keep fresh until something has been authorized
+        if (matrix.get() == null) {
+            return;
+        }
+        try {
+            refresh();
+        } catch (DataAccessException e) {
+            logger.warn("Could not refresh the permission matrix, keeping version {}", matrix.get().getVersion(), e);
+        }
+    }
+}
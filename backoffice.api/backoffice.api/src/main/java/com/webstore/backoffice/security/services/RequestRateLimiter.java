@@ -0,0 +1,181 @@
+package com.webstore.backoffice.security.services;
+
+import com.webstore.backoffice.security.dtos.AppSettingSnapshot;
+import com.webstore.backoffice.security.dtos.RateLimiterStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Token buckets per caller: a bucket holds up to api_request_limit requests and refills at that many per
+ * api_request_window_seconds. A caller that finds its bucket empty is blocked for
+ * api_request_block_seconds.
+ * <p>
+ * The limits come from the {@link AppSettingService} snapshot on every request, so a change to app_settings
+ * applies with the next settings refresh, without a restart. They are this API's own columns; request_limit,
+ * request_window and request_block_duration belong to the captcha and login flow of the Node server.
+ * <p>
+ * Each bucket has its own lock, which only requests of the same caller contend for. Buckets that have
+ * refilled completely are no different from new ones and are evicted on a schedule, or as soon as more
+ * than the configured number of callers are tracked.
+ */
+@Service
+public class RequestRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestRateLimiter.class);
+
+    private final Supplier<AppSettingSnapshot> settings;
+    private final int maxKeys;
+    private final LongSupplier nanoClock;
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder blocksStarted = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @Autowired
+    public RequestRateLimiter(AppSettingService appSettingService,
+                              @Value("${app.rate-limit.max-keys:100000}") int maxKeys) {
+        this(appSettingService::getSnapshot, maxKeys, System::nanoTime);
+    }
+
+    RequestRateLimiter(Supplier<AppSettingSnapshot> settings, int maxKeys, LongSupplier nanoClock) {
+        this.settings = settings;
+        this.maxKeys = maxKeys;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Takes one request from the caller's bucket. A limit of zero or less turns rate limiting off, and so
+     * does a settings row that cannot be read.
+     */
+    public Decision tryAcquire(String key) {
+        AppSettingSnapshot current;
+        try {
+            current = settings.get();
+        } catch (DataAccessException e) {
+            logger.debug("Could not read the rate limits, letting the request through", e);
+            allowed.increment();
+            return Decision.ALLOWED;
+        }
+        long limit = current.getApiRequestLimit();
+        if (limit <= 0) {
+            allowed.increment();
+            return Decision.ALLOWED;
+        }
+        long windowNanos = Math.max(current.getApiRequestWindow().toNanos(), 1);
+        long blockNanos = current.getApiRequestBlockDuration().toNanos();
+        long now = nanoClock.getAsLong();
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            Bucket created = new Bucket(limit, now);
+            bucket = buckets.putIfAbsent(key, created);
+            if (bucket == null) {
+                bucket = created;
+                if (buckets.size() > maxKeys) {
+                    evictIdle();
+                }
+            }
+        }
+        Decision decision = bucket.acquire(now, limit, windowNanos, blockNanos);
+        if (decision.allowed()) {
+            allowed.increment();
+        } else {
+            rejected.increment();
+            if (decision.blockStarted()) {
+                blocksStarted.increment();
+            }
+        }
+        return decision;
+    }
+
+    /**
+     * Drops the buckets that are full and not blocking, which is what a new bucket would be.
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limit.evict-interval:PT1M}")
+    public void evictIdle() {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long now = nanoClock.getAsLong();
+            // a bucket untouched for a whole window has refilled completely
+            long windowNanos = Math.max(settings.get().getApiRequestWindow().toNanos(), 1);
+            buckets.entrySet().removeIf(entry -> {
+                boolean idle = entry.getValue().isIdle(now, windowNanos);
+                if (idle) {
+                    evictions.increment();
+                }
+                return idle;
+            });
+        } catch (DataAccessException e) {
+            logger.warn("Could not read the rate limits, keeping the buckets", e);
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    public RateLimiterStats getStats() {
+        return new RateLimiterStats(allowed.sum(), rejected.sum(), blocksStarted.sum(), evictions.sum(),
+                buckets.size(), maxKeys);
+    }
+
+    /**
+     * @param blockStarted whether this request started the block, which callers log once
+     * @param retryAfter how long the caller stays blocked; zero when allowed
+     */
+    public record Decision(boolean allowed, boolean blockStarted, Duration retryAfter) {
+
+        static final Decision ALLOWED = new Decision(true, false, Duration.ZERO);
+    }
+
+    private static final class Bucket {
+
+        private double tokens;
+        private long refilledAt;
+        private long blockedUntil;
+        private boolean blocked;
+
+        Bucket(long limit, long now) {
+            this.tokens = limit;
+            this.refilledAt = now;
+        }
+
+        synchronized Decision acquire(long now, long limit, long windowNanos, long blockNanos) {
+            if (blocked) {
+                if (now - blockedUntil < 0) {
+                    return new Decision(false, false, Duration.ofNanos(blockedUntil - now));
+                }
+                blocked = false;
+            }
+            tokens = Math.min(limit, tokens + (double) (now - refilledAt) * limit / windowNanos);
+            refilledAt = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return Decision.ALLOWED;
+            }
+            blocked = true;
+            blockedUntil = now + blockNanos;
+            return new Decision(false, true, Duration.ofNanos(blockNanos));
+        }
+
+        synchronized boolean isIdle(long now, long windowNanos) {
+            return (!blocked || now - blockedUntil >= 0) && now - refilledAt >= windowNanos;
+        }
+    }
+}
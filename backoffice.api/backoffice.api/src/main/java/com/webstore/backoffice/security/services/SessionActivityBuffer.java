@@ -0,0 +1,155 @@
+package com.webstore.backoffice.security.services;
+
+import com.webstore.backoffice.security.dtos.SessionPrincipal;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sliding expiry for persisted sessions. A request only records when its session was last seen; the
+ * latest time per session is kept in memory and written in one batch per flush, which moves last_seen_at
+ * and pushes expires_at to the idle timeout after it.
+ * <p>
+ * A session seen within two flush intervals of its expiry asks for an early flush on the task scheduler,
+ * so it cannot expire, or be deactivated by the {@link SessionSweeper}, while its extension waits for the
+ * next scheduled one. The request itself never writes.
+ * <p>
+ * The idle timeout defaults to the 40 minutes the Node server slides its sessions by, so a session lasts
+ * as long whichever server it was last seen by.
+ */
+@Service
+public class SessionActivityBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionActivityBuffer.class);
+    // never revives a session that had already expired when it was seen, and skips rows already further out
+    private static final String TOUCH_SQL = "UPDATE admin_sessions SET last_seen_at = ?, expires_at = ? "
+            + "WHERE session_hash = ? AND is_active AND expires_at > ? AND expires_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SessionCache sessionCache;
+    private final Duration idleTimeout;
+    private final Duration urgentWithin;
+    private final Executor earlyFlushExecutor;
+    private final Clock clock;
+
+    private final Map<UUID, Instant> pending = new ConcurrentHashMap<>();
+    private final Set<UUID> urgent = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean earlyFlushQueued = new AtomicBoolean();
+
+    @Autowired
+    public SessionActivityBuffer(JdbcTemplate jdbcTemplate, SessionCache sessionCache, TaskScheduler taskScheduler,
+                                 @Value("${app.sessions.idle-timeout:PT40M}") Duration idleTimeout,
+                                 @Value("${app.sessions.last-seen-flush-interval:PT30S}") Duration flushInterval) {
+        this(jdbcTemplate, sessionCache, idleTimeout, flushInterval,
+                task -> taskScheduler.schedule(task, Instant.now()), Clock.systemUTC());
+    }
+
+    SessionActivityBuffer(JdbcTemplate jdbcTemplate, SessionCache sessionCache, Duration idleTimeout,
+                          Duration flushInterval, Executor earlyFlushExecutor, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sessionCache = sessionCache;
+        this.idleTimeout = idleTimeout;
+        this.urgentWithin = flushInterval.multipliedBy(2);
+        this.earlyFlushExecutor = earlyFlushExecutor;
+        this.clock = clock;
+    }
+
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * Records that the session was just used. Anonymous sessions renew their own cookie and are ignored.
+     */
+    public void touch(SessionPrincipal principal) {
+        if (!principal.isPersisted()) {
+            return;
+        }
+        Instant now = clock.instant();
+        pending.merge(principal.sessionHash(), now, (last, seen) -> seen.isAfter(last) ? seen : last);
+        if (Duration.between(now, principal.expiresAt()).compareTo(urgentWithin) > 0) {
+            return;
+        }
+        urgent.add(principal.sessionHash());
+        // one early flush takes every urgent session queued until it runs
+        if (earlyFlushQueued.compareAndSet(false, true)) {
+            try {
+                earlyFlushExecutor.execute(() -> {
+                    earlyFlushQueued.set(false);
+                    flush();
+                });
+            } catch (RuntimeException e) {
+                earlyFlushQueued.set(false);
+                logger.warn("Could not queue an early session flush, leaving it to the scheduled one", e);
+            }
+        }
+    }
+
+    /**
+     * Writes the buffered last-seen times in one batch. Times that cannot be written are kept for the
+     * next flush. Urgent sessions are dropped from the session cache once written, since the cached copy
+     * still carries the old expiry.
+     */
+    @Scheduled(fixedDelayString = "${app.sessions.last-seen-flush-interval:PT30S}")
+    public void flush() {
+        List<Map.Entry<UUID, Instant>> batch = new ArrayList<>();
+        for (UUID sessionHash : pending.keySet()) {
+            Instant seen = pending.remove(sessionHash);
+            if (seen != null) {
+                batch.add(Map.entry(sessionHash, seen));
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(TOUCH_SQL, batch, batch.size(),
+                    (statement, entry) -> bind(statement, entry.getKey(), entry.getValue()));
+            batch.stream()
+                    .map(Map.Entry::getKey)
+                    .filter(urgent::remove)
+                    .forEach(sessionCache::invalidate);
+        } catch (DataAccessException e) {
+            logger.warn("Could not write {} session last-seen times, keeping them for the next flush", batch.size(), e);
+            batch.forEach(entry -> pending.merge(entry.getKey(), entry.getValue(),
+                    (last, seen) -> seen.isAfter(last) ? seen : last));
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        flush();
+    }
+
+    private void bind(PreparedStatement statement, UUID sessionHash, Instant seen) throws SQLException {
+        Timestamp seenAt = Timestamp.from(seen);
+        Timestamp expiresAt = Timestamp.from(seen.plus(idleTimeout));
+        statement.setTimestamp(1, seenAt);
+        statement.setTimestamp(2, expiresAt);
+        statement.setObject(3, sessionHash);
+        statement.setTimestamp(4, seenAt);
+        statement.setTimestamp(5, expiresAt);
+    }
+}
@@ -0,0 +1,157 @@
+package com.webstore.backoffice.security.services;
+
+import com.webstore.backoffice.security.dtos.SessionCacheStats;
+import com.webstore.backoffice.security.dtos.SessionPrincipal;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of resolved sessions keyed by session hash, so an authenticated request does not join
+ * admin_sessions with its user and session type. An entry is used until the earlier of the session's own
+ * expiry and the cache TTL. Sessions are logged in and out by the Node server, which cannot reach this
+ * cache; {@link SessionChangeWatcher} drops it when they do, and the TTL bounds what it cannot see, such as
+ * a deactivated admin user.
+ * <p>
+ * Lookups only touch their own entry, so concurrent requests do not wait on each other. Past the size
+ * limit, expired entries are dropped first and then arbitrary ones until the cache is back under it.
+ * <p>
+ * A lookup that raced with {@link #invalidate(UUID)} is returned but not kept, so it cannot put back the
+ * session state the invalidation just dropped.
+ */
+@Service
+public class SessionCache {
+
+    private final int maxEntries;
+    private final Duration ttl;
+    private final Clock clock;
+
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadNanos = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    @Autowired
+    public SessionCache(@Value("${app.sessions.cache-max-entries:10000}") int maxEntries,
+                        @Value("${app.sessions.cache-ttl:PT15S}") Duration ttl) {
+        this(maxEntries, ttl, Clock.systemUTC());
+    }
+
+    SessionCache(int maxEntries, Duration ttl, Clock clock) {
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the cached session, or looks it up with {@code loader} and caches what it finds. Sessions
+     * past their expiry are treated as missing either way.
+     */
+    public Optional<SessionPrincipal> get(UUID sessionHash, Function<UUID, Optional<SessionPrincipal>> loader) {
+        Instant now = clock.instant();
+        Entry cached = entries.get(sessionHash);
+        if (cached != null && now.isBefore(cached.validUntil())) {
+            hits.increment();
+            return Optional.of(cached.principal());
+        }
+        if (cached != null) {
+            entries.remove(sessionHash, cached);
+        }
+        misses.increment();
+
+        long loadedGeneration = generation.get();
+        long started = System.nanoTime();
+        Optional<SessionPrincipal> loaded = loader.apply(sessionHash)
+                .filter(principal -> now.isBefore(principal.expiresAt()));
+        loads.increment();
+        loadNanos.add(System.nanoTime() - started);
+
+        if (loaded.isPresent() && maxEntries > 0 && generation.get() == loadedGeneration) {
+            Instant ttlEnd = now.plus(ttl);
+            Instant validUntil = loaded.get().expiresAt().isBefore(ttlEnd) ? loaded.get().expiresAt() : ttlEnd;
+            Entry entry = new Entry(loaded.get(), validUntil);
+            entries.put(sessionHash, entry);
+            // an invalidation between the check and the put has already run its remove
+            if (generation.get() != loadedGeneration) {
+                entries.remove(sessionHash, entry);
+            }
+            if (entries.size() > maxEntries) {
+                evict(now);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Drops the session, for callers that changed or ended it.
+     */
+    public void invalidate(UUID sessionHash) {
+        invalidations.increment();
+        generation.incrementAndGet();
+        entries.remove(sessionHash);
+    }
+
+    /**
+     * Drops every session, for changes made elsewhere that do not say which sessions they touched.
+     */
+    public void invalidateAll() {
+        invalidations.increment();
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    public SessionCacheStats getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long loadCount = loads.sum();
+        double hitRate = hitCount + missCount == 0 ? 0 : (double) hitCount / (hitCount + missCount);
+        double averageLoadMillis = loadCount == 0 ? 0 : loadNanos.sum() / 1_000_000.0 / loadCount;
+        return new SessionCacheStats(hitCount, missCount, hitRate, loadCount, averageLoadMillis,
+                evictions.sum(), invalidations.sum(), entries.size(), maxEntries);
+    }
+
+    private void evict(Instant now) {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            entries.entrySet().removeIf(entry -> {
+                boolean expired = !now.isBefore(entry.getValue().validUntil());
+                if (expired) {
+                    evictions.increment();
+                }
+                return expired;
+            });
+            Iterator<UUID> keys = entries.keySet().iterator();
+            while (entries.size() > maxEntries && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+                evictions.increment();
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private record Entry(SessionPrincipal principal, Instant validUntil) {
+    }
+}
@@ -0,0 +1,47 @@
+package com.webstore.backoffice.security.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Drops the {@link SessionCache} when the Node server logs a session in or out. A trigger on
+ * admin_sessions bumps session_version on those changes, which is polled on a fixed interval, the same
+ * way rbac_version drives the permission matrix.
+ */
+@Service
+public class SessionChangeWatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionChangeWatcher.class);
+    private static final String VERSION_SQL = "SELECT version FROM session_version WHERE id = 1";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SessionCache sessionCache;
+
+    private volatile Long version;
+
+    public SessionChangeWatcher(JdbcTemplate jdbcTemplate, SessionCache sessionCache) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sessionCache = sessionCache;
+    }
+
+    @Scheduled(fixedDelayString = "${app.sessions.change-poll-interval:PT2S}")
+    public void poll() {
+        Long current;
+        try {
+            current = jdbcTemplate.queryForObject(VERSION_SQL, Long.class);
+        } catch (DataAccessException e) {
+            logger.warn("Could not read the session version, cached sessions live out their ttl", e);
+            return;
+        }
+        Long previous = version;
+        version = current;
+        // the first read only sets the baseline; a change before it is covered by the cache ttl
+        if (previous != null && !previous.equals(current)) {
+            sessionCache.invalidateAll();
+        }
+    }
+}
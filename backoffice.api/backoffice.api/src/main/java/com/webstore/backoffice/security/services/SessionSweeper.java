@@ -0,0 +1,150 @@
+package com.webstore.backoffice.security.services;
+
+import com.webstore.backoffice.security.dtos.SessionSweepStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Cleans up expired rows of admin_sessions and sessions. Expired sessions are first deactivated, and
+ * deleted once they have been expired for the retention period. Every statement handles one bounded
+ * batch in its own transaction and skips rows locked by a request, so a sweep never holds many locks or
+ * waits on a live session; a run stops when the backlog is done or its time budget is spent.
+ * <p>
+ * Rows still referenced by captchas, failed attempts or carts are only deactivated; the foreign keys do
+ * not cascade and this history is not the sweeper's to remove.
+ */
+@Service
+public class SessionSweeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionSweeper.class);
+
+    private static final List<SweptTable> TABLES = List.of(
+            new SweptTable("admin_sessions", List.of(
+                    new Dependent("admin_captchas", "admin_session_id"),
+                    new Dependent("admin_failed_attempts", "admin_session_id"))),
+            new SweptTable("sessions", List.of(
+                    new Dependent("captchas", "session_id"),
+                    new Dependent("failed_attempts", "session_id"),
+                    new Dependent("carts", "session_id"))));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final Duration retention;
+    private final Duration maxDuration;
+    private final Clock clock;
+
+    private long runs;
+    private Instant lastRunAt;
+    private long lastDeactivated;
+    private long lastDeleted;
+    private long lastDurationMillis;
+    private long totalDeactivated;
+    private long totalDeleted;
+
+    @Autowired
+    public SessionSweeper(JdbcTemplate jdbcTemplate,
+                          @Value("${app.sessions.sweep-batch-size:500}") int batchSize,
+                          @Value("${app.sessions.sweep-retention:PT24H}") Duration retention,
+                          @Value("${app.sessions.sweep-max-duration:PT10S}") Duration maxDuration) {
+        this(jdbcTemplate, batchSize, retention, maxDuration, Clock.systemUTC());
+    }
+
+    SessionSweeper(JdbcTemplate jdbcTemplate, int batchSize, Duration retention, Duration maxDuration, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        this.retention = retention;
+        this.maxDuration = maxDuration;
+        this.clock = clock;
+    }
+
+    @Scheduled(fixedDelayString = "${app.sessions.sweep-interval:PT5M}",
+            initialDelayString = "${app.sessions.sweep-interval:PT5M}")
+    public void sweep() {
+        Instant started = clock.instant();
+        Instant deadline = started.plus(maxDuration);
+        Timestamp expiredBefore = Timestamp.from(started);
+        Timestamp deletableBefore = Timestamp.from(started.minus(retention));
+
+        long deactivated = 0;
+        long deleted = 0;
+        for (SweptTable table : TABLES) {
+            deactivated += drain(table.deactivateSql(), expiredBefore, deadline, table.name());
+            deleted += drain(table.deleteSql(), deletableBefore, deadline, table.name());
+        }
+
+        long durationMillis = Duration.between(started, clock.instant()).toMillis();
+        synchronized (this) {
+            runs++;
+            lastRunAt = started;
+            lastDeactivated = deactivated;
+            lastDeleted = deleted;
+            lastDurationMillis = durationMillis;
+            totalDeactivated += deactivated;
+            totalDeleted += deleted;
+        }
+        if (deactivated > 0 || deleted > 0) {
+            logger.info("Session sweep deactivated {} and deleted {} sessions in {} ms",
+                    deactivated, deleted, durationMillis);
+        }
+    }
+
+    public synchronized SessionSweepStats getStats() {
+        return new SessionSweepStats(runs, lastRunAt, lastDeactivated, lastDeleted, lastDurationMillis,
+                totalDeactivated, totalDeleted);
+    }
+
+    /**
+     * Runs the batch statement until it comes back short or the deadline passes. A failing batch ends
+     * this statement's share of the run; the next run starts over.
+     */
+    private long drain(String sql, Timestamp cutoff, Instant deadline, String table) {
+        long affected = 0;
+        while (clock.instant().isBefore(deadline)) {
+            int batch;
+            try {
+                batch = jdbcTemplate.update(sql, cutoff, batchSize);
+            } catch (DataAccessException e) {
+                logger.warn("Session sweep of {} stopped after {} rows", table, affected, e);
+                break;
+            }
+            affected += batch;
+            if (batch < batchSize) {
+                break;
+            }
+        }
+        return affected;
+    }
+
+    private record Dependent(String table, String column) {
+    }
+
+    private record SweptTable(String name, List<Dependent> dependents) {
+
+        String deactivateSql() {
+            return "UPDATE " + name + " SET is_active = false WHERE id IN (SELECT id FROM " + name
+                    + " WHERE is_active AND expires_at < ? LIMIT ? FOR UPDATE SKIP LOCKED)";
+        }
+
+        String deleteSql() {
+            String unreferenced = dependents.stream()
+                    .map(dependent -> " AND NOT EXISTS (SELECT 1 FROM " + dependent.table() + " d WHERE d."
+                            + dependent.column() + " = s.id)")
+                    .collect(Collectors.joining());
+            return "DELETE FROM " + name + " WHERE id IN (SELECT s.id FROM " + name + " s WHERE s.expires_at < ?"
+                    + unreferenced + " LIMIT ? FOR UPDATE OF s SKIP LOCKED)";
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.webstore.backoffice.asserts.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ErrorFingerprintServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private final AtomicLong clock = new AtomicLong();
+    private ErrorFingerprintService errorFingerprintService;
+
+    @BeforeEach
+    void setUp() {
+        errorFingerprintService = new ErrorFingerprintService(jdbcTemplate, Duration.ofMinutes(1), clock::get);
+    }
+
+    @Test
+    void record_SameFailure_ShouldShareFingerprintAndLimitDetails() {
+        // Act
+        ErrorFingerprintService.Occurrence first = errorFingerprintService.record(fail(), "CODE");
+        ErrorFingerprintService.Occurrence second = errorFingerprintService.record(fail(), "CODE");
+        clock.addAndGet(Duration.ofMinutes(1).toNanos());
+        ErrorFingerprintService.Occurrence third = errorFingerprintService.record(fail(), "CODE");
+        ErrorFingerprintService.Occurrence otherCode = errorFingerprintService.record(fail(), "OTHER");
+
+        // Assert
+        assertEquals(first.fingerprint(), second.fingerprint());
+        assertNotEquals(first.fingerprint(), otherCode.fingerprint());
+        assertTrue(first.detailed());
+        assertFalse(second.detailed());
+        assertTrue(third.detailed());
+        assertTrue(otherCode.detailed());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_ShouldUpsertOneRowPerFingerprint() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            errorFingerprintService.record(fail(), "CODE");
+        }
+        errorFingerprintService.record(new IllegalArgumentException(), "CODE");
+
+        // Act
+        errorFingerprintService.flush();
+        errorFingerprintService.flush();
+
+        // Assert
+        ArgumentCaptor<List<Map.Entry<String, ?>>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), batch.capture(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(2, batch.getValue().size());
+    }
+
+    private static IllegalStateException fail() {
+        return new IllegalStateException("boom");
+    }
+}
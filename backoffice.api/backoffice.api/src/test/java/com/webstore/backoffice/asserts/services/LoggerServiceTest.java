@@ -0,0 +1,94 @@
+package com.webstore.backoffice.asserts.services;
+
+import com.webstore.backoffice.asserts.configurations.LogOverflowPolicy;
+import com.webstore.backoffice.asserts.dtos.LogWriterStats;
+import com.webstore.backoffice.crud.models.Log;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoggerServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void flush_ShouldInsertQueuedEntriesInBatches() {
+        // Arrange
+        LoggerService loggerService = newLoggerService(10, LogOverflowPolicy.DROP_OLDEST);
+        for (int i = 0; i < 5; i++) {
+            loggerService.logError(newLog("E" + i));
+        }
+
+        // Act
+        loggerService.flush();
+
+        // Assert
+        verify(jdbcTemplate, times(3)).batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(new LogWriterStats(5, 5, 0, 0, 10), loggerService.getStats());
+    }
+
+    @Test
+    void logError_WhenQueueIsFull_ShouldDropTheOldestEntry() {
+        // Arrange
+        LoggerService loggerService = newLoggerService(2, LogOverflowPolicy.DROP_OLDEST);
+
+        // Act
+        loggerService.logError(newLog("E1"));
+        loggerService.logError(newLog("E2"));
+        loggerService.logError(newLog("E3"));
+
+        // Assert
+        LogWriterStats stats = loggerService.getStats();
+        assertEquals(3, stats.queued());
+        assertEquals(1, stats.dropped());
+        assertEquals(2, stats.pending());
+    }
+
+    @Test
+    void flush_WhenBatchIsRefused_ShouldRetryRowByRow() {
+        // Arrange
+        LoggerService loggerService = newLoggerService(10, LogOverflowPolicy.BLOCK);
+        loggerService.logError(newLog("E1"));
+        loggerService.logError(newLog("E2"));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new DataIntegrityViolationException("bad row"));
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class)))
+                .thenReturn(1)
+                .thenThrow(new DataIntegrityViolationException("bad row"));
+
+        // Act
+        loggerService.flush();
+
+        // Assert
+        LogWriterStats stats = loggerService.getStats();
+        assertEquals(1, stats.written());
+        assertEquals(1, stats.dropped());
+    }
+
+    private LoggerService newLoggerService(int capacity, LogOverflowPolicy policy) {
+        return new LoggerService(jdbcTemplate, capacity, 2, Duration.ofSeconds(1), policy, 10, Duration.ZERO);
+    }
+
+    private static Log newLog(String code) {
+        Log log = new Log();
+        log.setStatusCode(code);
+        log.setLogLevel("ERROR");
+        log.setAuditType("ASSERT");
+        log.setShortDescription(code);
+        return log;
+    }
+}
@@ -0,0 +1,263 @@
+package com.webstore.backoffice.crud.configurations;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webstore.backoffice.asserts.configurations.UserError;
+import com.webstore.backoffice.crud.dtos.FilteredRequestParams;
+import com.webstore.backoffice.crud.dtos.KeysetCursor;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaFunction;
+import org.hibernate.query.criteria.JpaOrder;
+import org.hibernate.query.criteria.JpaPredicate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class GenericSpecificationBuilderTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(GenericSpecificationBuilderTest.class);
+
+    private SchemaModel schema;
+    private Root<Object> root;
+    private CriteriaQuery<Object> query;
+    private HibernateCriteriaBuilder cb;
+    private EntityType<Object> model;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        schema = SchemaModel.parse(new ObjectMapper().readTree(getClass().getResourceAsStream("/schemas/users.json")));
+        root = mock(Root.class, withSettings().stubOnly());
+        query = mock(CriteriaQuery.class, withSettings().stubOnly());
+        cb = mock(HibernateCriteriaBuilder.class, withSettings().stubOnly());
+        model = mock(EntityType.class, withSettings().stubOnly());
+        Path<Object> path = mock(Path.class, withSettings().stubOnly());
+        JpaFunction<Object> function = mock(JpaFunction.class, withSettings().stubOnly());
+        JpaPredicate predicate = mock(JpaPredicate.class, withSettings().stubOnly());
+
+        doReturn(model).when(root).getModel();
+        doReturn(Object.class).when(root).getJavaType();
+        doReturn(Set.of()).when(model).getAttributes();
+        doReturn(path).when(root).get(anyString());
+        doReturn(path).when(path).get(anyString());
+        doReturn(path).when(path).as(any());
+        doReturn(function).when(cb).lower(any());
+        doReturn(predicate).when(cb).like(any(Expression.class), anyString());
+        doReturn(predicate).when(cb).ilike(any(Expression.class), anyString(), anyChar());
+        doReturn(function).when(cb).function(anyString(), any(), any(Expression[].class));
+        doReturn(predicate).when(cb).isTrue(any());
+        doReturn(predicate).when(cb).or(any(Expression.class), any(Expression.class));
+        doReturn(predicate).when(cb).equal(any(Expression.class), any(Object.class));
+        doReturn(predicate).when(cb).and(any(jakarta.persistence.criteria.Predicate[].class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void buildSpecification_ShouldCompileFilterPlanOncePerSchema() {
+        // Arrange
+        GenericSpecificationBuilder<Object> builder = new GenericSpecificationBuilder<>();
+        EntityType<Object> countingModel = mock(EntityType.class);
+        doReturn(Set.of()).when(countingModel).getAttributes();
+        doReturn(countingModel).when(root).getModel();
+
+        // Act
+        specification(builder).toPredicate(root, query, cb);
+        int compileLookups = mockingDetails(countingModel).getInvocations().size();
+        specification(builder).toPredicate(root, query, cb);
+        int afterCachedRequest = mockingDetails(countingModel).getInvocations().size();
+        builder.onSchemaChanged(new SchemaChangedEvent("users"));
+        specification(builder).toPredicate(root, query, cb);
+        int afterInvalidation = mockingDetails(countingModel).getInvocations().size();
+
+        // Assert
+        assertTrue(compileLookups > 0);
+        assertEquals(compileLookups, afterCachedRequest);
+        assertEquals(2 * compileLookups, afterInvalidation);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void buildSpecification_WithRank_ShouldOrderRowQueryByRelevanceFirst() {
+        // Arrange
+        GenericSpecificationBuilder<Object> builder = new GenericSpecificationBuilder<>();
+        FilteredRequestParams params = new FilteredRequestParams();
+        params.setPage(1);
+        params.setPageSize(10);
+        params.setOrderParams(List.of());
+        params.setFilterParams(Map.of("first_name", "ann"));
+        params.setRank(true);
+        Order byRelevance = mock(JpaOrder.class);
+        List<Order> applied = new ArrayList<>();
+        doReturn(Row.class).when(root).getJavaType();
+        doReturn(Row.class).when(query).getResultType();
+        doReturn(byRelevance).when(cb).desc(any(Expression.class));
+        doReturn(mock(JpaOrder.class)).when(cb).asc(any(Expression.class));
+        doAnswer(invocation -> {
+            applied.addAll(invocation.getArgument(0));
+            return query;
+        }).when(query).orderBy(anyList());
+
+        // Act
+        var wrapper = builder.buildSpecification(schema, params);
+        wrapper.getSpecification().toPredicate(root, query, cb);
+
+        // Assert
+        assertTrue(wrapper.getSort().isUnsorted());
+        assertSame(byRelevance, applied.get(0));
+        assertEquals(2, applied.size());
+    }
+
+    @Test
+    void buildSpecification_WithMalformedNumber_ShouldRejectAsUserError() {
+        // Arrange
+        GenericSpecificationBuilder<Object> builder = new GenericSpecificationBuilder<>();
+        FilteredRequestParams params = new FilteredRequestParams();
+        params.setPage(1);
+        params.setPageSize(10);
+        params.setOrderParams(List.of());
+        params.setFilterParams(Map.of("gender_id", "female"));
+        Specification<Object> specification = builder.buildSpecification(schema, params).getSpecification();
+
+        // Act & Assert
+        assertThrows(UserError.class, () -> specification.toPredicate(root, query, cb));
+    }
+
+    @Test
+    void buildSpecification_WithActiveFilter_ShouldRestrictOnlyWhenAsked() {
+        // Arrange
+        GenericSpecificationBuilder<Object> builder = new GenericSpecificationBuilder<>();
+        Path<Object> activePath = mock(Path.class, withSettings().stubOnly());
+        JpaPredicate inactive = mock(JpaPredicate.class, withSettings().stubOnly());
+        JpaPredicate everyRow = mock(JpaPredicate.class, withSettings().stubOnly());
+        doReturn(activePath).when(root).get("isActive");
+        doReturn(inactive).when(cb).equal(activePath, false);
+        doReturn(inactive).when(cb).and(new jakarta.persistence.criteria.Predicate[]{inactive});
+        doReturn(everyRow).when(cb).and();
+        FilteredRequestParams filtered = new FilteredRequestParams();
+        filtered.setPage(1);
+        filtered.setPageSize(10);
+        filtered.setOrderParams(List.of());
+        filtered.setFilterParams(Map.of("is_active", false));
+        FilteredRequestParams unfiltered = new FilteredRequestParams();
+        unfiltered.setPage(1);
+        unfiltered.setPageSize(10);
+        unfiltered.setOrderParams(List.of());
+        unfiltered.setFilterParams(Map.of());
+
+        // Act
+        var restricted = builder.buildSpecification(schema, filtered).getSpecification().toPredicate(root, query, cb);
+        var unrestricted = builder.buildSpecification(schema, unfiltered).getSpecification().toPredicate(root, query, cb);
+
+        // Assert
+        assertSame(inactive, restricted);
+        assertSame(everyRow, unrestricted);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void buildSpecification_WithCursor_ShouldBoundLeadingColumnWithRange() {
+        // Arrange
+        GenericSpecificationBuilder<Object> builder = new GenericSpecificationBuilder<>();
+        FilteredRequestParams params = new FilteredRequestParams();
+        params.setPage(1);
+        params.setPageSize(10);
+        params.setOrderParams(List.of(List.of("email", "asc")));
+        params.setFilterParams(Map.of());
+        params.setAfter(new KeysetCursor(List.of("email:ASC", "id:ASC"), List.of("ann@example.com", "42")).encode());
+        SingularAttribute<Object, String> email = mock(SingularAttribute.class, withSettings().stubOnly());
+        doReturn("email").when(email).getName();
+        doReturn(false).when(email).isOptional();
+        doReturn(Set.of(email)).when(model).getAttributes();
+        Path<String> emailPath = mock(Path.class, withSettings().stubOnly());
+        Path<Object> idPath = mock(Path.class, withSettings().stubOnly());
+        doReturn(String.class).when(emailPath).getJavaType();
+        doReturn(Long.class).when(idPath).getJavaType();
+        doReturn(emailPath).when(root).get("email");
+        doReturn(idPath).when(root).get("id");
+        JpaPredicate range = mock(JpaPredicate.class, withSettings().stubOnly());
+        JpaPredicate seek = mock(JpaPredicate.class, withSettings().stubOnly());
+        JpaPredicate combined = mock(JpaPredicate.class, withSettings().stubOnly());
+        doReturn(range).when(cb).greaterThanOrEqualTo(emailPath, "ann@example.com");
+        doReturn(seek).when(cb).or(any(jakarta.persistence.criteria.Predicate[].class));
+        doReturn(combined).when(cb).and(range, seek);
+
+        // Act
+        var predicate = builder.buildSpecification(schema, params).getSeekSpecification().toPredicate(root, query, cb);
+
+        // Assert
+        assertSame(combined, predicate);
+    }
+
+    /**
+     * Per-request cost of filtering with a plan compiled on every request, which is what the builder did
+     * before plans were cached, against reusing the cached plan.
+     * Run with {@code mvn test -Dtest=GenericSpecificationBuilderTest -Dbenchmark=true}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmark_CompiledPlanAgainstPerRequestCompilation() {
+        GenericSpecificationBuilder<Object> cached = new GenericSpecificationBuilder<>();
+        Result perRequest = measure(() -> new GenericSpecificationBuilder<>());
+        Result reused = measure(() -> cached);
+
+        logger.info("per-request plan: {} bytes/op {} ns/op", perRequest.bytes(), perRequest.nanos());
+        logger.info("cached plan: {} bytes/op {} ns/op", reused.bytes(), reused.nanos());
+        assertTrue(reused.bytes() < perRequest.bytes());
+        assertTrue(reused.nanos() < perRequest.nanos());
+    }
+
+    private Result measure(Supplier<GenericSpecificationBuilder<Object>> builders) {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        int warmup = 20_000;
+        int iterations = 100_000;
+        for (int i = 0; i < warmup; i++) {
+            specification(builders.get()).toPredicate(root, query, cb);
+        }
+        long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            specification(builders.get()).toPredicate(root, query, cb);
+        }
+        long nanos = System.nanoTime() - start;
+        long bytes = threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+        return new Result(bytes / iterations, nanos / iterations);
+    }
+
+    private Specification<Object> specification(GenericSpecificationBuilder<Object> builder) {
+        FilteredRequestParams params = new FilteredRequestParams();
+        params.setPage(1);
+        params.setPageSize(10);
+        params.setOrderParams(List.of());
+        params.setFilterParams(Map.of("first_name", "ann", "email", "example", "gender_id", 2));
+        return builder.buildSpecification(schema, params).getSpecification();
+    }
+
+    private record Result(long bytes, long nanos) {
+    }
+
+    private static class Row {
+        private Long id;
+    }
+}
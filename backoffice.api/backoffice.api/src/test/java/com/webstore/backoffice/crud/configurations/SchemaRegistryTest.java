@@ -0,0 +1,125 @@
+package com.webstore.backoffice.crud.configurations;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class SchemaRegistryTest {
+
+    @TempDir
+    Path watchDir;
+
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private SchemaRegistry registry;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (registry != null) {
+            registry.close();
+        }
+    }
+
+    @Test
+    void getSchema_ShouldShareOneParsedModel() throws Exception {
+        // Arrange
+        registry = new SchemaRegistry(eventPublisher, "");
+        registry.init();
+
+        // Act
+        SchemaModel first = registry.getSchema("users");
+        SchemaModel second = registry.getSchema("users");
+
+        // Assert
+        assertSame(first, second);
+        assertEquals("backoffice_users_view", first.getViews());
+        assertEquals("date-time-no-year", first.getProperty("birth_date").getFormat());
+        assertEquals("Birth Date", first.getProperty("birth_date").getLabel());
+        assertNotSame(registry.getRawSchema("users"), registry.getRawSchema("users"));
+    }
+
+    @Test
+    void reload_ShouldSwapModelAndPublishEvent() throws Exception {
+        // Arrange
+        Path file = watchDir.resolve("users.json");
+        Files.writeString(file, "{\"name\": \"users\", \"views\": \"users_view\", \"properties\": {}}");
+        registry = new SchemaRegistry(eventPublisher, watchDir.toString());
+        registry.init();
+        SchemaModel loaded = registry.getSchema("users");
+
+        // Act
+        Files.writeString(file, "{\"name\": \"users\", \"properties\": {}}");
+        registry.reload(file);
+
+        // Assert
+        assertNotSame(loaded, registry.getSchema("users"));
+        assertNull(registry.getSchema("users").getViews());
+        assertEquals("users_view", loaded.getViews());
+        // the watcher thread may pick up the same write, so it can be announced twice
+        verify(eventPublisher, atLeastOnce()).publishEvent(argThat((Object event) ->
+                event instanceof SchemaChangedEvent changed && changed.getSchemaName().equals("users")));
+    }
+
+    @Test
+    void reload_WithMalformedFile_ShouldKeepPreviousModel() throws Exception {
+        // Arrange
+        registry = new SchemaRegistry(eventPublisher, watchDir.toString());
+        registry.init();
+        SchemaModel bundled = registry.getSchema("products");
+        Path file = watchDir.resolve("products.json");
+        Files.writeString(file, "{\"name\": \"products\", ");
+
+        // Act
+        registry.reload(file);
+
+        // Assert
+        assertSame(bundled, registry.getSchema("products"));
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void revert_WhenOverrideDeleted_ShouldServeBundledSchema() throws Exception {
+        // Arrange
+        Path file = watchDir.resolve("products.json");
+        Files.writeString(file, "{\"name\": \"products\", \"properties\": {}}");
+        registry = new SchemaRegistry(eventPublisher, watchDir.toString());
+        registry.init();
+        assertNull(registry.getSchema("products").getViews());
+
+        // Act
+        Files.delete(file);
+        registry.revert(file);
+
+        // Assert
+        assertEquals("products_view", registry.getSchema("products").getViews());
+        verify(eventPublisher, atLeastOnce()).publishEvent(argThat((Object event) ->
+                event instanceof SchemaChangedEvent changed && changed.getSchemaName().equals("products")));
+    }
+
+    @Test
+    void revert_WhenOnlyOverrideDefinedSchema_ShouldDropIt() throws Exception {
+        // Arrange
+        Path file = watchDir.resolve("drafts.json");
+        Files.writeString(file, "{\"name\": \"drafts\", \"properties\": {}}");
+        registry = new SchemaRegistry(eventPublisher, watchDir.toString());
+        registry.init();
+        assertNotNull(registry.getSchema("drafts"));
+
+        // Act
+        Files.delete(file);
+        registry.revert(file);
+
+        // Assert
+        assertNull(registry.getSchema("drafts"));
+        assertNull(registry.getRawSchema("drafts"));
+        assertNotNull(registry.getSchema("users"));
+    }
+}
@@ -0,0 +1,119 @@
+package com.webstore.backoffice.crud.controllers;
+
+import com.webstore.backoffice.crud.dtos.UserDto;
+import com.webstore.backoffice.crud.services.UserService;
+import com.webstore.backoffice.security.configurations.CustomUserDetails;
+import com.webstore.backoffice.security.configurations.MatrixPermissionEvaluator;
+import com.webstore.backoffice.security.dtos.PermissionMatrix;
+import com.webstore.backoffice.security.dtos.PermissionMatrix.Grant;
+import com.webstore.backoffice.security.dtos.PermissionMatrix.PermissionEntry;
+import com.webstore.backoffice.security.dtos.SessionPrincipal;
+import com.webstore.backoffice.security.services.PermissionMatrixService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig(GenericControllerSecurityTest.Config.class)
+class GenericControllerSecurityTest {
+
+    private static final long ADMIN_ID = 10L;
+
+    @Autowired
+    private UserController controller;
+
+    @MockitoBean
+    private UserService userService;
+
+    @MockitoBean
+    private PermissionMatrixService permissionMatrixService;
+
+    @BeforeEach
+    void setUp() {
+        List<PermissionEntry> permissions = List.of(
+                new PermissionEntry(1, "users", "read"),
+                new PermissionEntry(2, "users", "delete"),
+                new PermissionEntry(3, "products", "delete"));
+        when(permissionMatrixService.getMatrix())
+                .thenReturn(PermissionMatrix.compile(1, permissions, List.of(new Grant(ADMIN_ID, 1))));
+        when(userService.findById(1L)).thenReturn(new UserDto());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void getById_WithReadGrant_ShouldReachTheService() {
+        // Arrange
+        authenticate(ADMIN_ID);
+
+        // Act
+        controller.getById(1L);
+
+        // Assert
+        verify(userService).findById(1L);
+    }
+
+    @Test
+    void delete_WithoutDeleteGrantOnTheControllersInterface_ShouldBeDenied() {
+        // Arrange
+        authenticate(ADMIN_ID);
+
+        // Act & Assert
+        assertThrows(AccessDeniedException.class, () -> controller.delete(1L));
+        verify(userService, never()).delete(1L);
+    }
+
+    @Test
+    void getById_WithoutAdminUser_ShouldBeDenied() {
+        // Arrange
+        authenticate(null);
+
+        // Act & Assert
+        assertThrows(AccessDeniedException.class, () -> controller.getById(1L));
+        verify(userService, never()).findById(1L);
+    }
+
+    private static void authenticate(Long adminUserId) {
+        SessionPrincipal session = new SessionPrincipal(1L, UUID.randomUUID(), adminUserId, "Admin",
+                Instant.now().plusSeconds(600), List.of(), null);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new CustomUserDetails(session), null, session.authorities()));
+    }
+
+    @Configuration
+    @EnableMethodSecurity
+    static class Config {
+
+        @Bean
+        static MethodSecurityExpressionHandler methodSecurityExpressionHandler(PermissionMatrixService permissionMatrixService) {
+            DefaultMethodSecurityExpressionHandler handler = new DefaultMethodSecurityExpressionHandler();
+            handler.setPermissionEvaluator(new MatrixPermissionEvaluator(permissionMatrixService));
+            return handler;
+        }
+
+        @Bean
+        UserController userController(UserService userService) {
+            return new UserController(userService);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.webstore.backoffice.crud.controllers;
+
+import com.webstore.backoffice.crud.constants.ImageVariant;
+import com.webstore.backoffice.crud.services.ImageProcessingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImageControllerTest {
+
+    @Mock
+    private ImageProcessingService imageProcessingService;
+
+    @TempDir
+    Path uploadDir;
+
+    private ImageController imageController;
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        imageController = new ImageController(imageProcessingService);
+        file = Files.write(uploadDir.resolve("abc123.png"), "0123456789".getBytes());
+        when(imageProcessingService.isStoredFileName("abc123.png")).thenReturn(true);
+    }
+
+    @Test
+    void serve_WhenEtagMatches_ShouldReturnNotModifiedWithoutOpeningTheFile() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/images/abc123.png");
+        request.addHeader("If-None-Match", "\"abc123\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        imageController.serve("abc123.png", request, response);
+
+        // Assert
+        assertEquals(304, response.getStatus());
+        assertEquals("\"abc123\"", response.getHeader("ETag"));
+        assertTrue(response.getHeader("Cache-Control").contains("immutable"));
+        verify(imageProcessingService, never()).findStored(anyString());
+    }
+
+    @Test
+    void serveVariant_WhenVariantIsPending_ShouldServeTheOriginalWithoutCachingItForGood() throws Exception {
+        // Arrange
+        when(imageProcessingService.findVariant("abc123.png", ImageVariant.THUMBNAIL)).thenReturn(Optional.of(file));
+        when(imageProcessingService.isVariant(file)).thenReturn(false);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/images/thumb/abc123.png");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        imageController.serveVariant("thumb", "abc123.png", request, response);
+
+        // Assert
+        assertEquals(200, response.getStatus());
+        assertEquals("\"abc123\"", response.getHeader("ETag"));
+        assertEquals("no-cache", response.getHeader("Cache-Control"));
+        assertEquals("0123456789", response.getContentAsString());
+    }
+
+    @Test
+    void serve_WithRange_ShouldReturnPartialContent() throws Exception {
+        // Arrange
+        when(imageProcessingService.findStored("abc123.png")).thenReturn(Optional.of(file));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/images/abc123.png");
+        request.addHeader("Range", "bytes=2-5");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        imageController.serve("abc123.png", request, response);
+
+        // Assert
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 2-5/10", response.getHeader("Content-Range"));
+        assertEquals("2345", response.getContentAsString());
+        assertEquals("image/png", response.getContentType());
+    }
+
+    @Test
+    void serve_WhenContainerSupportsSendfile_ShouldHandTheFileOver() throws Exception {
+        // Arrange
+        when(imageProcessingService.findStored("abc123.png")).thenReturn(Optional.of(file));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/images/abc123.png");
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        imageController.serve("abc123.png", request, response);
+
+        // Assert
+        assertEquals(200, response.getStatus());
+        assertEquals(10, response.getContentLengthLong());
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals(file.toAbsolutePath().toString(), request.getAttribute("org.apache.tomcat.sendfile.filename"));
+        assertEquals(10L, request.getAttribute("org.apache.tomcat.sendfile.end"));
+    }
+}
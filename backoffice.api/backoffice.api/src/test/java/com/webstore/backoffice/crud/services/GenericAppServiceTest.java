@@ -1,34 +1,66 @@
 package com.webstore.backoffice.crud.services;
 
+import com.webstore.backoffice.crud.constants.CountMode;
+import com.webstore.backoffice.crud.constants.CrudConstants;
+import com.webstore.backoffice.crud.constants.ExportFormat;
 import com.webstore.backoffice.crud.dtos.QueryBuildWrapper;
+import com.webstore.backoffice.crud.repositories.SpecificationQueryExecutor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.webstore.backoffice.crud.configurations.GenericSpecificationBuilder;
+import com.webstore.backoffice.crud.configurations.SchemaModel;
 import com.webstore.backoffice.crud.configurations.SchemaRegistry;
+import com.webstore.backoffice.asserts.configurations.UserError;
+import com.webstore.backoffice.crud.dtos.ActivationRequest;
 import com.webstore.backoffice.crud.dtos.BaseDto;
+import com.webstore.backoffice.crud.dtos.BulkItemResult;
+import com.webstore.backoffice.crud.dtos.BulkResult;
 import com.webstore.backoffice.crud.dtos.PaginatedResponse;
 import com.webstore.backoffice.crud.models.BaseEntity;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.validation.Validation;
+import jakarta.validation.constraints.NotNull;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
-
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -42,12 +74,17 @@ class GenericAppServiceTest {
     private ObjectMapper objectMapper;
     @Mock
     private GenericSpecificationBuilder<TestEntity> specificationBuilder;
+    @Mock
+    private SpecificationQueryExecutor queryExecutor;
 
     private TestService service;
 
     @BeforeEach
     void setUp() {
         service = new TestService(repository, schemaRegistry, objectMapper, specificationBuilder);
+        ReflectionTestUtils.setField(service, "queryExecutor", queryExecutor);
+        ReflectionTestUtils.setField(service, "queryResultCache", newQueryResultCache());
+        ReflectionTestUtils.setField(service, "validator", Validation.buildDefaultValidatorFactory().getValidator());
     }
 
     @Test
@@ -65,6 +102,59 @@ class GenericAppServiceTest {
         verify(repository).save(any());
     }
 
+    @Test
+    void createAll_ShouldFlushOncePerBatch() {
+        // Arrange
+        List<TestDto> dtos = new ArrayList<>();
+        for (int i = 0; i < CrudConstants.BULK_BATCH_SIZE * 2 + 1; i++) {
+            dtos.add(new TestDto());
+        }
+        when(repository.save(any())).thenReturn(new TestEntity());
+
+        // Act
+        BulkResult<TestDto> result = service.createAll(dtos);
+
+        // Assert
+        assertEquals(dtos.size(), result.succeeded());
+        assertEquals(0, result.failed());
+        assertTrue(result.items().stream().allMatch(item -> item.status() == BulkItemResult.Status.CREATED));
+        verify(repository, times(dtos.size())).save(any());
+        verify(queryExecutor, times(3)).flush();
+        verify(queryExecutor, times(3)).clear();
+    }
+
+    @Test
+    void createAll_WhenAnyItemInvalid_ShouldWriteNothing() {
+        // Arrange
+        TestDto invalid = new TestDto();
+        invalid.setCode(null);
+
+        // Act
+        BulkResult<TestDto> result = service.createAll(List.of(new TestDto(), invalid));
+
+        // Assert
+        assertEquals(0, result.succeeded());
+        assertEquals(1, result.failed());
+        assertEquals(BulkItemResult.Status.SKIPPED, result.items().get(0).status());
+        assertEquals(BulkItemResult.Status.INVALID, result.items().get(1).status());
+        assertTrue(result.items().get(1).errors().containsKey("code"));
+        verify(repository, never()).save(any());
+        verify(queryExecutor, never()).flush();
+    }
+
+    @Test
+    void updateAll_WhenIdMissing_ShouldReportNotFoundAndWriteNothing() {
+        // Arrange
+        when(queryExecutor.findExistingIds(TestEntity.class, Long.class, List.of(1L))).thenReturn(List.of());
+
+        // Act
+        BulkResult<TestDto> result = service.updateAll(List.of(new TestDto()));
+
+        // Assert
+        assertEquals(BulkItemResult.Status.NOT_FOUND, result.items().get(0).status());
+        verify(repository, never()).save(any());
+    }
+
     @Test
     void findById_WhenExists_ShouldReturnDto() {
         // Arrange
@@ -107,6 +197,164 @@ class GenericAppServiceTest {
         verify(repository).save(entity);
     }
 
+    @Test
+    void update_WhenRowInactive_ShouldKeepItInactive() {
+        // Arrange
+        TestEntity stored = new TestEntity();
+        stored.setActive(false);
+        when(repository.findById(1L)).thenReturn(Optional.of(stored));
+        when(repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        service.update(1L, new TestDto());
+
+        // Assert
+        ArgumentCaptor<TestEntity> saved = ArgumentCaptor.forClass(TestEntity.class);
+        verify(repository).save(saved.capture());
+        assertFalse(saved.getValue().isActive());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void setActive_WithIds_ShouldIssueOneUpdateForTypedIds() {
+        // Arrange
+        ArgumentCaptor<Specification<TestEntity>> captor = ArgumentCaptor.forClass(Specification.class);
+        when(queryExecutor.updateActive(eq(TestEntity.class), captor.capture(), isNull(), isNull(), eq(false)))
+                .thenReturn(2);
+
+        // Act
+        int affected = service.setActive(new ActivationRequest(List.of(1, 2), null), false);
+
+        // Assert
+        assertEquals(2, affected);
+        Root<TestEntity> root = mock(Root.class);
+        Path<Object> id = mock(Path.class);
+        doReturn(id).when(root).get("id");
+        captor.getValue().toPredicate(root, null, mock(CriteriaBuilder.class));
+        verify(id).in(List.of(1L, 2L));
+        verifyNoInteractions(repository, specificationBuilder);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void setActive_WithFilters_ShouldSelectIdsFromDeclaredView() throws Exception {
+        // Arrange
+        Specification<TestView> filters = mock(Specification.class);
+        TestService viewService = new TestService(repository, schemaRegistry, objectMapper, specificationBuilder) {
+            @Override
+            protected Function<Object, TestDto> getViewRowConverter() {
+                return row -> new TestDto();
+            }
+        };
+        ReflectionTestUtils.setField(viewService, "queryExecutor", queryExecutor);
+        ReflectionTestUtils.setField(viewService, "queryResultCache", newQueryResultCache());
+        Map<String, Object> filterParams = Map.of("categories", List.of("Shoes"));
+
+        when(schemaRegistry.getSchema(anyString())).thenReturn(schema("{\"views\": \"test_view\"}"));
+        doReturn(TestView.class).when(queryExecutor).findEntityClass("test_view");
+        doReturn(filters).when(specificationBuilder).buildRestrictingSpecification(any(SchemaModel.class), eq(filterParams));
+        doReturn(3).when(queryExecutor).updateActive(eq(TestEntity.class), isNull(), eq(TestView.class), same(filters), eq(false));
+
+        // Act
+        int affected = viewService.setActive(new ActivationRequest(null, filterParams), false);
+
+        // Assert
+        assertEquals(3, affected);
+    }
+
+    @Test
+    void setActive_WithoutIdsOrFilters_ShouldRejectRequest() {
+        // Act & Assert
+        assertThrows(UserError.class, () -> service.setActive(new ActivationRequest(List.of(), Map.of()), false));
+        verifyNoInteractions(queryExecutor);
+    }
+
+    @Test
+    void patch_ShouldApplyOnlySentFieldsToManagedEntity() throws Exception {
+        // Arrange
+        TestService patchService = newPatchService();
+        TestEntity entity = new TestEntity();
+        when(repository.findById(1L)).thenReturn(Optional.of(entity));
+        when(schemaRegistry.getSchema(anyString())).thenReturn(schema("{\"properties\":{\"name\":{\"type\":\"string\"}}}"));
+        when(queryExecutor.findBasicAttributes(TestEntity.class)).thenReturn(Map.of("name", String.class, "code", String.class));
+        when(repository.saveAndFlush(entity)).thenReturn(entity);
+
+        // Act
+        TestDto result = patchService.patch(1L, new ObjectMapper().readTree("{\"name\":\"changed\"}"));
+
+        // Assert
+        assertNotNull(result);
+        assertEquals("changed", ReflectionTestUtils.getField(entity, "name"));
+        assertEquals("code", ReflectionTestUtils.getField(entity, "code"));
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void patch_WhenFieldNotInSchema_ShouldRejectAndNotWrite() throws Exception {
+        // Arrange
+        TestService patchService = newPatchService();
+        when(repository.findById(1L)).thenReturn(Optional.of(new TestEntity()));
+        when(schemaRegistry.getSchema(anyString())).thenReturn(schema("{\"properties\":{\"name\":{\"type\":\"string\"}}}"));
+        when(queryExecutor.findBasicAttributes(TestEntity.class)).thenReturn(Map.of("name", String.class, "code", String.class));
+
+        // Act & Assert
+        assertThrows(UserError.class, () -> patchService.patch(1L, new ObjectMapper().readTree("{\"code\":\"x\"}")));
+        verify(repository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void patch_WhenResultInvalid_ShouldRejectAndNotWrite() throws Exception {
+        // Arrange
+        TestService patchService = newPatchService();
+        when(repository.findById(1L)).thenReturn(Optional.of(new TestEntity()));
+        when(schemaRegistry.getSchema(anyString())).thenReturn(schema("{\"properties\":{\"name\":{\"type\":\"string\"}}}"));
+        when(queryExecutor.findBasicAttributes(TestEntity.class)).thenReturn(Map.of("name", String.class));
+
+        // Act & Assert
+        assertThrows(UserError.class, () -> patchService.patch(1L, new ObjectMapper().readTree("{\"name\":null}")));
+        verify(repository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void patch_WhenValueHasWrongType_ShouldRejectAsUserError() throws Exception {
+        // Arrange
+        TestService patchService = newPatchService();
+        when(repository.findById(1L)).thenReturn(Optional.of(new TestEntity()));
+        when(schemaRegistry.getSchema(anyString())).thenReturn(schema("{\"properties\":{\"count\":{\"type\":\"integer\"}}}"));
+        when(queryExecutor.findBasicAttributes(TestEntity.class)).thenReturn(Map.of("count", Long.class));
+
+        // Act
+        UserError error = assertThrows(UserError.class,
+                () -> patchService.patch(1L, new ObjectMapper().readTree("{\"count\":\"abc\"}")));
+
+        // Assert
+        assertTrue(error.getMessage().contains("count=" + CrudConstants.INVALID_FIELD_TYPE));
+        verify(repository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void patch_WhenBodyNotObject_ShouldRejectBeforeLoading() throws Exception {
+        // Arrange
+        TestService patchService = newPatchService();
+
+        // Act & Assert
+        assertThrows(UserError.class, () -> patchService.patch(1L, new ObjectMapper().readTree("[\"name\"]")));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void patch_WhenDtoInvalid_ShouldRejectAndNotWrite() throws Exception {
+        // Arrange
+        TestService patchService = newPatchService();
+        when(repository.findById(1L)).thenReturn(Optional.of(new TestEntity()));
+        when(schemaRegistry.getSchema(anyString())).thenReturn(schema("{\"properties\":{\"code\":{\"type\":\"string\"}}}"));
+        when(queryExecutor.findBasicAttributes(TestEntity.class)).thenReturn(Map.of("code", String.class));
+
+        // Act & Assert
+        assertThrows(UserError.class, () -> patchService.patch(1L, new ObjectMapper().readTree("{\"code\":null}")));
+        verify(repository, never()).saveAndFlush(any());
+    }
+
     @Test
     void update_ShouldUpdateAndReturnDto() {
         // Arrange
@@ -135,9 +383,9 @@ class GenericAppServiceTest {
         TestEntity entity = new TestEntity();
         Page<TestEntity> page = new PageImpl<>(List.of(entity));
 
-        when(schemaRegistry.getSchema(anyString())).thenReturn(mock(JsonNode.class));
+        when(schemaRegistry.getSchema(anyString())).thenReturn(schema("{}"));
         when(repository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(page);
-        when(specificationBuilder.buildSpecification(any(JsonNode.class), any())).thenReturn(queryWrapper);
+        when(specificationBuilder.buildSpecification(any(SchemaModel.class), any())).thenReturn(queryWrapper);
         // Act
         PaginatedResponse<TestDto> result = service.findAll(params);
 
@@ -147,8 +395,330 @@ class GenericAppServiceTest {
         assertEquals(1, result.getCount());
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void findAll_WhenRepeated_ShouldServeFromCacheUntilWrite() throws Exception {
+        // Arrange
+        Map<String, String> params = new HashMap<>();
+        params.put("page", "1");
+        params.put("pageSize", "10");
+        params.put("orderParams", "[]");
+        when(schemaRegistry.getSchema(anyString())).thenReturn(schema("{}"));
+        when(specificationBuilder.buildSpecification(any(SchemaModel.class), any()))
+                .thenReturn(new QueryBuildWrapper<TestEntity>(mock(), mock(), mock()));
+        when(repository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(new TestEntity())));
+        when(repository.save(any())).thenReturn(new TestEntity());
+
+        // Act
+        PaginatedResponse<TestDto> first = service.findAll(new HashMap<>(params));
+        PaginatedResponse<TestDto> second = service.findAll(new HashMap<>(params));
+        service.create(new TestDto());
+        service.findAll(new HashMap<>(params));
+
+        // Assert
+        assertSame(first, second);
+        verify(repository, times(2)).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void findAll_WithAfterCursor_ShouldSeekAndReturnNextCursor() throws Exception {
+        // Arrange
+        Map<String, String> params = new HashMap<>();
+        params.put("after", "");
+        params.put("pageSize", "2");
+        params.put("filterParams", "{}");
+        params.put("orderParams", "[]");
+        Specification<TestEntity> specification = mock(Specification.class);
+        Sort sort = Sort.by("id");
+        var queryWrapper = new QueryBuildWrapper<TestEntity>(specification, sort, PageRequest.of(0, 2, sort));
+
+        when(schemaRegistry.getSchema(anyString())).thenReturn(schema("{}"));
+        when(specificationBuilder.buildSpecification(any(SchemaModel.class), any())).thenReturn(queryWrapper);
+        when(repository.findBy(eq(specification), any(Function.class)))
+                .thenReturn(List.of(new TestEntity(), new TestEntity(), new TestEntity()));
+        when(repository.count(specification)).thenReturn(5L);
+        when(specificationBuilder.buildCursor(any(), eq(sort))).thenReturn("cursor");
+
+        // Act
+        PaginatedResponse<TestDto> result = service.findAll(params);
+
+        // Assert
+        assertEquals(2, result.getResult().size());
+        assertEquals(5, result.getCount());
+        assertEquals("cursor", result.getNextCursor());
+        verify(repository, never()).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void findAll_PastFirstKeysetPage_ShouldNotCountUnlessAsked() throws Exception {
+        // Arrange
+        Map<String, String> params = new HashMap<>();
+        params.put("after", "WzFd");
+        params.put("pageSize", "2");
+        params.put("filterParams", "{}");
+        params.put("orderParams", "[]");
+        Specification<TestEntity> specification = mock(Specification.class);
+        Sort sort = Sort.by("id");
+        var queryWrapper = new QueryBuildWrapper<TestEntity>(specification, sort, PageRequest.of(0, 2, sort));
+
+        when(schemaRegistry.getSchema(anyString())).thenReturn(schema("{}"));
+        when(specificationBuilder.buildSpecification(any(SchemaModel.class), any())).thenReturn(queryWrapper);
+        when(repository.findBy(eq(specification), any(Function.class))).thenReturn(List.of(new TestEntity()));
+
+        // Act
+        PaginatedResponse<TestDto> result = service.findAll(params);
+
+        // Assert
+        assertEquals(CountMode.NONE, result.getCountMode());
+        assertEquals(PaginatedResponse.COUNT_UNKNOWN, result.getCount());
+        verify(repository, never()).count(any(Specification.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void findAll_WithCountModeNone_ShouldSkipCountAndReportHasNext() throws Exception {
+        // Arrange
+        Map<String, String> params = new HashMap<>();
+        params.put("page", "1");
+        params.put("pageSize", "1");
+        params.put("orderParams", "[]");
+        params.put("countMode", "none");
+        Specification<TestEntity> specification = mock(Specification.class);
+        Sort sort = Sort.by("id");
+        var queryWrapper = new QueryBuildWrapper<TestEntity>(specification, sort, PageRequest.of(0, 1, sort));
+
+        when(schemaRegistry.getSchema(anyString())).thenReturn(schema("{}"));
+        when(specificationBuilder.buildSpecification(any(SchemaModel.class), any())).thenReturn(queryWrapper);
+        when(queryExecutor.findSlice(eq(TestEntity.class), eq(specification), eq(sort), eq(0L), eq(2)))
+                .thenReturn(List.of(new TestEntity(), new TestEntity()));
+
+        // Act
+        PaginatedResponse<TestDto> result = service.findAll(params);
+
+        // Assert
+        assertEquals(1, result.getResult().size());
+        assertTrue(result.getHasNext());
+        assertEquals(CountMode.NONE, result.getCountMode());
+        assertEquals(PaginatedResponse.COUNT_UNKNOWN, result.getCount());
+        verify(repository, never()).count(any(Specification.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void findAll_WithCountModeEstimatedAndFilters_ShouldUseBoundedCount() throws Exception {
+        // Arrange
+        Map<String, String> params = new HashMap<>();
+        params.put("page", "1");
+        params.put("pageSize", "1");
+        params.put("filterParams", "{\"name\":\"a\"}");
+        params.put("orderParams", "[]");
+        params.put("countMode", "estimated");
+        Specification<TestEntity> specification = mock(Specification.class);
+        Sort sort = Sort.by("id");
+        var queryWrapper = new QueryBuildWrapper<TestEntity>(specification, sort, PageRequest.of(0, 1, sort));
+
+        when(objectMapper.readValue(anyString(), any(TypeReference.class)))
+                .thenReturn(Map.of("name", "a"), List.of());
+        when(schemaRegistry.getSchema(anyString())).thenReturn(schema("{}"));
+        when(specificationBuilder.buildSpecification(any(SchemaModel.class), any())).thenReturn(queryWrapper);
+        when(queryExecutor.findSlice(eq(TestEntity.class), eq(specification), eq(sort), eq(0L), eq(2)))
+                .thenReturn(List.of(new TestEntity(), new TestEntity()));
+        when(queryExecutor.countUpTo(TestEntity.class, specification, CrudConstants.COUNT_LIMIT_DEFAULT + 1))
+                .thenReturn(42L);
+
+        // Act
+        PaginatedResponse<TestDto> result = service.findAll(params);
+
+        // Assert
+        assertEquals(42, result.getCount());
+        assertEquals(CountMode.EXACT, result.getCountMode());
+        verify(queryExecutor, never()).estimateRowCount(anyString());
+        verify(repository, never()).count(any(Specification.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void findAll_WithDeclaredView_ShouldReadViewRowsInsteadOfEntity() throws Exception {
+        // Arrange
+        Map<String, String> params = new HashMap<>();
+        params.put("page", "1");
+        params.put("pageSize", "10");
+        params.put("orderParams", "[]");
+        SchemaModel schema = schema("{\"views\": \"test_view\"}");
+        JpaSpecificationExecutor<TestView> viewExecutor = mock(JpaSpecificationExecutor.class);
+        var queryWrapper = new QueryBuildWrapper<TestView>(mock(), mock(), mock());
+        TestService viewService = new TestService(repository, schemaRegistry, objectMapper, specificationBuilder) {
+            @Override
+            protected Function<Object, TestDto> getViewRowConverter() {
+                return row -> new TestDto();
+            }
+        };
+        ReflectionTestUtils.setField(viewService, "queryExecutor", queryExecutor);
+        ReflectionTestUtils.setField(viewService, "queryResultCache", newQueryResultCache());
+
+        when(schemaRegistry.getSchema(anyString())).thenReturn(schema);
+        doReturn(TestView.class).when(queryExecutor).findEntityClass("test_view");
+        doReturn(viewExecutor).when(queryExecutor).executorFor(TestView.class);
+        doReturn(queryWrapper).when(specificationBuilder).buildSpecification(any(SchemaModel.class), any());
+        when(viewExecutor.findAll(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(new TestView(), new TestView())));
+
+        // Act
+        PaginatedResponse<TestDto> result = viewService.findAll(params);
+
+        // Assert
+        assertEquals(2, result.getResult().size());
+        verify(repository, never()).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void findAll_WithBatchFetchPlan_ShouldIssueSameStatementsForAnyPageSize() throws Exception {
+        SchemaModel schema = schema(
+                "{\"fetchPlan\": {\"batch\": [\"categories\", \"images\"]}}");
+        when(schemaRegistry.getSchema(anyString())).thenReturn(schema);
+        when(specificationBuilder.buildSpecification(any(SchemaModel.class), any()))
+                .thenReturn(new QueryBuildWrapper<TestEntity>(mock(), mock(), mock()));
+
+        for (int pageSize : new int[]{1, 50}) {
+            // Arrange
+            clearInvocations(repository, queryExecutor);
+            Map<String, String> params = new HashMap<>();
+            params.put("page", "1");
+            params.put("pageSize", String.valueOf(pageSize));
+            params.put("orderParams", "[]");
+            List<TestEntity> rows = Stream.generate(TestEntity::new).limit(pageSize).toList();
+            when(repository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(new PageImpl<>(rows));
+
+            // Act
+            PaginatedResponse<TestDto> result = service.findAll(params);
+
+            // Assert
+            assertEquals(pageSize, result.getResult().size());
+            verify(repository, times(1)).findAll(any(Specification.class), any(Pageable.class));
+            verify(queryExecutor, times(1)).preload(TestEntity.class, rows, List.of("categories", "images"));
+            verifyNoMoreInteractions(queryExecutor);
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void findAll_WithJoinFetchPlan_ShouldFetchJoinOnlyInRowQuery() throws Exception {
+        // Arrange
+        Map<String, String> params = new HashMap<>();
+        params.put("page", "1");
+        params.put("pageSize", "10");
+        params.put("orderParams", "[]");
+        SchemaModel schema = schema("{\"fetchPlan\": {\"join\": [\"gender\"]}}");
+        Specification<TestEntity> filter = mock(Specification.class);
+        when(schemaRegistry.getSchema(anyString())).thenReturn(schema);
+        when(specificationBuilder.buildSpecification(any(SchemaModel.class), any()))
+                .thenReturn(new QueryBuildWrapper<TestEntity>(filter, mock(), mock()));
+        when(repository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(new PageImpl<>(List.of()));
+
+        // Act
+        service.findAll(params);
+
+        // Assert
+        var captor = ArgumentCaptor.forClass(Specification.class);
+        verify(repository).findAll(captor.capture(), any(Pageable.class));
+        Specification<TestEntity> applied = captor.getValue();
+        Root<TestEntity> root = mock(Root.class);
+        CriteriaQuery<Object> rowQuery = mock(CriteriaQuery.class);
+        CriteriaQuery<Object> countQuery = mock(CriteriaQuery.class);
+        doReturn(TestEntity.class).when(rowQuery).getResultType();
+        doReturn(Long.class).when(countQuery).getResultType();
+
+        applied.toPredicate(root, rowQuery, mock(CriteriaBuilder.class));
+        verify(root).fetch("gender", JoinType.LEFT);
+
+        clearInvocations(root);
+        applied.toPredicate(root, countQuery, mock(CriteriaBuilder.class));
+        verify(root, never()).fetch(anyString(), any(JoinType.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void export_ShouldStreamCsvInChunksInsideReadOnlyTransaction() throws Exception {
+        // Arrange
+        TestService exportService = new TestService(repository, schemaRegistry, new ObjectMapper(), specificationBuilder);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        ReflectionTestUtils.setField(exportService, "queryExecutor", queryExecutor);
+        ReflectionTestUtils.setField(exportService, "transactionManager", transactionManager);
+        Specification<TestEntity> specification = mock(Specification.class);
+        Sort sort = Sort.by("id");
+        int rowCount = CrudConstants.EXPORT_FETCH_SIZE + 1;
+
+        when(schemaRegistry.getSchema(anyString())).thenReturn(schema("{}"));
+        when(specificationBuilder.buildSpecification(any(SchemaModel.class), any()))
+                .thenReturn(new QueryBuildWrapper<TestEntity>(specification, sort, PageRequest.of(0, 1, sort)));
+        when(queryExecutor.stream(TestEntity.class, specification, sort, CrudConstants.EXPORT_FETCH_SIZE))
+                .thenReturn(Stream.generate(TestEntity::new).limit(rowCount));
+
+        // Act
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        exportService.export(new HashMap<>(), ExportFormat.CSV).writeTo(output);
+
+        // Assert
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(rowCount + 1, lines.length);
+        assertEquals("name", lines[0]);
+        assertEquals("\"test, \"\"row\"\"\"", lines[rowCount]);
+        verify(queryExecutor, times(2)).clear();
+        verify(transactionManager).getTransaction(argThat(TransactionDefinition::isReadOnly));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void export_WithBadFilter_ShouldFailBeforeWritingAnything() throws Exception {
+        // Arrange
+        TestService exportService = new TestService(repository, schemaRegistry, new ObjectMapper(), specificationBuilder);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        ReflectionTestUtils.setField(exportService, "queryExecutor", queryExecutor);
+        ReflectionTestUtils.setField(exportService, "transactionManager", transactionManager);
+        Specification<TestEntity> specification = mock(Specification.class);
+        Sort sort = Sort.by("id");
+        Map<String, String> params = new HashMap<>();
+        params.put(CrudConstants.FILTER_PARAM_FILTERS, "{\"price\": {\"min\": \"cheap\"}}");
+
+        when(schemaRegistry.getSchema(anyString())).thenReturn(schema("{}"));
+        when(specificationBuilder.buildSpecification(any(SchemaModel.class), any()))
+                .thenReturn(new QueryBuildWrapper<TestEntity>(specification, sort, PageRequest.of(0, 1, sort)));
+        doThrow(new UserError("Invalid filter value: cheap", new HashMap<>()))
+                .when(queryExecutor).compile(TestEntity.class, specification, sort);
+
+        // Act & Assert
+        assertThrows(UserError.class, () -> exportService.export(params, ExportFormat.CSV));
+        verifyNoInteractions(transactionManager);
+        verify(queryExecutor, never()).stream(any(), any(), any(), anyInt());
+    }
+
     // Test classes
+    private static QueryResultCache newQueryResultCache() {
+        return new QueryResultCache(new ObjectMapper(), 1 << 20, Duration.ofMinutes(1));
+    }
+
+    private TestService newPatchService() {
+        TestService patchService = new TestService(repository, schemaRegistry, new ObjectMapper(), specificationBuilder);
+        ReflectionTestUtils.setField(patchService, "queryExecutor", queryExecutor);
+        ReflectionTestUtils.setField(patchService, "queryResultCache", newQueryResultCache());
+        ReflectionTestUtils.setField(patchService, "validator", Validation.buildDefaultValidatorFactory().getValidator());
+        return patchService;
+    }
+
+    private static SchemaModel schema(String json) throws Exception {
+        return SchemaModel.parse(new ObjectMapper().readTree(json));
+    }
+
     private static class TestEntity extends BaseEntity<Long> {
+        @NotNull
+        private String name = "name";
+        private String code = "code";
+        private Long count;
+
         @Override
         public boolean isValid() {
             return true;
@@ -160,10 +730,16 @@ class GenericAppServiceTest {
         }
     }
 
+    private static class TestView {
+    }
+
     private interface TestRepository extends JpaRepository<TestEntity, Long>, JpaSpecificationExecutor<TestEntity> {
     }
 
     private static class TestDto extends BaseDto<TestEntity> {
+        @NotNull
+        private String code = "code";
+
         @Override
         public TestEntity toDomainEntity() {
             return new TestEntity();
@@ -173,6 +749,14 @@ class GenericAppServiceTest {
         public String getSchemaName() {
             return "testSchema";
         }
+
+        public String getName() {
+            return "test, \"row\"";
+        }
+
+        public void setCode(String code) {
+            this.code = code;
+        }
     }
 
     private static class TestService extends GenericAppService<TestDto, TestEntity, Long> {
@@ -185,7 +769,11 @@ class GenericAppServiceTest {
 
         @Override
         protected TestDto convertToDto(TestEntity entity) {
-            return new TestDto();
+            TestDto dto = new TestDto();
+            if (entity != null) {
+                dto.setCode(entity.code);
+            }
+            return dto;
         }
 
         @Override
@@ -0,0 +1,232 @@
+package com.webstore.backoffice.crud.services;
+
+import com.webstore.backoffice.asserts.configurations.UserError;
+import com.webstore.backoffice.crud.constants.CrudConstants;
+import com.webstore.backoffice.crud.constants.ImageStatus;
+import com.webstore.backoffice.crud.constants.ImageVariant;
+import com.webstore.backoffice.crud.dtos.ImageProcessingStatus;
+import com.webstore.backoffice.crud.dtos.StagedImage;
+import com.webstore.backoffice.crud.models.Image;
+import com.webstore.backoffice.crud.repositories.ImageRepository;
+import com.webstore.backoffice.crud.repositories.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImageProcessingServiceTest {
+
+    @Mock
+    private ImageRepository imageRepository;
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private QueryResultCache queryResultCache;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path uploadDir;
+
+    private final List<Runnable> queued = new ArrayList<>();
+
+    private ImageProcessingService imageProcessingService;
+
+    @BeforeEach
+    void setUp() {
+        imageProcessingService = new ImageProcessingService(imageRepository, productRepository, queryResultCache,
+                transactionManager, uploadDir, uploadDir.resolve(".staging"), 40_000_000, queued::add, queued::add);
+    }
+
+    @Test
+    void submit_WhenContentIsNotAnImage_ShouldReportFailedAndSaveNothing() {
+        // Arrange
+        List<StagedImage> staged = imageProcessingService.stage(new MultipartFile[] {
+                new MockMultipartFile("image", "fake.png", "image/png", "not an image".getBytes())});
+
+        // Act
+        imageProcessingService.submit(1L, staged);
+        assertEquals(ImageStatus.PENDING, imageProcessingService.getStatus(1L).status());
+        queued.forEach(Runnable::run);
+
+        // Assert
+        ImageProcessingStatus status = imageProcessingService.getStatus(1L);
+        assertEquals(ImageStatus.FAILED, status.status());
+        assertEquals(1, status.errors().size());
+        assertFalse(Files.exists(staged.get(0).path()));
+        verify(imageRepository, never()).save(any());
+    }
+
+    @Test
+    void submit_WhenEveryImageFails_ShouldStillInvalidateProducts() {
+        // Arrange
+        List<StagedImage> staged = imageProcessingService.stage(new MultipartFile[] {
+                new MockMultipartFile("image", "fake.png", "image/png", "not an image".getBytes())});
+        imageProcessingService.submit(1L, staged);
+        clearInvocations(queryResultCache);
+
+        // Act
+        queued.forEach(Runnable::run);
+
+        // Assert
+        assertEquals(ImageStatus.FAILED, imageProcessingService.getStatus(1L).status());
+        verify(queryResultCache).invalidate(CrudConstants.PRODUCT_SCHEMA_NAME);
+    }
+
+    @Test
+    void submit_WhenTransactionRollsBack_ShouldDiscardStagedFiles() {
+        // Arrange
+        List<StagedImage> staged = imageProcessingService.stage(new MultipartFile[] {
+                new MockMultipartFile("image", "photo.jpg", "image/jpeg", "content".getBytes())});
+        assertTrue(Files.exists(staged.get(0).path()));
+
+        // Act
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            imageProcessingService.submit(1L, staged);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Assert
+        assertTrue(queued.isEmpty());
+        assertFalse(Files.exists(staged.get(0).path()));
+        assertEquals(ImageStatus.READY, imageProcessingService.getStatus(1L).status());
+    }
+
+    @Test
+    void submit_WhenContentIsAlreadyStored_ShouldReuseTheFile() throws Exception {
+        // Arrange
+        byte[] content = imageBytes();
+        List<StagedImage> first = imageProcessingService.stage(new MultipartFile[] {
+                new MockMultipartFile("image", "a.png", "image/png", content)});
+        List<StagedImage> second = imageProcessingService.stage(new MultipartFile[] {
+                new MockMultipartFile("image", "b.png", "image/png", content)});
+
+        // Act
+        imageProcessingService.submit(1L, first);
+        imageProcessingService.submit(2L, second);
+        queued.forEach(Runnable::run);
+
+        // Assert
+        assertEquals(first.get(0).hash(), second.get(0).hash());
+        ArgumentCaptor<Image> saved = ArgumentCaptor.forClass(Image.class);
+        verify(imageRepository, times(2)).save(saved.capture());
+        assertEquals(saved.getAllValues().get(0).getUrl(), saved.getAllValues().get(1).getUrl());
+        assertEquals("/images/" + first.get(0).hash() + ".png", saved.getAllValues().get(0).getUrl());
+        try (Stream<Path> files = Files.list(uploadDir)) {
+            assertEquals(1, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    void release_ShouldUnlinkOnlyTheLastReference() throws Exception {
+        // Arrange
+        Path file = Files.write(uploadDir.resolve("abc.png"), imageBytes());
+        when(imageRepository.countByUrl("/images/abc.png")).thenReturn(1L, 0L);
+
+        // Act & Assert
+        imageProcessingService.release("/images/abc.png");
+        assertTrue(Files.exists(file));
+        imageProcessingService.release("/images/abc.png");
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void findVariant_ShouldServeTheOriginalAndDownscaleOnceAndDropWithTheLastReference() throws Exception {
+        // Arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(400, 200, BufferedImage.TYPE_INT_RGB), "png", out);
+        Files.write(uploadDir.resolve("abc.png"), out.toByteArray());
+        imageProcessingService = new ImageProcessingService(imageRepository, productRepository, queryResultCache,
+                transactionManager, uploadDir, uploadDir.resolve(".staging"), 40_000_000, queued::add, task -> {
+                    queued.add(task);
+                    task.run();
+                });
+
+        // Act
+        Path first = imageProcessingService.findVariant("abc.png", ImageVariant.THUMBNAIL).orElseThrow();
+        Path thumbnail = imageProcessingService.findVariant("abc.png", ImageVariant.THUMBNAIL).orElseThrow();
+        Path again = imageProcessingService.findVariant("abc.png", ImageVariant.THUMBNAIL).orElseThrow();
+
+        // Assert
+        assertEquals(uploadDir.resolve("abc.png"), first);
+        assertFalse(imageProcessingService.isVariant(first));
+        assertTrue(imageProcessingService.isVariant(thumbnail));
+        BufferedImage scaled = ImageIO.read(thumbnail.toFile());
+        assertEquals(160, scaled.getWidth());
+        assertEquals(80, scaled.getHeight());
+        assertEquals(thumbnail, again);
+        assertEquals(1, queued.size());
+
+        imageProcessingService.release("/images/abc.png");
+        assertFalse(Files.exists(thumbnail));
+    }
+
+    @Test
+    void stage_WhenImageHasTooManyPixels_ShouldRejectBeforeDecodingAndDiscardTheBatch() throws Exception {
+        // Arrange
+        imageProcessingService = new ImageProcessingService(imageRepository, productRepository, queryResultCache,
+                transactionManager, uploadDir, uploadDir.resolve(".staging"), 100, queued::add, queued::add);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(20, 20, BufferedImage.TYPE_INT_RGB), "png", out);
+
+        // Act & Assert
+        assertThrows(UserError.class, () -> imageProcessingService.stage(new MultipartFile[] {
+                new MockMultipartFile("image", "small.png", "image/png", imageBytes()),
+                new MockMultipartFile("image", "large.png", "image/png", out.toByteArray())}));
+        try (Stream<Path> files = Files.list(uploadDir.resolve(".staging"))) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void findVariant_WhenOriginalIsLarge_ShouldDecodeItSubsampled() throws Exception {
+        // Arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(2000, 1000, BufferedImage.TYPE_INT_RGB), "png", out);
+        Files.write(uploadDir.resolve("abc.png"), out.toByteArray());
+        imageProcessingService = new ImageProcessingService(imageRepository, productRepository, queryResultCache,
+                transactionManager, uploadDir, uploadDir.resolve(".staging"), 40_000_000, Runnable::run, Runnable::run);
+
+        // Act
+        imageProcessingService.findVariant("abc.png", ImageVariant.THUMBNAIL);
+        Path thumbnail = imageProcessingService.findVariant("abc.png", ImageVariant.THUMBNAIL).orElseThrow();
+
+        // Assert
+        BufferedImage scaled = ImageIO.read(thumbnail.toFile());
+        assertEquals(160, scaled.getWidth());
+        assertEquals(80, scaled.getHeight());
+    }
+
+    private static byte[] imageBytes() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB), "png", out);
+        return out.toByteArray();
+    }
+}
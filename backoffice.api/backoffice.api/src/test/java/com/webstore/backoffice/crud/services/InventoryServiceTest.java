@@ -0,0 +1,90 @@
+package com.webstore.backoffice.crud.services;
+
+import com.webstore.backoffice.crud.constants.CrudConstants;
+import com.webstore.backoffice.crud.dtos.BulkItemResult;
+import com.webstore.backoffice.crud.dtos.BulkResult;
+import com.webstore.backoffice.crud.dtos.StockAdjustment;
+import com.webstore.backoffice.crud.dtos.StockLevel;
+import com.webstore.backoffice.crud.repositories.InventoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryServiceTest {
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+    @Mock
+    private QueryResultCache queryResultCache;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private InventoryService inventoryService;
+    private SimpleTransactionStatus transaction;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new SimpleTransactionStatus();
+        when(transactionManager.getTransaction(any())).thenReturn(transaction);
+        inventoryService = new InventoryService(inventoryRepository, queryResultCache, transactionManager);
+    }
+
+    @Test
+    void adjust_ShouldApplyDeltasInProductOrderAndInvalidateProducts() {
+        // Arrange
+        when(inventoryRepository.adjustQuantity(2L, -3L)).thenReturn(1);
+        when(inventoryRepository.adjustQuantity(1L, 5L)).thenReturn(1);
+        when(inventoryRepository.findQuantityByProductId(2L)).thenReturn(Optional.of(7L));
+        when(inventoryRepository.findQuantityByProductId(1L)).thenReturn(Optional.of(5L));
+
+        // Act
+        BulkResult<StockLevel> result = inventoryService.adjust(List.of(
+                new StockAdjustment(2L, -3L), new StockAdjustment(1L, 5L)));
+
+        // Assert
+        assertEquals(2, result.succeeded());
+        assertEquals(new StockLevel(2L, 7L), result.items().get(0).item());
+        assertEquals(new StockLevel(1L, 5L), result.items().get(1).item());
+        InOrder order = inOrder(inventoryRepository);
+        order.verify(inventoryRepository).adjustQuantity(1L, 5L);
+        order.verify(inventoryRepository).adjustQuantity(2L, -3L);
+        assertFalse(transaction.isRollbackOnly());
+        verify(queryResultCache).invalidate(CrudConstants.PRODUCT_SCHEMA_NAME);
+    }
+
+    @Test
+    void adjust_WhenStockWouldGoNegative_ShouldRollBackEverything() {
+        // Arrange
+        when(inventoryRepository.adjustQuantity(1L, 5L)).thenReturn(1);
+        when(inventoryRepository.adjustQuantity(2L, -30L)).thenReturn(0);
+        when(inventoryRepository.findQuantityByProductId(1L)).thenReturn(Optional.of(5L));
+        when(inventoryRepository.findQuantityByProductId(2L)).thenReturn(Optional.of(10L));
+
+        // Act
+        BulkResult<StockLevel> result = inventoryService.adjust(List.of(
+                new StockAdjustment(1L, 5L), new StockAdjustment(2L, -30L)));
+
+        // Assert
+        assertEquals(0, result.succeeded());
+        assertEquals(1, result.failed());
+        assertEquals(BulkItemResult.Status.SKIPPED, result.items().get(0).status());
+        assertEquals(BulkItemResult.Status.INVALID, result.items().get(1).status());
+        assertEquals(CrudConstants.INSUFFICIENT_STOCK, result.items().get(1).errors().get("delta"));
+        assertTrue(transaction.isRollbackOnly());
+        verify(queryResultCache, never()).invalidate(anyString());
+    }
+}
@@ -14,6 +14,7 @@ import com.webstore.backoffice.crud.repositories.InventoryRepository;
 import com.webstore.backoffice.crud.repositories.ProductRepository;
 
 import com.webstore.backoffice.security.repositories.AppSettingRepository;
+import com.webstore.backoffice.security.services.AppSettingService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -24,8 +25,12 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.web.multipart.MultipartFile;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.lang.reflect.Method;
 import java.math.BigDecimal;
@@ -64,23 +69,46 @@ public class ProductServiceTest {
     @Mock
     private InventoryRepository inventoryRepository;
 
+    @Mock
+    private QueryResultCache queryResultCache;
+
+    @Mock
+    private com.webstore.backoffice.crud.repositories.ProductRepository imageProductRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     private String tempDir;
 
     @BeforeEach
     void setUp() throws IOException {
+        // Create a temporary directory for testing file operations
+        tempDir = Files.createTempDirectory("test-uploads").toString();
+
+        // images are processed on the calling thread so the tests can verify them synchronously
+        ImageProcessingService imageProcessingService = new ImageProcessingService(
+                imageRepository,
+                imageProductRepository,
+                queryResultCache,
+                transactionManager,
+                Paths.get(tempDir),
+                Paths.get(tempDir, ".staging"),
+                40_000_000,
+                Runnable::run,
+                Runnable::run
+        );
         productService = new ProductService(
                 productRepository,
                 schemaRegistry,
                 objectMapper,
                 specificationBuilder,
                 imageRepository,
-                appSettingRepository,
-                inventoryRepository
+                new AppSettingService(appSettingRepository),
+                inventoryRepository,
+                imageProcessingService
         );
 
-        // Create a temporary directory for testing file operations
-        tempDir = Files.createTempDirectory("test-uploads").toString();
-        ReflectionTestUtils.setField(productService, "uploadDir", tempDir);
+        ReflectionTestUtils.setField(productService, "queryResultCache", queryResultCache);
     }
 
     @Test
@@ -116,6 +144,27 @@ public class ProductServiceTest {
         assertEquals(new BigDecimal("121.00"), result.getPriceWithVat());
     }
 
+    @Test
+    void testConvertToDto_ManyProducts_ShouldReadSettingsOnce() {
+        // Given
+        AppSetting appSetting = new AppSetting();
+        appSetting.setId(1L);
+        appSetting.setVatPercentage(new BigDecimal("20.00"));
+        when(appSettingRepository.findById(1L)).thenReturn(Optional.of(appSetting));
+
+        // When
+        for (int i = 0; i < 50; i++) {
+            Product product = new Product();
+            product.setId((long) i);
+            product.setPrice(new BigDecimal("10.00"));
+            product.setCategories(Set.of());
+            assertEquals(new BigDecimal("12.00"), productService.convertToDto(product).getPriceWithVat());
+        }
+
+        // Then
+        verify(appSettingRepository, times(1)).findById(1L);
+    }
+
     @Test
     void testConvertToDto_WithoutVatPercentage() {
         // Given
@@ -154,9 +203,9 @@ public class ProductServiceTest {
 
         // Prepare test images
         MockMultipartFile file1 = new MockMultipartFile(
-                "image1", "test1.jpg", "image/jpeg", "test image content".getBytes());
+                "image1", "test1.jpg", "image/jpeg", imageBytes("jpg"));
         MockMultipartFile file2 = new MockMultipartFile(
-                "image2", "test2.png", "image/png", "another test image".getBytes());
+                "image2", "test2.png", "image/png", imageBytes("png"));
         MultipartFile[] images = {file1, file2};
         inputDto.setImages(images);
 
@@ -206,7 +255,7 @@ public class ProductServiceTest {
 
         // Mock image to add
         MockMultipartFile file = new MockMultipartFile(
-                "image", "update.jpg", "image/jpeg", "updated image content".getBytes());
+                "image", "update.jpg", "image/jpeg", imageBytes("jpg"));
         MultipartFile[] images = {file};
         inputDto.setImages(images);
 
@@ -252,7 +301,14 @@ public class ProductServiceTest {
 
         // Verify image repository calls
         verify(imageRepository).save(any(Image.class));
-        verify(imageRepository).deleteByUrl("/images/old-image.jpg");
+        verify(imageRepository).deleteByProductIdAndUrl(productId, "/images/old-image.jpg");
+        assertFalse(Files.exists(oldImagePath));
+    }
+
+    private static byte[] imageBytes(String format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB), format, out);
+        return out.toByteArray();
     }
 
     private interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
@@ -0,0 +1,95 @@
+package com.webstore.backoffice.crud.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryResultCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void get_WithSameQueryInAnyKeyOrder_ShouldLoadOnce() {
+        // Arrange
+        QueryResultCache cache = new QueryResultCache(new ObjectMapper(), 1024, Duration.ofSeconds(30), clock::get);
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        cache.get("users", Map.of("a", 1, "b", 2), () -> "page-" + loads.incrementAndGet());
+        String cached = cache.get("users", Map.of("b", 2, "a", 1), () -> "page-" + loads.incrementAndGet());
+
+        // Assert
+        assertEquals("page-1", cached);
+        assertEquals(1, cache.getStats().hits());
+        assertEquals(1, cache.getStats().misses());
+    }
+
+    @Test
+    void get_AfterTtl_ShouldReload() {
+        // Arrange
+        QueryResultCache cache = new QueryResultCache(new ObjectMapper(), 1024, Duration.ofSeconds(30), clock::get);
+        cache.get("users", "q", () -> "old");
+
+        // Act
+        clock.addAndGet(Duration.ofSeconds(31).toNanos());
+        String result = cache.get("users", "q", () -> "new");
+
+        // Assert
+        assertEquals("new", result);
+    }
+
+    @Test
+    void get_OverByteLimit_ShouldEvictLeastRecentlyUsed() {
+        // Arrange: each entry serializes to 12 bytes ("\"xxxxxxxxxx\""), the limit fits two
+        QueryResultCache cache = new QueryResultCache(new ObjectMapper(), 24, Duration.ofSeconds(30), clock::get);
+        cache.get("users", "a", () -> "aaaaaaaaaa");
+        cache.get("users", "b", () -> "bbbbbbbbbb");
+        cache.get("users", "a", () -> "reloaded");
+
+        // Act
+        cache.get("users", "c", () -> "cccccccccc");
+
+        // Assert
+        assertEquals("aaaaaaaaaa", cache.get("users", "a", () -> "reloaded"));
+        assertEquals("reloaded", cache.get("users", "b", () -> "reloaded"));
+        assertTrue(cache.getStats().bytes() <= 24);
+        assertTrue(cache.getStats().evictions() >= 1);
+    }
+
+    @Test
+    void invalidate_ShouldDropOnlyTaggedSchema() {
+        // Arrange
+        QueryResultCache cache = new QueryResultCache(new ObjectMapper(), 1024, Duration.ofSeconds(30), clock::get);
+        cache.get("users", "q", () -> List.of("user"));
+        cache.get("products", "q", () -> List.of("product"));
+
+        // Act
+        cache.invalidate("users");
+
+        // Assert
+        assertEquals(List.of("reloaded"), cache.get("users", "q", () -> List.of("reloaded")));
+        assertEquals(List.of("product"), cache.get("products", "q", () -> List.of("reloaded")));
+    }
+
+    @Test
+    void get_WhenInvalidatedWhileLoading_ShouldNotStoreResult() {
+        // Arrange
+        QueryResultCache cache = new QueryResultCache(new ObjectMapper(), 1024, Duration.ofSeconds(30), clock::get);
+
+        // Act
+        cache.get("users", "q", () -> {
+            cache.invalidate("users");
+            return "before-write";
+        });
+
+        // Assert
+        assertEquals("after-write", cache.get("users", "q", () -> "after-write"));
+    }
+}
@@ -9,15 +9,21 @@ import com.webstore.backoffice.crud.mappers.UserMapper;
 import com.webstore.backoffice.crud.models.User;
 
 import com.webstore.backoffice.crud.repositories.UserRepository;
+import com.webstore.backoffice.asserts.configurations.UserError;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -36,6 +42,8 @@ class UserServiceTest {
     private BCryptPasswordEncoder bCryptPasswordEncoder;
     @Mock
     private UserMapper userMapper;
+    @Mock
+    private QueryResultCache queryResultCache;
 
     private UserService userService;
 
@@ -50,6 +58,7 @@ class UserServiceTest {
                 userRepository,
                 userMapper
         );
+        ReflectionTestUtils.setField(userService, "queryResultCache", queryResultCache);
     }
 
     @Test
@@ -109,6 +118,33 @@ class UserServiceTest {
         verify(userRepository).save(any(User.class));
     }
 
+    @Test
+    void update_WhenUserInactive_ShouldKeepItInactive() {
+        // Arrange
+        User stored = new User();
+        stored.setIsActive(false);
+        User mapped = new User();
+        when(bCryptPasswordEncoder.encode(any())).thenReturn("encodedPassword");
+        when(userMapper.toDomainEntity(any(UserDto.class))).thenReturn(mapped);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(stored));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        UserDto result = userService.update(1L, new UserDto());
+
+        // Assert
+        assertFalse(mapped.getIsActive());
+        assertFalse(result.getIsActive());
+    }
+
+    @Test
+    void patch_WhenPasswordNotString_ShouldRejectWithoutStoringIt() throws Exception {
+        // Act & Assert
+        assertThrows(UserError.class,
+                () -> userService.patch(1L, new ObjectMapper().readTree("{\"password_hash\":12345678}")));
+        verifyNoInteractions(bCryptPasswordEncoder, userRepository);
+    }
+
     @Test
     void create_ShouldCreateUserAndEncodePassword() {
         // Arrange
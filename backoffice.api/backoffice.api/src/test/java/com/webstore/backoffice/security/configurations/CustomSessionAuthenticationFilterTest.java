@@ -0,0 +1,89 @@
+package com.webstore.backoffice.security.configurations;
+
+import com.webstore.backoffice.security.dtos.SessionPrincipal;
+import com.webstore.backoffice.security.services.AnonymousSessionTokens;
+import com.webstore.backoffice.security.services.AuthService;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CustomSessionAuthenticationFilterTest {
+
+    private static final String SESSION_COOKIE = "admin_session_id";
+    private static final String ANONYMOUS_COOKIE = "admin_anonymous_session";
+
+    @Mock
+    private AuthService authService;
+
+    private AnonymousSessionTokens anonymousSessionTokens;
+    private CustomSessionAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        anonymousSessionTokens = new AnonymousSessionTokens("secret", Duration.ofMinutes(40));
+        filter = new CustomSessionAuthenticationFilter(authService, anonymousSessionTokens, SESSION_COOKIE,
+                ANONYMOUS_COOKIE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_WithoutCookies_ShouldIssueAnonymousCookieAndLeaveTheSessionCookieAlone() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/crud/products");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(request, response, new MockFilterChain());
+
+        // Assert
+        assertNull(response.getCookie(SESSION_COOKIE));
+        Cookie anonymous = response.getCookie(ANONYMOUS_COOKIE);
+        assertNotNull(anonymous);
+        assertTrue(anonymousSessionTokens.verify(anonymous.getValue()).isPresent());
+        verifyNoInteractions(authService);
+    }
+
+    @Test
+    void doFilter_WithNodeSession_ShouldAuthenticateItAndSetNoCookie() throws Exception {
+        // Arrange
+        UUID hash = UUID.randomUUID();
+        SessionPrincipal principal = new SessionPrincipal(1L, hash, 2L, "Admin",
+                Instant.now().plusSeconds(600), List.of(), null);
+        when(authService.getValidPrincipal(hash)).thenReturn(Optional.of(principal));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/crud/products");
+        request.setCookies(new Cookie(SESSION_COOKIE, hash.toString()),
+                new Cookie(ANONYMOUS_COOKIE, anonymousSessionTokens.issue(null)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(request, response, (req, res) -> assertNotNull(
+                SecurityContextHolder.getContext().getAuthentication()));
+
+        // Assert
+        assertEquals(0, response.getCookies().length);
+        verify(authService).getValidPrincipal(any(UUID.class));
+    }
+}
@@ -0,0 +1,123 @@
+package com.webstore.backoffice.security.configurations;
+
+import com.webstore.backoffice.security.dtos.AppSettingSnapshot;
+import com.webstore.backoffice.security.dtos.SessionPrincipal;
+import com.webstore.backoffice.security.services.AppSettingService;
+import com.webstore.backoffice.security.services.AuthService;
+import com.webstore.backoffice.security.services.RequestRateLimiter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitFilterTest {
+
+    private static final AppSettingSnapshot ONE_PER_MINUTE = new AppSettingSnapshot(1, BigDecimal.ZERO, 10, 1000,
+            1, Duration.ofMinutes(1), Duration.ofMinutes(1));
+
+    @Mock
+    private AppSettingService appSettingService;
+
+    @Mock
+    private AuthService authService;
+
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        when(appSettingService.getSnapshot()).thenReturn(ONE_PER_MINUTE);
+        filter = new RateLimitFilter(new RequestRateLimiter(appSettingService, 100), authService, List.of());
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_WithoutPersistedSession_ShouldLimitPerClientAddress() throws Exception {
+        // Act
+        int first = call(SessionPrincipal.anonymous(UUID.randomUUID(), Instant.now().plusSeconds(60)));
+        int freshToken = call(SessionPrincipal.anonymous(UUID.randomUUID(), Instant.now().plusSeconds(60)));
+        int withoutToken = call(null);
+
+        // Assert
+        assertEquals(HttpStatus.OK.value(), first);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), freshToken);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), withoutToken);
+        verifyNoInteractions(authService);
+    }
+
+    @Test
+    void doFilter_WhenSessionIsBlocked_ShouldRecordTheBlockOnItsRow() throws Exception {
+        // Arrange
+        SessionPrincipal session = persisted(null);
+
+        // Act
+        int first = call(session);
+        int second = call(session);
+
+        // Assert
+        assertEquals(HttpStatus.OK.value(), first);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), second);
+        verify(authService).blockApiUntil(eq(session.sessionHash()), any(Instant.class));
+    }
+
+    @Test
+    void doFilter_WhenRowCarriesBlock_ShouldRejectWithoutTakingFromTheBucket() throws Exception {
+        // Arrange
+        SessionPrincipal blocked = persisted(Instant.now().plusSeconds(90));
+
+        // Act
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        int status = call(blocked, response);
+        int afterBlock = call(persisted(Instant.now().minusSeconds(1)));
+
+        // Assert
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), status);
+        assertTrue(Long.parseLong(response.getHeader("Retry-After")) > 60);
+        assertEquals(HttpStatus.OK.value(), afterBlock);
+    }
+
+    private static SessionPrincipal persisted(Instant apiBlockedUntil) {
+        return new SessionPrincipal(1L, UUID.randomUUID(), 2L, "Admin", Instant.now().plusSeconds(600), List.of(),
+                apiBlockedUntil);
+    }
+
+    private int call(SessionPrincipal session) throws Exception {
+        return call(session, new MockHttpServletResponse());
+    }
+
+    private int call(SessionPrincipal session, MockHttpServletResponse response) throws Exception {
+        SecurityContextHolder.clearContext();
+        if (session != null) {
+            CustomUserDetails userDetails = new CustomUserDetails(session);
+            SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+        }
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/crud/products");
+        request.setRemoteAddr("10.0.0.1");
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+}
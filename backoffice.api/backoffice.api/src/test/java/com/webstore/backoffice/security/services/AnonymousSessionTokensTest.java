@@ -0,0 +1,65 @@
+package com.webstore.backoffice.security.services;
+
+import com.webstore.backoffice.security.dtos.SessionPrincipal;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnonymousSessionTokensTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+    private static final byte[] SECRET = "test-secret".getBytes(StandardCharsets.UTF_8);
+
+    private final AnonymousSessionTokens tokens =
+            new AnonymousSessionTokens(SECRET, Duration.ofMinutes(60), Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @Test
+    void verify_IssuedToken_ShouldYieldAnonymousPrincipal() {
+        // Arrange
+        UUID hash = UUID.randomUUID();
+
+        // Act
+        Optional<SessionPrincipal> principal = tokens.verify(tokens.issue(hash));
+
+        // Assert
+        assertTrue(principal.isPresent());
+        assertEquals(hash, principal.get().sessionHash());
+        assertFalse(principal.get().isPersisted());
+        assertEquals(NOW.plusSeconds(3600), principal.get().expiresAt());
+    }
+
+    @Test
+    void verify_TamperedOrMalformedToken_ShouldBeEmpty() {
+        // Arrange
+        String token = tokens.issue(UUID.randomUUID());
+        String otherHash = AnonymousSessionTokens.PREFIX + UUID.randomUUID() + token.substring(token.indexOf('.', 2));
+
+        // Act & Assert
+        assertTrue(tokens.verify(otherHash).isEmpty());
+        assertTrue(tokens.verify(token.substring(0, token.length() - 1) + "x").isEmpty());
+        assertTrue(tokens.verify("a.").isEmpty());
+        assertTrue(tokens.verify("a.not-a-token").isEmpty());
+        assertTrue(tokens.verify("not-a-uuid").isEmpty());
+        assertTrue(new AnonymousSessionTokens("other".getBytes(StandardCharsets.UTF_8), Duration.ofMinutes(60),
+                Clock.fixed(NOW, ZoneOffset.UTC)).verify(token).isEmpty());
+    }
+
+    @Test
+    void verify_ExpiredToken_ShouldBeEmpty() {
+        // Arrange
+        String token = tokens.issue(null);
+        AnonymousSessionTokens later = new AnonymousSessionTokens(SECRET, Duration.ofMinutes(60),
+                Clock.fixed(NOW.plus(Duration.ofMinutes(61)), ZoneOffset.UTC));
+
+        // Act & Assert
+        assertTrue(later.verify(token).isEmpty());
+    }
+}
@@ -0,0 +1,105 @@
+package com.webstore.backoffice.security.services;
+
+import com.webstore.backoffice.security.dtos.PermissionMatrix;
+import com.webstore.backoffice.security.dtos.PermissionMatrix.Grant;
+import com.webstore.backoffice.security.dtos.PermissionMatrix.PermissionEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PermissionMatrixServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void compile_ShouldGrantOnlyWhatTheAdminsRolesHold() {
+        // Arrange
+        List<PermissionEntry> permissions = List.of(
+                new PermissionEntry(1, "products", "view"),
+                new PermissionEntry(2, "products", "update"),
+                new PermissionEntry(3, "users", "view"));
+        List<Grant> grants = List.of(new Grant(10, 1), new Grant(10, 3), new Grant(11, 2), new Grant(11, 99));
+
+        // Act
+        PermissionMatrix matrix = PermissionMatrix.compile(1, permissions, grants);
+
+        // Assert
+        assertTrue(matrix.isGranted(10L, "products", "view"));
+        assertFalse(matrix.isGranted(10L, "products", "update"));
+        assertTrue(matrix.isGranted(10L, "users", "view"));
+        assertTrue(matrix.isGranted(11L, "products", "update"));
+        assertFalse(matrix.isGranted(11L, "users", "view"));
+        assertFalse(matrix.isGranted(12L, "products", "view"));
+        assertFalse(matrix.isGranted(null, "products", "view"));
+        assertFalse(matrix.isGranted(10L, "orders", "view"));
+    }
+
+    @Test
+    void compile_ManyPermissions_ShouldSpanSeveralWords() {
+        // Arrange
+        List<PermissionEntry> permissions = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            permissions.add(new PermissionEntry(i, "interface-" + (i / 5), "permission-" + (i % 5)));
+        }
+
+        // Act
+        PermissionMatrix matrix = PermissionMatrix.compile(1, permissions, List.of(new Grant(10, 150)));
+
+        // Assert
+        assertEquals(200, matrix.getPermissionCount());
+        assertTrue(matrix.isGranted(10L, "interface-30", "permission-0"));
+        assertFalse(matrix.isGranted(10L, "interface-30", "permission-1"));
+        assertFalse(matrix.isGranted(10L, "interface-1", "permission-0"));
+    }
+
+    @Test
+    void refresh_ShouldRecompileOnlyWhenTheVersionMoved() {
+        // Arrange
+        PermissionMatrixService service = new PermissionMatrixService(jdbcTemplate);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(1L, 1L, 2L);
+        doReturn(List.of(new PermissionEntry(1, "products", "view")))
+                .when(jdbcTemplate).query(startsWith("SELECT p.id"), any(RowMapper.class));
+        doReturn(List.of(new Grant(10, 1)), List.of())
+                .when(jdbcTemplate).query(startsWith("SELECT DISTINCT"), any(RowMapper.class));
+
+        // Act
+        PermissionMatrix first = service.getMatrix();
+        service.scheduledRefresh();
+        PermissionMatrix unchanged = service.getMatrix();
+        service.scheduledRefresh();
+        PermissionMatrix changed = service.getMatrix();
+
+        // Assert
+        assertSame(first, unchanged);
+        assertTrue(first.isGranted(10L, "products", "view"));
+        assertEquals(2, changed.getVersion());
+        assertFalse(changed.isGranted(10L, "products", "view"));
+        verify(jdbcTemplate, times(2)).query(startsWith("SELECT DISTINCT"), any(RowMapper.class));
+    }
+
+    @Test
+    void refresh_ShouldOnlyReadGrantsOfActiveAdmins() {
+        // Arrange
+        PermissionMatrixService service = new PermissionMatrixService(jdbcTemplate);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(1L);
+
+        // Act
+        service.refresh();
+
+        // Assert
+        verify(jdbcTemplate).query(contains("JOIN admin_users au ON au.id = aur.admin_user_id AND au.is_active"),
+                any(RowMapper.class));
+    }
+}
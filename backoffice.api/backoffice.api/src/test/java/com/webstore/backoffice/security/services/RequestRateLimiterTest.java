@@ -0,0 +1,120 @@
+package com.webstore.backoffice.security.services;
+
+import com.webstore.backoffice.security.dtos.AppSettingSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicReference<AppSettingSnapshot> settings = new AtomicReference<>();
+
+    @Test
+    void tryAcquire_PastTheLimit_ShouldBlockForTheBlockDuration() {
+        // Arrange
+        RequestRateLimiter limiter = limiter(3, Duration.ofMinutes(1), Duration.ofMinutes(10));
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire("a").allowed());
+        }
+
+        // Act
+        RequestRateLimiter.Decision blocked = limiter.tryAcquire("a");
+        advance(Duration.ofMinutes(5));
+        RequestRateLimiter.Decision stillBlocked = limiter.tryAcquire("a");
+        RequestRateLimiter.Decision otherCaller = limiter.tryAcquire("b");
+        advance(Duration.ofMinutes(5));
+        RequestRateLimiter.Decision afterBlock = limiter.tryAcquire("a");
+
+        // Assert
+        assertFalse(blocked.allowed());
+        assertTrue(blocked.blockStarted());
+        assertEquals(Duration.ofMinutes(10), blocked.retryAfter());
+        assertFalse(stillBlocked.allowed());
+        assertFalse(stillBlocked.blockStarted());
+        assertEquals(Duration.ofMinutes(5), stillBlocked.retryAfter());
+        assertTrue(otherCaller.allowed());
+        assertTrue(afterBlock.allowed());
+        assertEquals(1, limiter.getStats().blocksStarted());
+    }
+
+    @Test
+    void tryAcquire_ShouldRefillOverTheWindow() {
+        // Arrange
+        RequestRateLimiter limiter = limiter(2, Duration.ofMinutes(1), Duration.ofMinutes(10));
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("a");
+
+        // Act
+        advance(Duration.ofSeconds(30));
+        RequestRateLimiter.Decision refilled = limiter.tryAcquire("a");
+
+        // Assert
+        assertTrue(refilled.allowed());
+    }
+
+    @Test
+    void tryAcquire_WithZeroLimit_ShouldAllowEverything() {
+        // Arrange
+        RequestRateLimiter limiter = limiter(0, Duration.ofMinutes(1), Duration.ofMinutes(10));
+
+        // Act & Assert
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire("a").allowed());
+        }
+        assertEquals(0, limiter.getStats().trackedKeys());
+    }
+
+    @Test
+    void tryAcquire_WhenSettingsChange_ShouldApplyTheNewLimitWithoutRestart() {
+        // Arrange
+        RequestRateLimiter limiter = limiter(1, Duration.ofMinutes(1), Duration.ofMinutes(10));
+        limiter.tryAcquire("a");
+
+        // Act
+        settings.set(snapshot(0, Duration.ofMinutes(1), Duration.ofMinutes(10)));
+        RequestRateLimiter.Decision unlimited = limiter.tryAcquire("a");
+        settings.set(snapshot(1, Duration.ofMinutes(1), Duration.ofMinutes(10)));
+        RequestRateLimiter.Decision limitedAgain = limiter.tryAcquire("a");
+
+        // Assert
+        assertTrue(unlimited.allowed());
+        assertFalse(limitedAgain.allowed());
+    }
+
+    @Test
+    void evictIdle_ShouldKeepBlockedAndPartlyUsedBuckets() {
+        // Arrange
+        RequestRateLimiter limiter = limiter(1, Duration.ofMinutes(1), Duration.ofMinutes(10));
+        limiter.tryAcquire("blocked");
+        limiter.tryAcquire("blocked");
+        limiter.tryAcquire("idle");
+        advance(Duration.ofMinutes(2));
+        limiter.tryAcquire("recent");
+
+        // Act
+        limiter.evictIdle();
+
+        // Assert
+        assertEquals(2, limiter.getStats().trackedKeys());
+        assertEquals(1, limiter.getStats().evictions());
+    }
+
+    private RequestRateLimiter limiter(long limit, Duration window, Duration blockDuration) {
+        settings.set(snapshot(limit, window, blockDuration));
+        return new RequestRateLimiter(settings::get, 100, clock::get);
+    }
+
+    private static AppSettingSnapshot snapshot(long limit, Duration window, Duration blockDuration) {
+        return new AppSettingSnapshot(1, BigDecimal.ZERO, 10, 1000, limit, window, blockDuration);
+    }
+
+    private void advance(Duration duration) {
+        clock.addAndGet(duration.toNanos());
+    }
+}
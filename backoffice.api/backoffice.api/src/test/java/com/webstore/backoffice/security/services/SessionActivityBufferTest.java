@@ -0,0 +1,104 @@
+package com.webstore.backoffice.security.services;
+
+import com.webstore.backoffice.security.dtos.SessionPrincipal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SessionActivityBufferTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T12:00:00Z");
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private SessionCache sessionCache;
+
+    private final List<Runnable> earlyFlushes = new ArrayList<>();
+
+    private SessionActivityBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        buffer = new SessionActivityBuffer(jdbcTemplate, sessionCache, Duration.ofMinutes(40), Duration.ofSeconds(30),
+                earlyFlushes::add, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void touch_RepeatedRequests_ShouldBeWrittenOncePerSessionOnFlush() {
+        // Arrange
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            buffer.touch(principal(first, NOW.plusSeconds(1800)));
+        }
+        buffer.touch(principal(second, NOW.plusSeconds(1800)));
+        verifyNoInteractions(jdbcTemplate);
+        buffer.flush();
+        buffer.flush();
+
+        // Assert
+        assertTrue(earlyFlushes.isEmpty());
+        ArgumentCaptor<List<?>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(startsWith("UPDATE admin_sessions"), batch.capture(), eq(2),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(2, batch.getValue().size());
+        verifyNoInteractions(sessionCache);
+    }
+
+    @Test
+    void touch_SessionsAboutToExpire_ShouldQueueOneEarlyFlushOffTheRequestThread() {
+        // Arrange
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        // Act
+        buffer.touch(principal(first, NOW.plusSeconds(45)));
+        buffer.touch(principal(second, NOW.plusSeconds(50)));
+        verifyNoInteractions(jdbcTemplate, sessionCache);
+        earlyFlushes.forEach(Runnable::run);
+
+        // Assert
+        assertEquals(1, earlyFlushes.size());
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE admin_sessions"), anyList(), eq(2),
+                any(ParameterizedPreparedStatementSetter.class));
+        verify(sessionCache).invalidate(first);
+        verify(sessionCache).invalidate(second);
+    }
+
+    @Test
+    void touch_AnonymousSession_ShouldBeIgnored() {
+        // Act
+        buffer.touch(SessionPrincipal.anonymous(UUID.randomUUID(), NOW.plusSeconds(30)));
+        buffer.flush();
+
+        // Assert
+        verifyNoInteractions(jdbcTemplate, sessionCache);
+    }
+
+    private static SessionPrincipal principal(UUID hash, Instant expiresAt) {
+        return new SessionPrincipal(1L, hash, 2L, "Admin", expiresAt, List.of(), null);
+    }
+}
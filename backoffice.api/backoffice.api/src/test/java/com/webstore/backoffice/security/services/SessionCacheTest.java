@@ -0,0 +1,124 @@
+package com.webstore.backoffice.security.services;
+
+import com.webstore.backoffice.security.dtos.SessionPrincipal;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionCacheTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+    @Test
+    void get_ShouldLoadOnceAndServeRepeatsFromMemory() {
+        // Arrange
+        SessionCache cache = new SessionCache(10, Duration.ofMinutes(1), Clock.fixed(NOW, ZoneOffset.UTC));
+        UUID hash = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+        Function<UUID, Optional<SessionPrincipal>> loader = key -> {
+            loads.incrementAndGet();
+            return Optional.of(principal(key, NOW.plusSeconds(3600)));
+        };
+
+        // Act
+        cache.get(hash, loader);
+        Optional<SessionPrincipal> cached = cache.get(hash, loader);
+
+        // Assert
+        assertTrue(cached.isPresent());
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getStats().hits());
+        assertEquals(0.5, cache.getStats().hitRate());
+    }
+
+    @Test
+    void get_WhenSessionExpiresBeforeTtl_ShouldNotServeItPastExpiry() {
+        // Arrange
+        MovableClock clock = new MovableClock();
+        SessionCache cache = new SessionCache(10, Duration.ofMinutes(1), clock);
+        UUID hash = UUID.randomUUID();
+        SessionPrincipal principal = principal(hash, NOW.plusSeconds(5));
+        cache.get(hash, key -> Optional.of(principal));
+
+        // Act
+        clock.now = NOW.plusSeconds(10);
+        Optional<SessionPrincipal> afterExpiry = cache.get(hash, key -> Optional.of(principal));
+
+        // Assert
+        assertTrue(afterExpiry.isEmpty());
+        assertEquals(0, cache.getStats().entries());
+    }
+
+    @Test
+    void invalidate_ShouldForceTheNextLookupToLoad() {
+        // Arrange
+        SessionCache cache = new SessionCache(10, Duration.ofMinutes(1), Clock.fixed(NOW, ZoneOffset.UTC));
+        UUID hash = UUID.randomUUID();
+        cache.get(hash, key -> Optional.of(principal(key, NOW.plusSeconds(3600))));
+
+        // Act
+        cache.invalidate(hash);
+        Optional<SessionPrincipal> reloaded = cache.get(hash, key -> Optional.empty());
+
+        // Assert
+        assertTrue(reloaded.isEmpty());
+        assertEquals(0, cache.getStats().entries());
+    }
+
+    @Test
+    void get_WhenOverSizeLimit_ShouldDropExpiredEntriesFirst() {
+        // Arrange
+        MovableClock clock = new MovableClock();
+        SessionCache cache = new SessionCache(2, Duration.ofMinutes(1), clock);
+        UUID stale = UUID.randomUUID();
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        Function<UUID, Optional<SessionPrincipal>> loader = key -> Optional.of(principal(key, NOW.plusSeconds(3600)));
+        cache.get(stale, loader);
+        clock.now = NOW.plusSeconds(120);
+
+        // Act
+        cache.get(first, loader);
+        cache.get(second, loader);
+
+        // Assert
+        assertEquals(2, cache.getStats().entries());
+        assertEquals(1, cache.getStats().evictions());
+        assertTrue(cache.get(first, key -> Optional.empty()).isPresent());
+        assertTrue(cache.get(second, key -> Optional.empty()).isPresent());
+    }
+
+    private static SessionPrincipal principal(UUID hash, Instant expiresAt) {
+        return new SessionPrincipal(1L, hash, null, "Anonymous", expiresAt, List.of(), null);
+    }
+
+    private static class MovableClock extends Clock {
+        private Instant now = NOW;
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.webstore.backoffice.security.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SessionChangeWatcherTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private SessionCache sessionCache;
+
+    private SessionChangeWatcher watcher;
+
+    @BeforeEach
+    void setUp() {
+        watcher = new SessionChangeWatcher(jdbcTemplate, sessionCache);
+    }
+
+    @Test
+    void poll_WhenVersionMoves_ShouldDropTheCacheOnce() {
+        // Arrange
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(3L, 3L, 4L, 4L);
+
+        // Act
+        for (int i = 0; i < 4; i++) {
+            watcher.poll();
+        }
+
+        // Assert
+        verify(sessionCache, times(1)).invalidateAll();
+    }
+
+    @Test
+    void poll_WhenVersionCannotBeRead_ShouldKeepTheCache() {
+        // Arrange
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class)))
+                .thenReturn(3L)
+                .thenThrow(new DataAccessResourceFailureException("down"))
+                .thenReturn(3L);
+
+        // Act
+        watcher.poll();
+        watcher.poll();
+        watcher.poll();
+
+        // Assert
+        verifyNoInteractions(sessionCache);
+    }
+}
@@ -0,0 +1,116 @@
+package com.webstore.backoffice.security.services;
+
+import com.webstore.backoffice.security.dtos.SessionSweepStats;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SessionSweeperTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T12:00:00Z");
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void sweep_ShouldRepeatBatchesUntilOneComesBackShort() {
+        // Arrange
+        SessionSweeper sweeper = new SessionSweeper(jdbcTemplate, 500, Duration.ofHours(24), Duration.ofSeconds(10),
+                Clock.fixed(NOW, ZoneOffset.UTC));
+        Deque<Integer> deactivations = new ArrayDeque<>(List.of(500, 500, 120));
+        answerBySql(sql -> sql.startsWith("UPDATE admin_sessions") ? deactivations.pop()
+                : sql.startsWith("DELETE FROM sessions") ? 30 : 0);
+
+        // Act
+        sweeper.sweep();
+
+        // Assert
+        assertTrue(deactivations.isEmpty());
+        SessionSweepStats stats = sweeper.getStats();
+        assertEquals(1, stats.runs());
+        assertEquals(1120, stats.lastDeactivated());
+        assertEquals(30, stats.lastDeleted());
+        assertEquals(NOW, stats.lastRunAt());
+    }
+
+    @Test
+    void sweep_ShouldStopWhenTheTimeBudgetIsSpent() {
+        // Arrange
+        MovableClock clock = new MovableClock();
+        SessionSweeper sweeper = new SessionSweeper(jdbcTemplate, 100, Duration.ofHours(24), Duration.ofSeconds(10), clock);
+        answerBySql(sql -> {
+            clock.now = clock.now.plusSeconds(4);
+            return 100;
+        });
+
+        // Act
+        sweeper.sweep();
+
+        // Assert
+        verify(jdbcTemplate, times(3)).update(anyString(), any(Object[].class));
+        assertEquals(300, sweeper.getStats().lastDeactivated());
+        assertEquals(12_000, sweeper.getStats().lastDurationMillis());
+    }
+
+    @Test
+    void sweep_FailingStatement_ShouldNotStopTheOtherTables() {
+        // Arrange
+        SessionSweeper sweeper = new SessionSweeper(jdbcTemplate, 500, Duration.ofHours(24), Duration.ofSeconds(10),
+                Clock.fixed(NOW, ZoneOffset.UTC));
+        answerBySql(sql -> {
+            if (sql.startsWith("DELETE FROM admin_sessions")) {
+                throw new CannotAcquireLockException("timeout");
+            }
+            return sql.startsWith("UPDATE sessions") ? 7 : 0;
+        });
+
+        // Act
+        sweeper.sweep();
+
+        // Assert
+        assertEquals(7, sweeper.getStats().lastDeactivated());
+        assertEquals(0, sweeper.getStats().lastDeleted());
+    }
+
+    private void answerBySql(Function<String, Integer> rowsAffected) {
+        when(jdbcTemplate.update(anyString(), any(Object[].class)))
+                .thenAnswer(invocation -> rowsAffected.apply(invocation.getArgument(0)));
+    }
+
+    private static class MovableClock extends Clock {
+        private Instant now = NOW;
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -9,6 +9,7 @@ import {
 import { AdminSessions } from "./AdminSessions";
 
 @Index("admin_captchas_pkey", ["id"], { unique: true })
+@Index("idx_admin_captchas_admin_session_id", ["adminSession"])
 @Entity("admin_captchas", { schema: "public" })
 export class AdminCaptchas {
   @PrimaryGeneratedColumn({ type: "bigint", name: "id" })
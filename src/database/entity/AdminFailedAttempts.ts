@@ -10,6 +10,7 @@ import { AdminSessions } from "./AdminSessions";
 import { AttemptTypes } from "./AttemptTypes";
 
 @Index("admin_failed_attempts_pkey", ["id"], { unique: true })
+@Index("idx_admin_failed_attempts_admin_session_id", ["adminSession"])
 @Entity("admin_failed_attempts", { schema: "public" })
 export class AdminFailedAttempts {
   @PrimaryGeneratedColumn({ type: "bigint", name: "id" })
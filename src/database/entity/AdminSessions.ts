@@ -13,6 +13,7 @@ import { AdminUsers } from "./AdminUsers";
 import { SessionTypes } from "./SessionTypes";
 
 @Index("admin_sessions_pkey", ["id"], { unique: true })
+@Index("idx_admin_sessions_expires_at", ["expiresAt"])
 @Index("admin_sessions_session_hash_key", ["sessionHash"], { unique: true })
 @Entity("admin_sessions", { schema: "public" })
 export class AdminSessions {
@@ -50,6 +51,18 @@ export class AdminSessions {
   })
   rateLimitedUntil: Date | null;
 
+  @Column("timestamp with time zone", {
+    name: "last_seen_at",
+    nullable: true,
+  })
+  lastSeenAt: Date | null;
+
+  @Column("timestamp with time zone", {
+    name: "api_blocked_until",
+    nullable: true,
+  })
+  apiBlockedUntil: Date | null;
+
   @OneToMany(() => AdminCaptchas, (adminCaptchas) => adminCaptchas.adminSession)
   adminCaptchas: AdminCaptchas[];
 
@@ -18,6 +18,15 @@ export class AppSettings {
   })
   requestBlockDuration: any;
 
+  @Column("bigint", { name: "api_request_limit", default: () => "600" })
+  apiRequestLimit: string;
+
+  @Column("bigint", { name: "api_request_window_seconds", default: () => "60" })
+  apiRequestWindowSeconds: string;
+
+  @Column("bigint", { name: "api_request_block_seconds", default: () => "60" })
+  apiRequestBlockSeconds: string;
+
   @Column("boolean", { name: "password_require_digit", default: () => "false" })
   passwordRequireDigit: boolean;
 
@@ -9,6 +9,7 @@ import {
 import { Sessions } from "./Sessions";
 
 @Index("captchas_pkey", ["id"], { unique: true })
+@Index("idx_captchas_session_id", ["session"])
 @Entity("captchas", { schema: "public" })
 export class Captchas {
   @PrimaryGeneratedColumn({ type: "bigint", name: "id" })
@@ -13,6 +13,7 @@ import { Users } from "./Users";
 import { Vouchers } from "./Vouchers";
 
 @Index("carts_pkey", ["id"], { unique: true })
+@Index("idx_carts_session_id", ["session"])
 @Entity("carts", { schema: "public" })
 export class Carts {
   @PrimaryGeneratedColumn({ type: "bigint", name: "id" })
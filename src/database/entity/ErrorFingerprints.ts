@@ -0,0 +1,26 @@
+import { Column, Entity, Index } from "typeorm";
+
+@Index("PK_error_fingerprints", ["fingerprint"], { unique: true })
+@Entity("error_fingerprints", { schema: "public" })
+export class ErrorFingerprints {
+  @Column("text", { primary: true, name: "fingerprint" })
+  fingerprint: string;
+
+  @Column("text", { name: "exception_type" })
+  exceptionType: string;
+
+  @Column("text", { name: "status_code" })
+  statusCode: string;
+
+  @Column("text", { name: "debug_info", nullable: true })
+  debugInfo: string | null;
+
+  @Column("bigint", { name: "occurrences", default: () => "0" })
+  occurrences: string;
+
+  @Column("timestamp with time zone", { name: "first_seen_at" })
+  firstSeenAt: Date;
+
+  @Column("timestamp with time zone", { name: "last_seen_at" })
+  lastSeenAt: Date;
+}
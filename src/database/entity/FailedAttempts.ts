@@ -10,6 +10,7 @@ import { AttemptTypes } from "./AttemptTypes";
 import { Sessions } from "./Sessions";
 
 @Index("failed_attempts_pkey", ["id"], { unique: true })
+@Index("idx_failed_attempts_session_id", ["session"])
 @Entity("failed_attempts", { schema: "public" })
 export class FailedAttempts {
   @PrimaryGeneratedColumn({ type: "bigint", name: "id" })
@@ -10,6 +10,7 @@ import { Products } from "./Products";
 
 @Index("images_pkey", ["id"], { unique: true })
 @Index("idx_images_product_id", ["product"])
+@Index("idx_images_url", ["url"])
 @Entity("images", { schema: "public" })
 export class Images {
   @PrimaryGeneratedColumn({ type: "bigint", name: "id" })
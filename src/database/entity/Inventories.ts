@@ -9,6 +9,7 @@ import {
 import { Products } from "./Products";
 
 @Index("inventories_pkey", ["id"], { unique: true })
+@Index("inventories_product_id_key", ["product"], { unique: true })
 @Entity("inventories", { schema: "public" })
 export class Inventories {
   @PrimaryGeneratedColumn({ type: "bigint", name: "id" })
@@ -10,6 +10,7 @@ import { AdminUsers } from "./AdminUsers";
 import { Users } from "./Users";
 
 @Index("logs_pkey", ["id"], { unique: true })
+@Index("idx_logs_fingerprint", ["fingerprint"])
 @Entity("logs", { schema: "public" })
 export class Logs {
   @PrimaryGeneratedColumn({ type: "bigint", name: "id" })
@@ -30,6 +31,9 @@ export class Logs {
   @Column("text", { name: "debug_info", nullable: true })
   debugInfo: string | null;
 
+  @Column("text", { name: "fingerprint", nullable: true })
+  fingerprint: string | null;
+
   @Column("timestamp with time zone", {
     name: "created_at",
     default: () => "now()",
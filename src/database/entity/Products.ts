@@ -50,6 +50,9 @@ export class Products {
   })
   stockPrice: string | null;
 
+  @Column("boolean", { name: "is_active", default: () => "true" })
+  isActive: boolean;
+
   @OneToMany(() => CartItems, (cartItems) => cartItems.product)
   cartItems: CartItems[];
 
@@ -0,0 +1,11 @@
+import { Column, Entity, Index } from "typeorm";
+
+@Index("PK_rbac_version", ["id"], { unique: true })
+@Entity("rbac_version", { schema: "public" })
+export class RbacVersion {
+  @Column("integer", { primary: true, name: "id" })
+  id: number;
+
+  @Column("bigint", { name: "version", default: () => "0" })
+  version: string;
+}
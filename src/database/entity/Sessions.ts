@@ -14,6 +14,7 @@ import { SessionTypes } from "./SessionTypes";
 import { Users } from "./Users";
 
 @Index("sessions_pkey", ["id"], { unique: true })
+@Index("idx_sessions_expires_at", ["expiresAt"])
 @Index("sessions_session_hash_key", ["sessionHash"], { unique: true })
 @Entity("sessions", { schema: "public" })
 export class Sessions {
@@ -0,0 +1,23 @@
+import { MigrationInterface, QueryRunner } from "typeorm";
+
+export class AddKeysetPaginationIndexes1753094417265 implements MigrationInterface {
+    name = 'AddKeysetPaginationIndexes1753094417265'
+
+    public async up(queryRunner: QueryRunner): Promise<void> {
+        await queryRunner.query(`CREATE INDEX IF NOT EXISTS idx_users_created_at_id ON users (created_at, id);`);
+        await queryRunner.query(`CREATE INDEX IF NOT EXISTS idx_users_email_id ON users (email, id);`);
+        await queryRunner.query(`CREATE INDEX IF NOT EXISTS idx_products_name_id ON products (name, id);`);
+        await queryRunner.query(`CREATE INDEX IF NOT EXISTS idx_products_price_id ON products (price, id);`);
+        await queryRunner.query(`CREATE INDEX IF NOT EXISTS idx_orders_created_at_id ON orders (created_at, id);`);
+        await queryRunner.query(`CREATE INDEX IF NOT EXISTS idx_logs_created_at_id ON logs (created_at, id);`);
+    }
+
+    public async down(queryRunner: QueryRunner): Promise<void> {
+        await queryRunner.query(`DROP INDEX IF EXISTS idx_logs_created_at_id;`);
+        await queryRunner.query(`DROP INDEX IF EXISTS idx_orders_created_at_id;`);
+        await queryRunner.query(`DROP INDEX IF EXISTS idx_products_price_id;`);
+        await queryRunner.query(`DROP INDEX IF EXISTS idx_products_name_id;`);
+        await queryRunner.query(`DROP INDEX IF EXISTS idx_users_email_id;`);
+        await queryRunner.query(`DROP INDEX IF EXISTS idx_users_created_at_id;`);
+    }
+}
@@ -0,0 +1,154 @@
+import { MigrationInterface, QueryRunner } from "typeorm";
+
+export class RewriteListViewsWithLateralJoins1753180817265 implements MigrationInterface {
+    name = 'RewriteListViewsWithLateralJoins1753180817265'
+
+    public async up(queryRunner: QueryRunner): Promise<void> {
+        // per-row LATERAL subqueries instead of a view-wide GROUP BY, so filters, ORDER BY and LIMIT
+        // on the base columns reach the products/users indexes and only the page rows get aggregated
+        await queryRunner.query(`DROP VIEW IF EXISTS products_view;`);
+        await queryRunner.query(`
+            CREATE OR REPLACE VIEW products_view AS
+            SELECT
+                p.id,
+                p.code,
+                p.name,
+                p.price,
+                inv.quantity,
+                p.short_description,
+                p.long_description,
+                img.images,
+                cat.categories,
+                rat.rating,
+                rat.rating_count,
+                ROUND(p.price * (1 + vat.vat_percentage / 100), 2) AS price_with_vat,
+                cat.category_ids
+            FROM products p
+            LEFT JOIN inventories inv ON p.id = inv.product_id
+            CROSS JOIN (SELECT vat_percentage FROM app_settings LIMIT 1) vat
+            CROSS JOIN LATERAL (
+                SELECT COALESCE(ARRAY_AGG(DISTINCT i.url), ARRAY[NULL]::text[]) AS images
+                FROM images i
+                WHERE i.product_id = p.id
+            ) img
+            CROSS JOIN LATERAL (
+                SELECT
+                    COALESCE(ARRAY_AGG(c.name ORDER BY c.name, c.id), ARRAY[NULL]::text[]) AS categories,
+                    COALESCE(ARRAY_AGG(c.id ORDER BY c.name, c.id), ARRAY[NULL]::bigint[]) AS category_ids
+                FROM products_categories pc
+                JOIN categories c ON pc.category_id = c.id
+                WHERE pc.product_id = p.id
+            ) cat
+            CROSS JOIN LATERAL (
+                SELECT COALESCE(AVG(r.rating), 0) AS rating, COUNT(r.id) AS rating_count
+                FROM ratings r
+                WHERE r.product_id = p.id
+            ) rat;`
+        );
+
+        await queryRunner.query(`DROP VIEW IF EXISTS users_view;`);
+        await queryRunner.query(`
+            CREATE OR REPLACE VIEW users_view AS
+            SELECT
+                users.id,
+                users.first_name,
+                users.last_name,
+                users.email,
+                users.phone,
+                icc.phone_code AS phone_code,
+                users.iso_country_code_id,
+                cc.country_name AS country_name,
+                users.country_id,
+                genders.type AS gender,
+                users.birth_date,
+                users.gender_id,
+                users.address,
+                users.is_email_verified,
+                users.has_first_login,
+                users.created_at,
+                DATE_PART('day', CURRENT_DATE - users.created_at) AS days_since_registration,
+                DATE_PART('day', CURRENT_DATE - lo.last_order_date) AS days_since_order,
+                users.user_hash
+            FROM users
+            LEFT JOIN iso_country_codes icc ON users.iso_country_code_id = icc.id
+            LEFT JOIN iso_country_codes cc ON users.country_id = cc.id
+            LEFT JOIN genders ON users.gender_id = genders.id
+            LEFT JOIN LATERAL (
+                SELECT MAX(o.created_at) AS last_order_date
+                FROM orders o
+                WHERE o.user_id = users.id
+            ) lo ON TRUE
+            WHERE users.is_active = TRUE;`
+        );
+    }
+
+    public async down(queryRunner: QueryRunner): Promise<void> {
+        await queryRunner.query(`DROP VIEW IF EXISTS users_view;`);
+        await queryRunner.query(`
+            CREATE OR REPLACE VIEW users_view AS
+            WITH last_orders AS (
+                SELECT
+                    user_id,
+                    MAX(created_at) AS last_order_date
+                FROM orders
+                GROUP BY user_id
+            )
+            SELECT
+                users.id,
+                users.first_name,
+                users.last_name,
+                users.email,
+                users.phone,
+                icc.phone_code AS phone_code,
+                users.iso_country_code_id,
+                cc.country_name AS country_name,
+                users.country_id,
+                genders.type AS gender,
+                users.birth_date,
+                users.gender_id,
+                users.address,
+                users.is_email_verified,
+                users.has_first_login,
+                users.created_at,
+                DATE_PART('day', CURRENT_DATE - users.created_at) AS days_since_registration,
+                DATE_PART('day', CURRENT_DATE - lo.last_order_date) AS days_since_order
+            FROM users
+            LEFT JOIN iso_country_codes icc ON users.iso_country_code_id = icc.id
+            LEFT JOIN iso_country_codes cc ON users.country_id = cc.id
+            LEFT JOIN genders ON users.gender_id = genders.id
+            LEFT JOIN last_orders lo ON users.id = lo.user_id
+            WHERE users.is_active = TRUE
+            ORDER BY users.id;`
+        );
+
+        await queryRunner.query(`DROP VIEW IF EXISTS products_view;`);
+        await queryRunner.query(`
+            CREATE OR REPLACE VIEW products_view AS
+            WITH vat AS (
+                SELECT vat_percentage FROM app_settings LIMIT 1
+            )
+            SELECT
+                p.id,
+                p.code,
+                p.name,
+                p.price,
+                inv.quantity,
+                p.short_description,
+                p.long_description,
+                ARRAY_AGG(DISTINCT i.url) AS images,
+                ARRAY_AGG(DISTINCT c.name) AS categories,
+                COALESCE(AVG(r.rating), 0) AS rating,
+                COALESCE(COUNT(r.id), 0) AS rating_count,
+                ROUND(p.price * (1 + vat.vat_percentage / 100), 2) AS price_with_vat
+            FROM products p
+            LEFT JOIN images i ON p.id = i.product_id
+            LEFT JOIN products_categories pc ON p.id = pc.product_id
+            LEFT JOIN categories c ON pc.category_id = c.id
+            LEFT JOIN ratings r ON p.id = r.product_id
+            LEFT JOIN inventories inv ON p.id = inv.product_id
+            CROSS JOIN vat
+            GROUP BY p.id, vat.vat_percentage, inv.quantity;`
+        );
+    }
+
+}
@@ -0,0 +1,31 @@
+import { MigrationInterface, QueryRunner } from "typeorm";
+
+export class AddSearchIndexes1753267217265 implements MigrationInterface {
+    name = 'AddSearchIndexes1753267217265'
+
+    public async up(queryRunner: QueryRunner): Promise<void> {
+        await queryRunner.query(`CREATE EXTENSION IF NOT EXISTS pg_trgm;`);
+
+        // trigram indexes serve both the ILIKE '%value%' and the similarity (%) half of a "trigram" filter
+        await queryRunner.query(`CREATE INDEX IF NOT EXISTS idx_products_name_trgm ON products USING gin (name gin_trgm_ops);`);
+        await queryRunner.query(`CREATE INDEX IF NOT EXISTS idx_users_first_name_trgm ON users USING gin (first_name gin_trgm_ops);`);
+        await queryRunner.query(`CREATE INDEX IF NOT EXISTS idx_users_last_name_trgm ON users USING gin (last_name gin_trgm_ops);`);
+        await queryRunner.query(`CREATE INDEX IF NOT EXISTS idx_users_email_trgm ON users USING gin (email gin_trgm_ops);`);
+
+        // the indexed expressions must match SearchFunctionContributor exactly for "fulltext" filters to use them
+        await queryRunner.query(`CREATE INDEX IF NOT EXISTS idx_products_short_description_fts ON products USING gin (to_tsvector('simple', coalesce(short_description, '')));`);
+        await queryRunner.query(`CREATE INDEX IF NOT EXISTS idx_products_long_description_fts ON products USING gin (to_tsvector('simple', coalesce(long_description, '')));`);
+
+        await queryRunner.query(`CREATE INDEX IF NOT EXISTS idx_users_phone_prefix ON users (lower(phone) text_pattern_ops);`);
+    }
+
+    public async down(queryRunner: QueryRunner): Promise<void> {
+        await queryRunner.query(`DROP INDEX IF EXISTS idx_users_phone_prefix;`);
+        await queryRunner.query(`DROP INDEX IF EXISTS idx_products_long_description_fts;`);
+        await queryRunner.query(`DROP INDEX IF EXISTS idx_products_short_description_fts;`);
+        await queryRunner.query(`DROP INDEX IF EXISTS idx_users_email_trgm;`);
+        await queryRunner.query(`DROP INDEX IF EXISTS idx_users_last_name_trgm;`);
+        await queryRunner.query(`DROP INDEX IF EXISTS idx_users_first_name_trgm;`);
+        await queryRunner.query(`DROP INDEX IF EXISTS idx_products_name_trgm;`);
+    }
+}
@@ -0,0 +1,21 @@
+import { MigrationInterface, QueryRunner } from "typeorm";
+
+export class UsePooledIdSequences1753353617265 implements MigrationInterface {
+    name = 'UsePooledIdSequences1753353617265'
+
+    public async up(queryRunner: QueryRunner): Promise<void> {
+        // the backoffice reserves 50 ids per nextval() and hands out the block below the returned value;
+        // inserts that still use the column default take the returned value itself, so both stay unique
+        await queryRunner.query(`ALTER SEQUENCE products_id_seq INCREMENT BY 50;`);
+        await queryRunner.query(`ALTER SEQUENCE users_id_seq INCREMENT BY 50;`);
+        await queryRunner.query(`ALTER SEQUENCE images_id_seq INCREMENT BY 50;`);
+        await queryRunner.query(`ALTER SEQUENCE inventories_id_seq INCREMENT BY 50;`);
+    }
+
+    public async down(queryRunner: QueryRunner): Promise<void> {
+        await queryRunner.query(`ALTER SEQUENCE inventories_id_seq INCREMENT BY 1;`);
+        await queryRunner.query(`ALTER SEQUENCE images_id_seq INCREMENT BY 1;`);
+        await queryRunner.query(`ALTER SEQUENCE users_id_seq INCREMENT BY 1;`);
+        await queryRunner.query(`ALTER SEQUENCE products_id_seq INCREMENT BY 1;`);
+    }
+}
@@ -0,0 +1,14 @@
+import { MigrationInterface, QueryRunner } from "typeorm";
+
+export class AddInventoryProductIndex1753526417265 implements MigrationInterface {
+    name = 'AddInventoryProductIndex1753526417265'
+
+    public async up(queryRunner: QueryRunner): Promise<void> {
+        // stock updates and the products list view both look inventories up by product
+        await queryRunner.query(`CREATE INDEX IF NOT EXISTS idx_inventories_product_id ON inventories (product_id);`);
+    }
+
+    public async down(queryRunner: QueryRunner): Promise<void> {
+        await queryRunner.query(`DROP INDEX IF EXISTS idx_inventories_product_id;`);
+    }
+}
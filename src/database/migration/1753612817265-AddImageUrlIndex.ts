@@ -0,0 +1,14 @@
+import { MigrationInterface, QueryRunner } from "typeorm";
+
+export class AddImageUrlIndex1753612817265 implements MigrationInterface {
+    name = 'AddImageUrlIndex1753612817265'
+
+    public async up(queryRunner: QueryRunner): Promise<void> {
+        // stored images are shared by content, and deleting one counts the rows that still reference its url
+        await queryRunner.query(`CREATE INDEX IF NOT EXISTS idx_images_url ON images (url);`);
+    }
+
+    public async down(queryRunner: QueryRunner): Promise<void> {
+        await queryRunner.query(`DROP INDEX IF EXISTS idx_images_url;`);
+    }
+}
@@ -0,0 +1,18 @@
+import { MigrationInterface, QueryRunner } from "typeorm";
+
+export class AddErrorFingerprints1753699217265 implements MigrationInterface {
+    name = 'AddErrorFingerprints1753699217265'
+
+    public async up(queryRunner: QueryRunner): Promise<void> {
+        // one row per distinct failure: the trace is stored once and repeats only move the counters
+        await queryRunner.query(`CREATE TABLE IF NOT EXISTS "error_fingerprints" ("fingerprint" text NOT NULL, "exception_type" text NOT NULL, "status_code" text NOT NULL, "debug_info" text, "occurrences" bigint NOT NULL DEFAULT 0, "first_seen_at" TIMESTAMP WITH TIME ZONE NOT NULL, "last_seen_at" TIMESTAMP WITH TIME ZONE NOT NULL, CONSTRAINT "PK_error_fingerprints" PRIMARY KEY ("fingerprint"))`);
+        await queryRunner.query(`ALTER TABLE "logs" ADD COLUMN IF NOT EXISTS "fingerprint" text`);
+        await queryRunner.query(`CREATE INDEX IF NOT EXISTS idx_logs_fingerprint ON logs (fingerprint);`);
+    }
+
+    public async down(queryRunner: QueryRunner): Promise<void> {
+        await queryRunner.query(`DROP INDEX IF EXISTS idx_logs_fingerprint;`);
+        await queryRunner.query(`ALTER TABLE "logs" DROP COLUMN IF EXISTS "fingerprint"`);
+        await queryRunner.query(`DROP TABLE IF EXISTS "error_fingerprints"`);
+    }
+}
@@ -0,0 +1,28 @@
+import { MigrationInterface, QueryRunner } from "typeorm";
+
+export class AddSessionSweepIndexes1753785617265 implements MigrationInterface {
+    name = 'AddSessionSweepIndexes1753785617265'
+
+    public async up(queryRunner: QueryRunner): Promise<void> {
+        // last_seen_at backs sliding expiry; the sweeper finds sessions by expiry and checks each for rows still referencing it
+        await queryRunner.query(`ALTER TABLE "admin_sessions" ADD COLUMN IF NOT EXISTS "last_seen_at" TIMESTAMP WITH TIME ZONE`);
+        await queryRunner.query(`CREATE INDEX IF NOT EXISTS idx_admin_sessions_expires_at ON admin_sessions (expires_at);`);
+        await queryRunner.query(`CREATE INDEX IF NOT EXISTS idx_sessions_expires_at ON sessions (expires_at);`);
+        await queryRunner.query(`CREATE INDEX IF NOT EXISTS idx_admin_captchas_admin_session_id ON admin_captchas (admin_session_id);`);
+        await queryRunner.query(`CREATE INDEX IF NOT EXISTS idx_admin_failed_attempts_admin_session_id ON admin_failed_attempts (admin_session_id);`);
+        await queryRunner.query(`CREATE INDEX IF NOT EXISTS idx_captchas_session_id ON captchas (session_id);`);
+        await queryRunner.query(`CREATE INDEX IF NOT EXISTS idx_failed_attempts_session_id ON failed_attempts (session_id);`);
+        await queryRunner.query(`CREATE INDEX IF NOT EXISTS idx_carts_session_id ON carts (session_id);`);
+    }
+
+    public async down(queryRunner: QueryRunner): Promise<void> {
+        await queryRunner.query(`DROP INDEX IF EXISTS idx_carts_session_id;`);
+        await queryRunner.query(`DROP INDEX IF EXISTS idx_failed_attempts_session_id;`);
+        await queryRunner.query(`DROP INDEX IF EXISTS idx_captchas_session_id;`);
+        await queryRunner.query(`DROP INDEX IF EXISTS idx_admin_failed_attempts_admin_session_id;`);
+        await queryRunner.query(`DROP INDEX IF EXISTS idx_admin_captchas_admin_session_id;`);
+        await queryRunner.query(`DROP INDEX IF EXISTS idx_sessions_expires_at;`);
+        await queryRunner.query(`DROP INDEX IF EXISTS idx_admin_sessions_expires_at;`);
+        await queryRunner.query(`ALTER TABLE "admin_sessions" DROP COLUMN IF EXISTS "last_seen_at"`);
+    }
+}
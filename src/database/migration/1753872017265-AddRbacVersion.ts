@@ -0,0 +1,31 @@
+import { MigrationInterface, QueryRunner } from "typeorm";
+
+const RBAC_TABLES = ["interfaces", "permissions", "roles", "role_permissions", "admin_user_roles"];
+
+export class AddRbacVersion1753872017265 implements MigrationInterface {
+    name = 'AddRbacVersion1753872017265'
+
+    public async up(queryRunner: QueryRunner): Promise<void> {
+        // any write to the role tables bumps the version, which tells the backoffice to recompile its permission matrix
+        await queryRunner.query(`CREATE TABLE IF NOT EXISTS "rbac_version" ("id" integer NOT NULL, "version" bigint NOT NULL DEFAULT 0, CONSTRAINT "PK_rbac_version" PRIMARY KEY ("id"))`);
+        await queryRunner.query(`INSERT INTO "rbac_version" ("id", "version") VALUES (1, 0) ON CONFLICT DO NOTHING`);
+        await queryRunner.query(`CREATE OR REPLACE FUNCTION bump_rbac_version() RETURNS trigger AS $$
+            BEGIN
+                UPDATE rbac_version SET version = version + 1 WHERE id = 1;
+                RETURN NULL;
+            END;
+            $$ LANGUAGE plpgsql;`);
+        for (const table of RBAC_TABLES) {
+            await queryRunner.query(`DROP TRIGGER IF EXISTS trg_${table}_rbac_version ON ${table};`);
+            await queryRunner.query(`CREATE TRIGGER trg_${table}_rbac_version AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON ${table} FOR EACH STATEMENT EXECUTE FUNCTION bump_rbac_version();`);
+        }
+    }
+
+    public async down(queryRunner: QueryRunner): Promise<void> {
+        for (const table of RBAC_TABLES) {
+            await queryRunner.query(`DROP TRIGGER IF EXISTS trg_${table}_rbac_version ON ${table};`);
+        }
+        await queryRunner.query(`DROP FUNCTION IF EXISTS bump_rbac_version();`);
+        await queryRunner.query(`DROP TABLE IF EXISTS "rbac_version"`);
+    }
+}
@@ -0,0 +1,83 @@
+import { MigrationInterface, QueryRunner } from "typeorm";
+
+export class AddBackofficeUsersView1753958417265 implements MigrationInterface {
+    name = 'AddBackofficeUsersView1753958417265'
+
+    public async up(queryRunner: QueryRunner): Promise<void> {
+        // users_view is shared with the Node server, whose lists and group timers rely on it hiding
+        // deactivated users; a database that ran the earlier version of this migration gets it back here
+        await queryRunner.query(`DROP VIEW IF EXISTS users_view;`);
+        await queryRunner.query(`
+            CREATE OR REPLACE VIEW users_view AS
+            SELECT
+                users.id,
+                users.first_name,
+                users.last_name,
+                users.email,
+                users.phone,
+                icc.phone_code AS phone_code,
+                users.iso_country_code_id,
+                cc.country_name AS country_name,
+                users.country_id,
+                genders.type AS gender,
+                users.birth_date,
+                users.gender_id,
+                users.address,
+                users.is_email_verified,
+                users.has_first_login,
+                users.created_at,
+                DATE_PART('day', CURRENT_DATE - users.created_at) AS days_since_registration,
+                DATE_PART('day', CURRENT_DATE - lo.last_order_date) AS days_since_order,
+                users.user_hash
+            FROM users
+            LEFT JOIN iso_country_codes icc ON users.iso_country_code_id = icc.id
+            LEFT JOIN iso_country_codes cc ON users.country_id = cc.id
+            LEFT JOIN genders ON users.gender_id = genders.id
+            LEFT JOIN LATERAL (
+                SELECT MAX(o.created_at) AS last_order_date
+                FROM orders o
+                WHERE o.user_id = users.id
+            ) lo ON TRUE
+            WHERE users.is_active = TRUE;`
+        );
+
+        // the backoffice lists deactivated users too, with the flag to filter on, from a view of its own
+        await queryRunner.query(`
+            CREATE OR REPLACE VIEW backoffice_users_view AS
+            SELECT
+                users.id,
+                users.first_name,
+                users.last_name,
+                users.email,
+                users.phone,
+                icc.phone_code AS phone_code,
+                users.iso_country_code_id,
+                cc.country_name AS country_name,
+                users.country_id,
+                genders.type AS gender,
+                users.birth_date,
+                users.gender_id,
+                users.address,
+                users.is_email_verified,
+                users.has_first_login,
+                users.created_at,
+                DATE_PART('day', CURRENT_DATE - users.created_at) AS days_since_registration,
+                DATE_PART('day', CURRENT_DATE - lo.last_order_date) AS days_since_order,
+                users.user_hash,
+                users.is_active
+            FROM users
+            LEFT JOIN iso_country_codes icc ON users.iso_country_code_id = icc.id
+            LEFT JOIN iso_country_codes cc ON users.country_id = cc.id
+            LEFT JOIN genders ON users.gender_id = genders.id
+            LEFT JOIN LATERAL (
+                SELECT MAX(o.created_at) AS last_order_date
+                FROM orders o
+                WHERE o.user_id = users.id
+            ) lo ON TRUE;`
+        );
+    }
+
+    public async down(queryRunner: QueryRunner): Promise<void> {
+        await queryRunner.query(`DROP VIEW IF EXISTS backoffice_users_view;`);
+    }
+}
@@ -0,0 +1,91 @@
+import { MigrationInterface, QueryRunner } from "typeorm";
+
+export class SelectIsActiveInProductsView1754044817265 implements MigrationInterface {
+    name = 'SelectIsActiveInProductsView1754044817265'
+
+    public async up(queryRunner: QueryRunner): Promise<void> {
+        // the list shows whether a product is active and can be filtered on it
+        await queryRunner.query(`DROP VIEW IF EXISTS products_view;`);
+        await queryRunner.query(`
+            CREATE OR REPLACE VIEW products_view AS
+            SELECT
+                p.id,
+                p.code,
+                p.name,
+                p.price,
+                inv.quantity,
+                p.short_description,
+                p.long_description,
+                img.images,
+                cat.categories,
+                rat.rating,
+                rat.rating_count,
+                ROUND(p.price * (1 + vat.vat_percentage / 100), 2) AS price_with_vat,
+                cat.category_ids,
+                p.is_active
+            FROM products p
+            LEFT JOIN inventories inv ON p.id = inv.product_id
+            CROSS JOIN (SELECT vat_percentage FROM app_settings LIMIT 1) vat
+            CROSS JOIN LATERAL (
+                SELECT COALESCE(ARRAY_AGG(DISTINCT i.url), ARRAY[NULL]::text[]) AS images
+                FROM images i
+                WHERE i.product_id = p.id
+            ) img
+            CROSS JOIN LATERAL (
+                SELECT
+                    COALESCE(ARRAY_AGG(c.name ORDER BY c.name, c.id), ARRAY[NULL]::text[]) AS categories,
+                    COALESCE(ARRAY_AGG(c.id ORDER BY c.name, c.id), ARRAY[NULL]::bigint[]) AS category_ids
+                FROM products_categories pc
+                JOIN categories c ON pc.category_id = c.id
+                WHERE pc.product_id = p.id
+            ) cat
+            CROSS JOIN LATERAL (
+                SELECT COALESCE(AVG(r.rating), 0) AS rating, COUNT(r.id) AS rating_count
+                FROM ratings r
+                WHERE r.product_id = p.id
+            ) rat;`
+        );
+    }
+
+    public async down(queryRunner: QueryRunner): Promise<void> {
+        await queryRunner.query(`DROP VIEW IF EXISTS products_view;`);
+        await queryRunner.query(`
+            CREATE OR REPLACE VIEW products_view AS
+            SELECT
+                p.id,
+                p.code,
+                p.name,
+                p.price,
+                inv.quantity,
+                p.short_description,
+                p.long_description,
+                img.images,
+                cat.categories,
+                rat.rating,
+                rat.rating_count,
+                ROUND(p.price * (1 + vat.vat_percentage / 100), 2) AS price_with_vat,
+                cat.category_ids
+            FROM products p
+            LEFT JOIN inventories inv ON p.id = inv.product_id
+            CROSS JOIN (SELECT vat_percentage FROM app_settings LIMIT 1) vat
+            CROSS JOIN LATERAL (
+                SELECT COALESCE(ARRAY_AGG(DISTINCT i.url), ARRAY[NULL]::text[]) AS images
+                FROM images i
+                WHERE i.product_id = p.id
+            ) img
+            CROSS JOIN LATERAL (
+                SELECT
+                    COALESCE(ARRAY_AGG(c.name ORDER BY c.name, c.id), ARRAY[NULL]::text[]) AS categories,
+                    COALESCE(ARRAY_AGG(c.id ORDER BY c.name, c.id), ARRAY[NULL]::bigint[]) AS category_ids
+                FROM products_categories pc
+                JOIN categories c ON pc.category_id = c.id
+                WHERE pc.product_id = p.id
+            ) cat
+            CROSS JOIN LATERAL (
+                SELECT COALESCE(AVG(r.rating), 0) AS rating, COUNT(r.id) AS rating_count
+                FROM ratings r
+                WHERE r.product_id = p.id
+            ) rat;`
+        );
+    }
+}
@@ -0,0 +1,24 @@
+import { MigrationInterface, QueryRunner } from "typeorm";
+
+export class UniqueInventoryPerProduct1754131217265 implements MigrationInterface {
+    name = 'UniqueInventoryPerProduct1754131217265'
+
+    public async up(queryRunner: QueryRunner): Promise<void> {
+        // earlier product updates inserted a new row instead of updating the stock; the newest one is current
+        await queryRunner.query(`
+            DELETE FROM inventories older
+            USING inventories newer
+            WHERE older.product_id = newer.product_id
+              AND older.id < newer.id;
+        `);
+        // the stock adjustment returns one quantity per product and the products view joins one row per product
+        await queryRunner.query(`DROP INDEX IF EXISTS idx_inventories_product_id;`);
+        await queryRunner.query(`CREATE UNIQUE INDEX inventories_product_id_key ON inventories (product_id);`);
+    }
+
+    public async down(queryRunner: QueryRunner): Promise<void> {
+        // the duplicates removed by up are not restored
+        await queryRunner.query(`DROP INDEX IF EXISTS inventories_product_id_key;`);
+        await queryRunner.query(`CREATE INDEX IF NOT EXISTS idx_inventories_product_id ON inventories (product_id);`);
+    }
+}
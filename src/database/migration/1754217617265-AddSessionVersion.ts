@@ -0,0 +1,32 @@
+import { MigrationInterface, QueryRunner } from "typeorm";
+
+export class AddSessionVersion1754217617265 implements MigrationInterface {
+    name = 'AddSessionVersion1754217617265'
+
+    public async up(queryRunner: QueryRunner): Promise<void> {
+        // logins and logouts bump the version, which tells the backoffice to drop its cached sessions;
+        // expiry updates and the sweeper deactivating expired sessions leave it alone
+        await queryRunner.query(`CREATE TABLE IF NOT EXISTS "session_version" ("id" integer NOT NULL, "version" bigint NOT NULL DEFAULT 0, CONSTRAINT "PK_session_version" PRIMARY KEY ("id"))`);
+        await queryRunner.query(`INSERT INTO "session_version" ("id", "version") VALUES (1, 0) ON CONFLICT DO NOTHING`);
+        await queryRunner.query(`CREATE OR REPLACE FUNCTION bump_session_version() RETURNS trigger AS $$
+            BEGIN
+                UPDATE session_version SET version = version + 1 WHERE id = 1;
+                RETURN NULL;
+            END;
+            $$ LANGUAGE plpgsql;`);
+        await queryRunner.query(`DROP TRIGGER IF EXISTS trg_admin_sessions_session_version ON admin_sessions;`);
+        await queryRunner.query(`CREATE TRIGGER trg_admin_sessions_session_version
+            AFTER UPDATE OF is_active, session_type_id, admin_user_id ON admin_sessions
+            FOR EACH ROW
+            WHEN (OLD.session_type_id IS DISTINCT FROM NEW.session_type_id
+                OR OLD.admin_user_id IS DISTINCT FROM NEW.admin_user_id
+                OR (OLD.is_active AND NOT NEW.is_active AND NEW.expires_at > now()))
+            EXECUTE FUNCTION bump_session_version();`);
+    }
+
+    public async down(queryRunner: QueryRunner): Promise<void> {
+        await queryRunner.query(`DROP TRIGGER IF EXISTS trg_admin_sessions_session_version ON admin_sessions;`);
+        await queryRunner.query(`DROP FUNCTION IF EXISTS bump_session_version();`);
+        await queryRunner.query(`DROP TABLE IF EXISTS "session_version"`);
+    }
+}
@@ -0,0 +1,21 @@
+import { MigrationInterface, QueryRunner } from "typeorm";
+
+export class AddApiRateLimitSettings1754304017265 implements MigrationInterface {
+    name = 'AddApiRateLimitSettings1754304017265'
+
+    public async up(queryRunner: QueryRunner): Promise<void> {
+        // the backoffice API's own request limits; request_limit, request_window and request_block_duration stay with the login flow
+        await queryRunner.query(`ALTER TABLE "app_settings" ADD COLUMN IF NOT EXISTS "api_request_limit" bigint NOT NULL DEFAULT 600`);
+        await queryRunner.query(`ALTER TABLE "app_settings" ADD COLUMN IF NOT EXISTS "api_request_window_seconds" bigint NOT NULL DEFAULT 60`);
+        await queryRunner.query(`ALTER TABLE "app_settings" ADD COLUMN IF NOT EXISTS "api_request_block_seconds" bigint NOT NULL DEFAULT 60`);
+        // kept apart from rate_limited_until, which the login flow sets
+        await queryRunner.query(`ALTER TABLE "admin_sessions" ADD COLUMN IF NOT EXISTS "api_blocked_until" TIMESTAMP WITH TIME ZONE`);
+    }
+
+    public async down(queryRunner: QueryRunner): Promise<void> {
+        await queryRunner.query(`ALTER TABLE "admin_sessions" DROP COLUMN IF EXISTS "api_blocked_until"`);
+        await queryRunner.query(`ALTER TABLE "app_settings" DROP COLUMN IF EXISTS "api_request_block_seconds"`);
+        await queryRunner.query(`ALTER TABLE "app_settings" DROP COLUMN IF EXISTS "api_request_window_seconds"`);
+        await queryRunner.query(`ALTER TABLE "app_settings" DROP COLUMN IF EXISTS "api_request_limit"`);
+    }
+}
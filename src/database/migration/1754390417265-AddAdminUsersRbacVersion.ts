@@ -0,0 +1,19 @@
+import { MigrationInterface, QueryRunner } from "typeorm";
+
+export class AddAdminUsersRbacVersion1754390417265 implements MigrationInterface {
+    name = 'AddAdminUsersRbacVersion1754390417265'
+
+    public async up(queryRunner: QueryRunner): Promise<void> {
+        // the permission matrix only grants to active admins, so (de)activating one has to recompile it too
+        await queryRunner.query(`DROP TRIGGER IF EXISTS trg_admin_users_rbac_version ON admin_users;`);
+        await queryRunner.query(`CREATE TRIGGER trg_admin_users_rbac_version
+            AFTER UPDATE OF is_active ON admin_users
+            FOR EACH ROW
+            WHEN (OLD.is_active IS DISTINCT FROM NEW.is_active)
+            EXECUTE FUNCTION bump_rbac_version();`);
+    }
+
+    public async down(queryRunner: QueryRunner): Promise<void> {
+        await queryRunner.query(`DROP TRIGGER IF EXISTS trg_admin_users_rbac_version ON admin_users;`);
+    }
+}
@@ -53,7 +53,7 @@ describe("AppConfigService", () => {
 
       const expectedQuery = `
         UPDATE app_settings 
-        SET request_limit = $1, request_window = $2, request_block_duration = $3, password_require_digit = $4, password_require_lowercase = $5, password_require_uppercase = $6, password_require_special = $7, vat_percentage = $8, report_row_limit_display = $9, campaign_status_update_interval = $10, target_group_status_update_interval = $11, target_group_status_update_initial_time = $12, user_group_chart_count = $13, campaign_chart_count = $14, push_notification_provider_id = $15
+        SET request_limit = $1, request_window = $2, request_block_duration = $3, password_require_digit = $4, password_require_lowercase = $5, password_require_uppercase = $6, password_require_special = $7, vat_percentage = $8, report_row_limit_display = $9, campaign_status_update_interval = $10, target_group_status_update_interval = $11, target_group_status_update_initial_time = $12, user_group_chart_count = $13, campaign_chart_count = $14, push_notification_provider_id = $15, api_request_limit = COALESCE($16, api_request_limit), api_request_window_seconds = COALESCE($17, api_request_window_seconds), api_request_block_seconds = COALESCE($18, api_request_block_seconds)
         WHERE id = 1 RETURNING *`;
 
       expect(
@@ -101,7 +101,7 @@ describe("AppConfigService", () => {
 
       const expectedQuery = `
         UPDATE app_settings 
-        SET request_limit = $1, request_window = $2, request_block_duration = $3, password_require_digit = $4, password_require_lowercase = $5, password_require_uppercase = $6, password_require_special = $7, vat_percentage = $8, report_row_limit_display = $9, campaign_status_update_interval = $10, target_group_status_update_interval = $11, target_group_status_update_initial_time = $12, user_group_chart_count = $13, campaign_chart_count = $14, push_notification_provider_id = $15
+        SET request_limit = $1, request_window = $2, request_block_duration = $3, password_require_digit = $4, password_require_lowercase = $5, password_require_uppercase = $6, password_require_special = $7, vat_percentage = $8, report_row_limit_display = $9, campaign_status_update_interval = $10, target_group_status_update_interval = $11, target_group_status_update_initial_time = $12, user_group_chart_count = $13, campaign_chart_count = $14, push_notification_provider_id = $15, api_request_limit = COALESCE($16, api_request_limit), api_request_window_seconds = COALESCE($17, api_request_window_seconds), api_request_block_seconds = COALESCE($18, api_request_block_seconds)
         WHERE id = 1 RETURNING *`;
 
       expect(
@@ -138,7 +138,7 @@ describe("AppConfigService", () => {
 
       const expectedQuery = `
         UPDATE app_settings 
-        SET request_limit = $1, request_window = $2, request_block_duration = $3, password_require_digit = $4, password_require_lowercase = $5, password_require_uppercase = $6, password_require_special = $7, vat_percentage = $8, report_row_limit_display = $9, campaign_status_update_interval = $10, target_group_status_update_interval = $11, target_group_status_update_initial_time = $12, user_group_chart_count = $13, campaign_chart_count = $14, push_notification_provider_id = $15
+        SET request_limit = $1, request_window = $2, request_block_duration = $3, password_require_digit = $4, password_require_lowercase = $5, password_require_uppercase = $6, password_require_special = $7, vat_percentage = $8, report_row_limit_display = $9, campaign_status_update_interval = $10, target_group_status_update_interval = $11, target_group_status_update_initial_time = $12, user_group_chart_count = $13, campaign_chart_count = $14, push_notification_provider_id = $15, api_request_limit = COALESCE($16, api_request_limit), api_request_window_seconds = COALESCE($17, api_request_window_seconds), api_request_block_seconds = COALESCE($18, api_request_block_seconds)
         WHERE id = 1 RETURNING *`;
 
       expect(
@@ -8,7 +8,7 @@ class AppConfigService {
   async updateRateLimitSettings(data) {
     const query = `
     UPDATE app_settings 
-    SET request_limit = $1, request_window = $2, request_block_duration = $3, password_require_digit = $4, password_require_lowercase = $5, password_require_uppercase = $6, password_require_special = $7, vat_percentage = $8, report_row_limit_display = $9, campaign_status_update_interval = $10, target_group_status_update_interval = $11, target_group_status_update_initial_time = $12, user_group_chart_count = $13, campaign_chart_count = $14, push_notification_provider_id = $15
+    SET request_limit = $1, request_window = $2, request_block_duration = $3, password_require_digit = $4, password_require_lowercase = $5, password_require_uppercase = $6, password_require_special = $7, vat_percentage = $8, report_row_limit_display = $9, campaign_status_update_interval = $10, target_group_status_update_interval = $11, target_group_status_update_initial_time = $12, user_group_chart_count = $13, campaign_chart_count = $14, push_notification_provider_id = $15, api_request_limit = COALESCE($16, api_request_limit), api_request_window_seconds = COALESCE($17, api_request_window_seconds), api_request_block_seconds = COALESCE($18, api_request_block_seconds)
     WHERE id = 1 RETURNING *`;
 
     const result = await data.dbConnection.query(query, [
@@ -27,6 +27,9 @@ class AppConfigService {
       data.body.user_group_chart_count,
       data.body.campaign_chart_count,
       data.body.push_notification_provider_id || '1',
+      data.body.api_request_limit ?? null,
+      data.body.api_request_window_seconds ?? null,
+      data.body.api_request_block_seconds ?? null,
     ]);
     return { message: "Rate limit settings updated" };
   }